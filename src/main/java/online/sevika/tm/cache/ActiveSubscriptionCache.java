@@ -0,0 +1,139 @@
+package online.sevika.tm.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import online.sevika.tm.entity.Subscription;
+import online.sevika.tm.repository.SubscriptionRepository;
+import online.sevika.tm.repository.projection.ActiveSubscriptionView;
+import online.sevika.tm.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache of each user's current subscription, as an immutable snapshot,
+ * for checks that run on every request. Plan limits are resolved by the entitlement
+ * service, which also evicts this cache, so each subscription write invalidates both
+ * with one call.
+ *
+ * Users without a current subscription are cached too. An entry expires at the
+ * subscription's end date, so a lapsed subscription stops counting before the expiry
+ * job gets to it, and otherwise after the TTL, which bounds how long another instance's
+ * changes go unseen. Subscription writes evict the user's entry once they commit.
+ */
+@Component
+public class ActiveSubscriptionCache {
+
+    private static final String METRIC_NAME = "subscriptions.active";
+
+    /**
+     * Current subscription of a user
+     */
+    public record ActiveSubscription(
+            UUID subscriptionId,
+            UUID planId,
+            Subscription.SubscriptionStatus status,
+            LocalDateTime endDate) {
+    }
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final Clock clock;
+    private final Cache<UUID, Optional<ActiveSubscription>> subscriptionsByUser;
+
+    @Autowired
+    public ActiveSubscriptionCache(
+            SubscriptionRepository subscriptionRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.subscriptions.active-cache.max-size:10000}") long maxSize,
+            @Value("${app.subscriptions.active-cache.ttl:PT5M}") Duration ttl) {
+        this(subscriptionRepository, meterRegistry, maxSize, ttl, Clock.systemDefaultZone());
+    }
+
+    ActiveSubscriptionCache(SubscriptionRepository subscriptionRepository, MeterRegistry meterRegistry,
+                            long maxSize, Duration ttl, Clock clock) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.clock = clock;
+        this.subscriptionsByUser = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilEndDate(ttl, clock))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, subscriptionsByUser, METRIC_NAME);
+    }
+
+    /**
+     * Current subscription of a user, loading and caching it on a miss
+     */
+    public Optional<ActiveSubscription> get(UUID userId) {
+        return subscriptionsByUser.get(userId, this::load);
+    }
+
+    /**
+     * Drop a user's entry right away and load it again, for a caller that found it stale
+     */
+    public Optional<ActiveSubscription> reload(UUID userId) {
+        subscriptionsByUser.invalidate(userId);
+        return get(userId);
+    }
+
+    /**
+     * Drop a user's entry once the current transaction commits
+     */
+    public void evict(UUID userId) {
+        AfterCommit.run(() -> subscriptionsByUser.invalidate(userId));
+    }
+
+    private Optional<ActiveSubscription> load(UUID userId) {
+        List<ActiveSubscriptionView> current = subscriptionRepository.findCurrentSubscriptionViews(
+                userId, LocalDateTime.now(clock), PageRequest.of(0, 1));
+        return current.stream().findFirst().map(view -> new ActiveSubscription(
+                view.getId(),
+                view.getPlanId(),
+                view.getStatus(),
+                view.getEndDate()));
+    }
+
+    private static final class UntilEndDate implements Expiry<UUID, Optional<ActiveSubscription>> {
+
+        private final long ttlNanos;
+        private final Clock clock;
+
+        private UntilEndDate(Duration ttl, Clock clock) {
+            this.ttlNanos = ttl.toNanos();
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(UUID userId, Optional<ActiveSubscription> subscription, long currentTime) {
+            return subscription
+                    .map(active -> Math.max(0, Math.min(ttlNanos,
+                            Duration.between(LocalDateTime.now(clock), active.endDate()).toNanos())))
+                    .orElse(ttlNanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID userId, Optional<ActiveSubscription> subscription, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(userId, subscription, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID userId, Optional<ActiveSubscription> subscription, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package online.sevika.tm.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.entity.Task;
+import online.sevika.tm.repository.TaskRepository;
+import online.sevika.tm.repository.projection.TaskDueDateView;
+import online.sevika.tm.util.AfterCommit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of open tasks ordered by due date, per assignee and per project.
+ *
+ * Loaded once at startup, kept current as tasks change (applied after commit) and
+ * rebuilt on a schedule to repair any drift. Overdue / due-soon lookups are range
+ * scans over sorted sets instead of table scans.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskDueDateIndex {
+
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final int DUE_THIS_WEEK_DAYS = 7;
+
+    private final TaskRepository taskRepository;
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    /**
+     * Changes applied while a rebuild is loading, replayed onto the rebuilt snapshot (guarded by this)
+     */
+    private List<Consumer<Snapshot>> rebuildJournal;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tasks.due-index.refresh-interval:PT15M}",
+               initialDelayString = "${app.tasks.due-index.refresh-interval:PT15M}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * Reload the index from the database
+     */
+    public void rebuild() {
+        synchronized (this) {
+            if (rebuildJournal != null) {
+                log.debug("Due-date index rebuild already in progress");
+                return;
+            }
+            rebuildJournal = new ArrayList<>();
+        }
+
+        Snapshot fresh = new Snapshot();
+        try {
+            for (TaskDueDateView view : taskRepository.findOpenTasksWithDueDate()) {
+                fresh.put(new IndexedTask(view.getId(), view.getProjectId(), view.getAssignedToId(), view.getDueDate()));
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rebuildJournal = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            rebuildJournal.forEach(change -> change.accept(fresh));
+            rebuildJournal = null;
+            snapshot = fresh;
+        }
+        log.info("Due-date index rebuilt with {} open tasks", fresh.tasks.size());
+    }
+
+    /**
+     * Record a created or updated task; done or undated tasks leave the index
+     */
+    public void onTaskSaved(Task task) {
+        onTaskSaved(
+                task.getId(),
+                task.getProject().getId(),
+                task.getAssignedTo() != null ? task.getAssignedTo().getId() : null,
+                task.getDueDate(),
+                task.getStatus());
+    }
+
+    public void onTaskSaved(UUID taskId, UUID projectId, UUID assigneeId, LocalDate dueDate, Task.TaskStatus status) {
+        if (status == Task.TaskStatus.DONE || dueDate == null) {
+            afterCommit(current -> current.remove(taskId));
+            return;
+        }
+        IndexedTask indexed = new IndexedTask(taskId, projectId, assigneeId, dueDate);
+        afterCommit(current -> current.put(indexed));
+    }
+
+    public void onTaskDeleted(UUID taskId) {
+        afterCommit(current -> current.remove(taskId));
+    }
+
+    public void onProjectDeleted(UUID projectId) {
+        afterCommit(current -> current.removeProject(projectId));
+    }
+
+    /**
+     * IDs of at most {@code limit} open tasks due before today, earliest first
+     */
+    public List<UUID> overdue(LocalDate today, int limit) {
+        return ids(snapshot.all.headSet(new DueEntry(today, MIN_ID), false), limit);
+    }
+
+    /**
+     * IDs of at most {@code limit} open tasks due from today through the given number of days ahead, earliest first
+     */
+    public List<UUID> dueWithin(LocalDate today, int days, int limit) {
+        return ids(range(snapshot.all, today, today.plusDays(days + 1L)), limit);
+    }
+
+    public DueBuckets bucketsForAssignee(UUID userId, LocalDate today) {
+        return buckets(snapshot.byAssignee.get(userId), today);
+    }
+
+    public DueBuckets bucketsForProject(UUID projectId, LocalDate today) {
+        return buckets(snapshot.byProject.get(projectId), today);
+    }
+
+    private DueBuckets buckets(NavigableSet<DueEntry> entries, LocalDate today) {
+        if (entries == null) {
+            return new DueBuckets(List.of(), List.of(), List.of());
+        }
+        LocalDate tomorrow = today.plusDays(1);
+        return new DueBuckets(
+                ids(entries.headSet(new DueEntry(today, MIN_ID), false)),
+                ids(range(entries, today, tomorrow)),
+                ids(range(entries, tomorrow, today.plusDays(DUE_THIS_WEEK_DAYS))));
+    }
+
+    private static NavigableSet<DueEntry> range(NavigableSet<DueEntry> entries, LocalDate from, LocalDate toExclusive) {
+        return entries.subSet(new DueEntry(from, MIN_ID), true, new DueEntry(toExclusive, MIN_ID), false);
+    }
+
+    private static List<UUID> ids(NavigableSet<DueEntry> entries) {
+        return entries.stream().map(DueEntry::taskId).toList();
+    }
+
+    private static List<UUID> ids(NavigableSet<DueEntry> entries, int limit) {
+        return entries.stream().limit(limit).map(DueEntry::taskId).toList();
+    }
+
+    private void afterCommit(Consumer<Snapshot> change) {
+        AfterCommit.run(() -> apply(change));
+    }
+
+    private synchronized void apply(Consumer<Snapshot> change) {
+        change.accept(snapshot);
+        if (rebuildJournal != null) {
+            rebuildJournal.add(change);
+        }
+    }
+
+    /**
+     * Task IDs grouped into overdue, due today and due within the rest of the week
+     */
+    public record DueBuckets(List<UUID> overdue, List<UUID> dueToday, List<UUID> dueThisWeek) {
+    }
+
+    private record IndexedTask(UUID taskId, UUID projectId, UUID assigneeId, LocalDate dueDate) {
+
+        DueEntry entry() {
+            return new DueEntry(dueDate, taskId);
+        }
+    }
+
+    private record DueEntry(LocalDate dueDate, UUID taskId) implements Comparable<DueEntry> {
+
+        private static final Comparator<DueEntry> ORDER = Comparator
+                .comparing(DueEntry::dueDate)
+                .thenComparing(DueEntry::taskId);
+
+        @Override
+        public int compareTo(DueEntry other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final Map<UUID, IndexedTask> tasks = new ConcurrentHashMap<>();
+        private final NavigableSet<DueEntry> all = new ConcurrentSkipListSet<>();
+        private final Map<UUID, NavigableSet<DueEntry>> byAssignee = new ConcurrentHashMap<>();
+        private final Map<UUID, NavigableSet<DueEntry>> byProject = new ConcurrentHashMap<>();
+
+        void put(IndexedTask task) {
+            remove(task.taskId());
+            tasks.put(task.taskId(), task);
+            DueEntry entry = task.entry();
+            all.add(entry);
+            byProject.computeIfAbsent(task.projectId(), id -> new ConcurrentSkipListSet<>()).add(entry);
+            if (task.assigneeId() != null) {
+                byAssignee.computeIfAbsent(task.assigneeId(), id -> new ConcurrentSkipListSet<>()).add(entry);
+            }
+        }
+
+        void remove(UUID taskId) {
+            IndexedTask previous = tasks.remove(taskId);
+            if (previous == null) {
+                return;
+            }
+            DueEntry entry = previous.entry();
+            all.remove(entry);
+            removeFrom(byProject, previous.projectId(), entry);
+            if (previous.assigneeId() != null) {
+                removeFrom(byAssignee, previous.assigneeId(), entry);
+            }
+        }
+
+        void removeProject(UUID projectId) {
+            NavigableSet<DueEntry> entries = byProject.get(projectId);
+            if (entries != null) {
+                entries.stream().map(DueEntry::taskId).toList().forEach(this::remove);
+            }
+        }
+
+        private static void removeFrom(Map<UUID, NavigableSet<DueEntry>> sets, UUID key, DueEntry entry) {
+            sets.computeIfPresent(key, (id, set) -> {
+                set.remove(entry);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
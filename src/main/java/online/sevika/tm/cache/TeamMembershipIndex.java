@@ -0,0 +1,139 @@
+package online.sevika.tm.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import online.sevika.tm.entity.TeamMember;
+import online.sevika.tm.entity.enums.TeamRole;
+import online.sevika.tm.repository.TeamMemberRepository;
+import online.sevika.tm.repository.TeamRepository;
+import online.sevika.tm.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory team membership graph: team → owner and member roles, and user → teams
+ * with role.
+ *
+ * Each side is loaded lazily, one team or one user at a time, into immutable maps
+ * that are replaced rather than mutated. Membership changes invalidate the affected
+ * team and user once the transaction commits; entries also expire after the TTL,
+ * which bounds how stale another instance's view can get.
+ */
+@Component
+public class TeamMembershipIndex {
+
+    private static final String METRIC_NAME = "team.memberships";
+
+    private final TeamRepository teamRepository;
+    private final TeamMemberRepository teamMemberRepository;
+    private final Cache<UUID, TeamMembers> teams;
+    private final Cache<UUID, Map<UUID, TeamRole>> teamsByUser;
+
+    public TeamMembershipIndex(
+            TeamRepository teamRepository,
+            TeamMemberRepository teamMemberRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.teams.membership-cache.max-size:10000}") long maxSize,
+            @Value("${app.teams.membership-cache.ttl:PT1M}") Duration ttl) {
+        this.teamRepository = teamRepository;
+        this.teamMemberRepository = teamMemberRepository;
+        this.teams = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.teamsByUser = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, teams, METRIC_NAME);
+    }
+
+    /**
+     * Check if the user owns the team; false for unknown teams
+     */
+    public boolean isOwner(UUID teamId, UUID userId) {
+        TeamMembers members = team(teamId);
+        return members != null && members.ownerId().equals(userId);
+    }
+
+    /**
+     * Role of the user in the team, if they are a member
+     */
+    public Optional<TeamRole> roleOf(UUID teamId, UUID userId) {
+        TeamMembers members = team(teamId);
+        return members == null ? Optional.empty() : Optional.ofNullable(members.roles().get(userId));
+    }
+
+    /**
+     * Teams the user is a member of, with their role in each
+     */
+    public Map<UUID, TeamRole> teamsOf(UUID userId) {
+        return teamsByUser.get(userId, key -> teamMemberRepository.findByUserId(key).stream()
+                .collect(Collectors.toUnmodifiableMap(TeamMember::getTeamId, TeamMember::getRole)));
+    }
+
+    /**
+     * Drop the team and the user's memberships once the current transaction commits
+     */
+    public void invalidateMembership(UUID teamId, UUID userId) {
+        AfterCommit.run(() -> {
+            teams.invalidate(teamId);
+            teamsByUser.invalidate(userId);
+        });
+    }
+
+    /**
+     * Drop the team and the memberships of the given users once the current transaction commits
+     */
+    public void invalidateMembers(UUID teamId, Collection<UUID> userIds) {
+        AfterCommit.run(() -> {
+            teams.invalidate(teamId);
+            teamsByUser.invalidateAll(userIds);
+        });
+    }
+
+    /**
+     * Drop a deleted team, and the memberships of everyone in it, once the current transaction commits
+     */
+    public void invalidateTeam(UUID teamId) {
+        // Read the members now, before the delete cascades them away
+        TeamMembers members = team(teamId);
+        AfterCommit.run(() -> {
+            teams.invalidate(teamId);
+            if (members != null) {
+                teamsByUser.invalidateAll(members.roles().keySet());
+            }
+        });
+    }
+
+    /**
+     * Drop a deleted user, and the teams they were in, once the current transaction commits
+     */
+    public void invalidateUser(UUID userId) {
+        Map<UUID, TeamRole> memberships = teamsOf(userId);
+        AfterCommit.run(() -> {
+            teamsByUser.invalidate(userId);
+            teams.invalidateAll(memberships.keySet());
+        });
+    }
+
+    private TeamMembers team(UUID teamId) {
+        return teams.get(teamId, key -> teamRepository.findById(key)
+                .map(team -> new TeamMembers(team.getOwnerId(), teamMemberRepository.findByTeamId(key).stream()
+                        .collect(Collectors.toUnmodifiableMap(TeamMember::getUserId, TeamMember::getRole))))
+                .orElse(null));
+    }
+
+    private record TeamMembers(UUID ownerId, Map<UUID, TeamRole> roles) {
+    }
+}
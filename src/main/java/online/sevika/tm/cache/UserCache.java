@@ -0,0 +1,128 @@
+package online.sevika.tm.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import online.sevika.tm.entity.User;
+import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of users by id and username, bounded by size and time.
+ *
+ * The cache holds a snapshot of each user without its password hash and hands every
+ * caller its own detached copy, so callers may reference it from other entities and
+ * changes to it never reach the cache; updates load the user from the repository and
+ * evict it here. Users are only ever loaded through the by-id cache, whose loads are
+ * serialized with eviction, so a read racing an update cannot cache the old user; a
+ * username only resolves to an ID, which is checked against the loaded user. Entries
+ * also expire after the TTL, which bounds how stale another instance's copy can get.
+ */
+@Component
+public class UserCache {
+
+    private static final String METRIC_NAME = "users";
+
+    private final UserRepository userRepository;
+    private final Cache<UUID, User> usersById;
+    private final Cache<String, UUID> idsByUsername;
+
+    public UserCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.users.cache.max-size:10000}") long maxSize,
+            @Value("${app.users.cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, METRIC_NAME);
+    }
+
+    /**
+     * Find a user by ID, loading and caching it on a miss
+     */
+    public Optional<User> findById(UUID id) {
+        User cached = usersById.get(id, key -> userRepository.findById(key).map(UserCache::copyOf).orElse(null));
+        return Optional.ofNullable(cached).map(UserCache::copyOf);
+    }
+
+    /**
+     * Find a user by username, loading and caching it on a miss
+     */
+    public Optional<User> findByUsername(String username) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            UUID id = idsByUsername.get(username, key -> userRepository.findIdByUsername(key).orElse(null));
+            if (id == null) {
+                return Optional.empty();
+            }
+            Optional<User> user = findById(id);
+            if (user.isPresent() && user.get().getUsername().equals(username)) {
+                return user;
+            }
+            // Renamed or deleted since the username was cached; forget it and resolve it again
+            idsByUsername.asMap().remove(username, id);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Users by ID; misses are loaded with a single IN query. Unknown IDs are left out.
+     */
+    public Map<UUID, User> getUsersByIds(Collection<UUID> ids) {
+        Set<UUID> distinct = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distinct.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<UUID, User> users = usersById.getAll(distinct, missing -> userRepository.findAllById(Set.copyOf(missing)).stream()
+                .collect(Collectors.toMap(User::getId, UserCache::copyOf)));
+        return users.values().stream().collect(Collectors.toMap(User::getId, UserCache::copyOf));
+    }
+
+    /**
+     * Drop a user from the cache once the current transaction commits
+     */
+    public void evict(UUID id) {
+        AfterCommit.run(() -> {
+            usersById.invalidate(id);
+            idsByUsername.asMap().values().removeIf(id::equals);
+        });
+    }
+
+    /**
+     * Detached copy of a user without the password hash
+     */
+    private static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .role(user.getRole())
+                .enabled(user.getEnabled())
+                .tokenVersion(user.getTokenVersion())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+}
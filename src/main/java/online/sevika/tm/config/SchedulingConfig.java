@@ -0,0 +1,13 @@
+package online.sevika.tm.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled jobs: maintenance jobs coordinated across instances (see MaintenanceJobs)
+ * and per-instance pollers and index refreshes.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,10 +1,12 @@
 package online.sevika.tm.controller;
 import online.sevika.tm.dto.AuthResponseDTO;
 import online.sevika.tm.dto.LoginRequestDTO;
+import online.sevika.tm.dto.RefreshTokenRequestDTO;
 import online.sevika.tm.dto.RegisterRequestDTO;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import online.sevika.tm.service.AuthService;
@@ -41,8 +43,26 @@ public class AuthController {
 
     @PostMapping("/login")
     @Operation(summary = "Login", description = "Authenticate user and get JWT token")
-    public ResponseEntity<AuthResponseDTO> login(@Valid @RequestBody LoginRequestDTO request) {
-        AuthResponseDTO response = authService.login(request);
+    public ResponseEntity<AuthResponseDTO> login(
+            @Valid @RequestBody LoginRequestDTO request,
+            HttpServletRequest httpRequest) {
+        // The socket address, not X-Forwarded-For, so clients can't pick their own rate-limit key;
+        // behind a proxy set server.forward-headers-strategy so this is the real client
+        AuthResponseDTO response = authService.login(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh token", description = "Exchange a refresh token for a new access token and refresh token")
+    public ResponseEntity<AuthResponseDTO> refresh(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        AuthResponseDTO response = authService.refresh(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revoke the refresh token and every token rotated from the same login")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        authService.logout(request);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,36 @@
+package online.sevika.tm.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import online.sevika.tm.service.PaymentWebhookService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller receiving payment gateway webhooks. Requests are authenticated by
+ * their signature rather than a bearer token.
+ */
+@RestController
+@RequestMapping("/api/webhooks")
+@RequiredArgsConstructor
+@Tag(name = "Webhooks", description = "Payment gateway webhook endpoints")
+public class PaymentWebhookController {
+
+    private final PaymentWebhookService paymentWebhookService;
+
+    @PostMapping("/razorpay")
+    @Operation(summary = "Razorpay webhook", description = "Queue a signed Razorpay event; acknowledged before it is applied")
+    public ResponseEntity<Void> receiveRazorpayEvent(
+            @RequestBody String payload,
+            @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
+        // The signature covers the exact bytes received, so the body is taken raw
+        paymentWebhookService.receive(payload, signature, eventId);
+        return ResponseEntity.ok().build();
+    }
+}
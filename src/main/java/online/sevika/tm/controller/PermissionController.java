@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.PermissionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -35,7 +36,7 @@ public class PermissionController {
             @PathVariable UUID projectId,
             @Valid @RequestBody PermissionGrantRequestDTO request,
             Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         ProjectPermissionResponseDTO response = permissionService.grantProjectPermission(projectId, request, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -48,7 +49,7 @@ public class PermissionController {
             @RequestParam(required = false) UUID teamId,
             @RequestParam(required = false) UUID userId,
             Authentication authentication) {
-        UUID currentUserId = UUID.fromString(authentication.getName());
+        UUID currentUserId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         permissionService.revokeProjectPermission(projectId, teamId, userId, currentUserId);
         return ResponseEntity.noContent().build();
     }
@@ -69,7 +70,7 @@ public class PermissionController {
             @PathVariable UUID taskId,
             @Valid @RequestBody PermissionGrantRequestDTO request,
             Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         TaskPermissionResponseDTO response = permissionService.grantTaskPermission(taskId, request, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -82,7 +83,7 @@ public class PermissionController {
             @RequestParam(required = false) UUID teamId,
             @RequestParam(required = false) UUID userId,
             Authentication authentication) {
-        UUID currentUserId = UUID.fromString(authentication.getName());
+        UUID currentUserId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         permissionService.revokeTaskPermission(taskId, teamId, userId, currentUserId);
         return ResponseEntity.noContent().build();
     }
@@ -9,12 +9,15 @@ import online.sevika.tm.dto.ProjectRequestDTO;
 import online.sevika.tm.dto.ProjectResponseDTO;
 import online.sevika.tm.dto.ProjectUpdateRequestDTO;
 import online.sevika.tm.dto.ProjectSummaryDTO;
-import online.sevika.tm.entity.User;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.ProjectService;
+import online.sevika.tm.util.ETags;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -36,42 +39,49 @@ public class ProjectController {
     public ResponseEntity<ProjectResponseDTO> createProject(
             @Valid @RequestBody ProjectRequestDTO request,
             Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         ProjectResponseDTO response = projectService.createProject(request, user.getId());
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
     @GetMapping
-    @Operation(summary = "Get all projects", description = "Retrieve all projects")
-    public ResponseEntity<List<ProjectResponseDTO>> getAllProjects() {
+    @Operation(summary = "Get all projects", description = "Retrieve all projects (supports If-None-Match)")
+    public ResponseEntity<List<ProjectResponseDTO>> getAllProjects(WebRequest webRequest) {
+        if (webRequest.checkNotModified(projectService.getAllProjectsETag())) {
+            return null;
+        }
         List<ProjectResponseDTO> projects = projectService.getAllProjects();
-        return ResponseEntity.ok(projects);
+        return ResponseEntity.ok().eTag(ETags.forProjects(projects)).body(projects);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get project by ID", description = "Retrieve a project by its ID")
-    public ResponseEntity<ProjectResponseDTO> getProjectById(@PathVariable UUID id) {
+    @Operation(summary = "Get project by ID", description = "Retrieve a project by its ID (supports If-None-Match)")
+    public ResponseEntity<ProjectResponseDTO> getProjectById(@PathVariable UUID id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(projectService.getProjectETag(id))) {
+            return null;
+        }
         ProjectResponseDTO project = projectService.getProjectById(id);
-        return ResponseEntity.ok(project);
+        return ResponseEntity.ok().eTag(ETags.forProject(project)).body(project);
     }
 
     @GetMapping("/my-projects")
     @Operation(summary = "Get my projects", description = "Retrieve projects owned by the current user")
     public ResponseEntity<List<ProjectResponseDTO>> getMyProjects(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         List<ProjectResponseDTO> projects = projectService.getProjectsByOwner(user.getId());
         return ResponseEntity.ok(projects);
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update project", description = "Update project information")
+    @Operation(summary = "Update project", description = "Update project information (If-Match guards against lost updates)")
     public ResponseEntity<ProjectResponseDTO> updateProject(
             @PathVariable UUID id,
             @Valid @RequestBody ProjectUpdateRequestDTO request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        ProjectResponseDTO response = projectService.updateProject(id, request, user.getId());
-        return ResponseEntity.ok(response);
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        ProjectResponseDTO response = projectService.updateProject(id, request, user.getId(), ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.forProject(response)).body(response);
     }
 
     @DeleteMapping("/{id}")
@@ -79,7 +89,7 @@ public class ProjectController {
     public ResponseEntity<Void> deleteProject(
             @PathVariable UUID id,
             Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         projectService.deleteProject(id, user.getId());
         return ResponseEntity.noContent().build();
     }
@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.SubscriptionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -36,7 +37,7 @@ public class SubscriptionController {
     public ResponseEntity<RazorpayOrderResponseDTO> createSubscription(
             @Valid @RequestBody SubscriptionRequestDTO request,
             Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         RazorpayOrderResponseDTO response = subscriptionService.createSubscription(request, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -52,7 +53,7 @@ public class SubscriptionController {
     @GetMapping("/active")
     @Operation(summary = "Get active subscription", description = "Get user's active subscription")
     public ResponseEntity<SubscriptionResponseDTO> getActiveSubscription(Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         SubscriptionResponseDTO response = subscriptionService.getActiveSubscription(userId);
         
         if (response == null) {
@@ -65,7 +66,7 @@ public class SubscriptionController {
     @GetMapping
     @Operation(summary = "Get user subscriptions", description = "Get all subscriptions for current user")
     public ResponseEntity<List<SubscriptionResponseDTO>> getUserSubscriptions(Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         List<SubscriptionResponseDTO> response = subscriptionService.getUserSubscriptions(userId);
         return ResponseEntity.ok(response);
     }
@@ -82,7 +83,7 @@ public class SubscriptionController {
     public ResponseEntity<Void> cancelSubscription(
             @PathVariable UUID subscriptionId,
             Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         subscriptionService.cancelSubscription(subscriptionId, userId);
         return ResponseEntity.noContent().build();
     }
@@ -90,7 +91,7 @@ public class SubscriptionController {
     @GetMapping("/payments")
     @Operation(summary = "Get payment history", description = "Get payment history for current user")
     public ResponseEntity<List<PaymentResponseDTO>> getPaymentHistory(Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         List<PaymentResponseDTO> response = subscriptionService.getUserPayments(userId);
         return ResponseEntity.ok(response);
     }
@@ -1,4 +1,7 @@
 package online.sevika.tm.controller;
+import online.sevika.tm.dto.TaskBoardColumnDTO;
+import online.sevika.tm.dto.TaskBoardDTO;
+import online.sevika.tm.dto.TaskDueBucketsDTO;
 import online.sevika.tm.dto.TaskRequestDTO;
 import online.sevika.tm.dto.TaskResponseDTO;
 import online.sevika.tm.dto.TaskStatusUpdateRequestDTO;
@@ -10,12 +13,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import online.sevika.tm.entity.Task;
-import online.sevika.tm.entity.User;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.TaskService;
+import online.sevika.tm.util.ETags;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -37,7 +43,7 @@ public class TaskController {
     public ResponseEntity<TaskResponseDTO> createTask(
             @Valid @RequestBody TaskRequestDTO request,
             Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         TaskResponseDTO response = taskService.createTask(request, user.getId());
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
@@ -53,18 +59,61 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search tasks", description = "Full-text search over task titles and descriptions with optional filters")
+    public ResponseEntity<List<TaskResponseDTO>> searchTasks(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) UUID projectId,
+            @RequestParam(required = false) UUID assignedToId,
+            @RequestParam(required = false) Task.TaskStatus status,
+            @RequestParam(required = false) Task.TaskPriority priority,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        List<TaskResponseDTO> tasks = taskService.searchTasks(
+                query, projectId, assignedToId, status, priority, user.getId(), page, size);
+        return ResponseEntity.ok(tasks);
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get task by ID", description = "Retrieve a task by its ID")
-    public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable UUID id) {
+    @Operation(summary = "Get task by ID", description = "Retrieve a task by its ID (supports If-None-Match)")
+    public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable UUID id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(taskService.getTaskETag(id))) {
+            return null;
+        }
         TaskResponseDTO task = taskService.getTaskById(id);
-        return ResponseEntity.ok(task);
+        return ResponseEntity.ok().eTag(ETags.forTask(task)).body(task);
     }
 
     @GetMapping("/project/{projectId}")
-    @Operation(summary = "Get tasks by project", description = "Retrieve all tasks for a specific project")
-    public ResponseEntity<List<TaskResponseDTO>> getTasksByProject(@PathVariable UUID projectId) {
+    @Operation(summary = "Get tasks by project", description = "Retrieve all tasks for a specific project (supports If-None-Match)")
+    public ResponseEntity<List<TaskResponseDTO>> getTasksByProject(@PathVariable UUID projectId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(taskService.getTasksByProjectETag(projectId))) {
+            return null;
+        }
         List<TaskResponseDTO> tasks = taskService.getTasksByProject(projectId);
-        return ResponseEntity.ok(tasks);
+        return ResponseEntity.ok().eTag(ETags.forTasks(tasks)).body(tasks);
+    }
+
+    @GetMapping("/project/{projectId}/board")
+    @Operation(summary = "Get project board", description = "Retrieve per-status task counts and the first cards of each column")
+    public ResponseEntity<TaskBoardDTO> getTaskBoard(
+            @PathVariable UUID projectId,
+            @RequestParam(defaultValue = "20") int limit) {
+        TaskBoardDTO board = taskService.getTaskBoard(projectId, limit);
+        return ResponseEntity.ok(board);
+    }
+
+    @GetMapping("/project/{projectId}/board/{status}")
+    @Operation(summary = "Load more board cards", description = "Retrieve the next cards of a board column after a cursor")
+    public ResponseEntity<TaskBoardColumnDTO> getTaskBoardColumn(
+            @PathVariable UUID projectId,
+            @PathVariable Task.TaskStatus status,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        TaskBoardColumnDTO column = taskService.getTaskBoardColumn(projectId, status, cursor, limit);
+        return ResponseEntity.ok(column);
     }
 
     @GetMapping("/assigned/{userId}")
@@ -77,38 +126,65 @@ public class TaskController {
     @GetMapping("/my-tasks")
     @Operation(summary = "Get my tasks", description = "Retrieve tasks assigned to the current user")
     public ResponseEntity<List<TaskResponseDTO>> getMyTasks(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         List<TaskResponseDTO> tasks = taskService.getTasksAssignedToUser(user.getId());
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/my-tasks/due")
+    @Operation(summary = "Get my due tasks", description = "Retrieve overdue, due-today and due-this-week tasks assigned to the current user")
+    public ResponseEntity<TaskDueBucketsDTO> getMyDueTasks(Authentication authentication) {
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        TaskDueBucketsDTO tasks = taskService.getDueTasksForUser(user.getId());
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/project/{projectId}/due")
+    @Operation(summary = "Get project due tasks", description = "Retrieve overdue, due-today and due-this-week tasks of a project")
+    public ResponseEntity<TaskDueBucketsDTO> getProjectDueTasks(@PathVariable UUID projectId) {
+        TaskDueBucketsDTO tasks = taskService.getDueTasksForProject(projectId);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/due-soon")
+    @Operation(summary = "Get tasks due soon", description = "Retrieve the earliest open tasks due within the given number of days")
+    public ResponseEntity<List<TaskResponseDTO>> getTasksDueSoon(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<TaskResponseDTO> tasks = taskService.getTasksDueSoon(days, limit);
+        return ResponseEntity.ok(tasks);
+    }
+
     @GetMapping("/overdue")
-    @Operation(summary = "Get overdue tasks", description = "Retrieve all overdue tasks")
-    public ResponseEntity<List<TaskResponseDTO>> getOverdueTasks() {
-        List<TaskResponseDTO> tasks = taskService.getOverdueTasks();
+    @Operation(summary = "Get overdue tasks", description = "Retrieve the longest overdue tasks")
+    public ResponseEntity<List<TaskResponseDTO>> getOverdueTasks(@RequestParam(defaultValue = "100") int limit) {
+        List<TaskResponseDTO> tasks = taskService.getOverdueTasks(limit);
         return ResponseEntity.ok(tasks);
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update task", description = "Update task information")
+    @Operation(summary = "Update task", description = "Update task information (If-Match guards against lost updates)")
     public ResponseEntity<TaskResponseDTO> updateTask(
             @PathVariable UUID id,
             @Valid @RequestBody TaskUpdateRequestDTO request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        TaskResponseDTO response = taskService.updateTask(id, request, user.getId());
-        return ResponseEntity.ok(response);
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        TaskResponseDTO response = taskService.updateTask(id, request, user.getId(), ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.forTask(response)).body(response);
     }
 
     @PatchMapping("/{id}/status")
-    @Operation(summary = "Update task status", description = "Update the status of a task")
+    @Operation(summary = "Update task status", description = "Update the status of a task (If-Match guards against lost updates)")
     public ResponseEntity<TaskResponseDTO> updateTaskStatus(
             @PathVariable UUID id,
             @Valid @RequestBody TaskStatusUpdateRequestDTO request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        TaskResponseDTO response = taskService.updateTaskStatus(id, request.getStatus(), user.getId());
-        return ResponseEntity.ok(response);
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        TaskResponseDTO response = taskService.updateTaskStatus(
+                id, request.getStatus(), user.getId(), ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.forTask(response)).body(response);
     }
 
     @DeleteMapping("/{id}")
@@ -116,7 +192,7 @@ public class TaskController {
     public ResponseEntity<Void> deleteTask(
             @PathVariable UUID id,
             Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         taskService.deleteTask(id, user.getId());
         return ResponseEntity.noContent().build();
     }
@@ -1,4 +1,6 @@
 package online.sevika.tm.controller;
+import online.sevika.tm.dto.TeamMemberBulkRequestDTO;
+import online.sevika.tm.dto.TeamMemberBulkResultDTO;
 import online.sevika.tm.dto.TeamMemberRequestDTO;
 import online.sevika.tm.dto.TeamMemberResponseDTO;
 import online.sevika.tm.dto.TeamMemberUpdateRoleDTO;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import online.sevika.tm.entity.enums.TeamRole;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.TeamService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -37,7 +40,7 @@ public class TeamController {
     public ResponseEntity<TeamResponseDTO> createTeam(
             @Valid @RequestBody TeamRequestDTO request,
             Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         TeamResponseDTO response = teamService.createTeam(request, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -57,7 +60,7 @@ public class TeamController {
             @PathVariable UUID teamId,
             @Valid @RequestBody TeamRequestDTO request,
             Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         TeamResponseDTO response = teamService.updateTeam(teamId, request, userId);
         return ResponseEntity.ok(response);
     }
@@ -68,7 +71,7 @@ public class TeamController {
     public ResponseEntity<Void> deleteTeam(
             @PathVariable UUID teamId,
             Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         teamService.deleteTeam(teamId, userId);
         return ResponseEntity.noContent().build();
     }
@@ -77,7 +80,7 @@ public class TeamController {
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get teams owned by current user")
     public ResponseEntity<List<TeamResponseDTO>> getMyTeams(Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         List<TeamResponseDTO> response = teamService.getTeamsOwnedByUser(userId);
         return ResponseEntity.ok(response);
     }
@@ -86,7 +89,7 @@ public class TeamController {
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get teams where current user is a member")
     public ResponseEntity<List<TeamResponseDTO>> getTeamsMemberOf(Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         List<TeamResponseDTO> response = teamService.getTeamsForUser(userId);
         return ResponseEntity.ok(response);
     }
@@ -106,11 +109,23 @@ public class TeamController {
             @PathVariable UUID teamId,
             @Valid @RequestBody TeamMemberRequestDTO request,
             Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         TeamMemberResponseDTO response = teamService.addTeamMember(teamId, request, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/{teamId}/members/bulk")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Add many members to team")
+    public ResponseEntity<TeamMemberBulkResultDTO> addTeamMembers(
+            @PathVariable UUID teamId,
+            @Valid @RequestBody TeamMemberBulkRequestDTO request,
+            Authentication authentication) {
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
+        TeamMemberBulkResultDTO response = teamService.addTeamMembers(teamId, request, userId);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{teamId}/members/{memberId}")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Remove member from team")
@@ -118,7 +133,7 @@ public class TeamController {
             @PathVariable UUID teamId,
             @PathVariable UUID memberId,
             Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         teamService.removeTeamMember(teamId, memberId, userId);
         return ResponseEntity.noContent().build();
     }
@@ -131,7 +146,7 @@ public class TeamController {
             @PathVariable UUID memberId,
             @Valid @RequestBody TeamMemberUpdateRoleDTO request,
             Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
         TeamMemberResponseDTO response = teamService.updateTeamMemberRole(teamId, memberId, request.getRole(), userId);
         return ResponseEntity.ok(response);
     }
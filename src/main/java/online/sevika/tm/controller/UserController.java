@@ -1,4 +1,5 @@
 package online.sevika.tm.controller;
+import online.sevika.tm.dto.UserDirectoryDTO;
 import online.sevika.tm.dto.UserRequestDTO;
 import online.sevika.tm.dto.UserResponseDTO;
 import online.sevika.tm.dto.UserUpdateRequestDTO;
@@ -8,7 +9,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import online.sevika.tm.entity.User;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -47,6 +48,17 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/directory")
+    @Operation(summary = "Search the user directory",
+               description = "Page through enabled users by username, optionally filtered by a prefix of the username, email or name")
+    public ResponseEntity<UserDirectoryDTO> getUserDirectory(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        UserDirectoryDTO directory = userService.getUserDirectory(q, cursor, limit);
+        return ResponseEntity.ok(directory);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID", description = "Retrieve a user by their ID")
     public ResponseEntity<UserResponseDTO> getUserById(@PathVariable UUID id) {
@@ -57,7 +69,7 @@ public class UserController {
     @GetMapping("/me")
     @Operation(summary = "Get current user", description = "Get the currently authenticated user's profile")
     public ResponseEntity<UserResponseDTO> getCurrentUser(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         UserResponseDTO response = userService.getUserById(user.getId());
         return ResponseEntity.ok(response);
     }
@@ -68,10 +80,10 @@ public class UserController {
             @PathVariable UUID id,
             @Valid @RequestBody UserUpdateRequestDTO request,
             Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         
         // Users can only update their own profile, unless they're admin
-        if (!currentUser.getId().equals(id) && currentUser.getRole() != User.Role.ADMIN) {
+        if (!currentUser.getId().equals(id) && !currentUser.isAdmin()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -16,5 +16,12 @@ import lombok.NoArgsConstructor;
 public class AuthResponseDTO {
     private String token;
     private String type = "Bearer";
+
+    @Schema(description = "Access token lifetime in seconds")
+    private Long expiresIn;
+
+    @Schema(description = "Single-use token for /api/auth/refresh; each refresh returns a new one")
+    private String refreshToken;
+
     private UserResponseDTO user;
 }
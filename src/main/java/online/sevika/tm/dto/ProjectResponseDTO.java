@@ -26,4 +26,5 @@ public class ProjectResponseDTO {
     private Integer taskCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
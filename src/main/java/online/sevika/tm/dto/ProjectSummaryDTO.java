@@ -19,4 +19,5 @@ public class ProjectSummaryDTO {
     private UUID id;
     private String name;
     private Project.ProjectStatus status;
+    private Long version;
 }
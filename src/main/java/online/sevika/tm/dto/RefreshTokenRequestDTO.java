@@ -0,0 +1,18 @@
+package online.sevika.tm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "RefreshTokenRequest", description = "Request carrying a refresh token")
+public class RefreshTokenRequestDTO {
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+}
@@ -0,0 +1,24 @@
+package online.sevika.tm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import online.sevika.tm.entity.Task;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "TaskBoardColumn", description = "Board column with its task count and first cards")
+public class TaskBoardColumnDTO {
+    private Task.TaskStatus status;
+    private Long totalCount;
+    private List<TaskSummaryDTO> cards;
+
+    @Schema(description = "Cursor to load the next cards of this column, null when exhausted")
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package online.sevika.tm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "TaskBoard", description = "Project board grouped by task status")
+public class TaskBoardDTO {
+    private UUID projectId;
+    private List<TaskBoardColumnDTO> columns;
+}
@@ -0,0 +1,20 @@
+package online.sevika.tm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "TaskDueBuckets", description = "Open tasks grouped by due date: overdue, due today and due this week")
+public class TaskDueBucketsDTO {
+    private List<TaskResponseDTO> overdue;
+    private List<TaskResponseDTO> dueToday;
+    private List<TaskResponseDTO> dueThisWeek;
+}
@@ -31,4 +31,5 @@ public class TaskResponseDTO {
     private LocalDate dueDate;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
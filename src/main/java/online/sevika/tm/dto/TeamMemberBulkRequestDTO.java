@@ -0,0 +1,28 @@
+package online.sevika.tm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import online.sevika.tm.entity.enums.TeamRole;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "TeamMemberBulkRequest", description = "Request to add many users to a team with the same role")
+public class TeamMemberBulkRequestDTO {
+    @NotEmpty(message = "At least one user ID is required")
+    @Size(max = 1000, message = "At most 1000 users can be added at once")
+    private List<@NotNull UUID> userIds;
+
+    @Builder.Default
+    private TeamRole role = TeamRole.MEMBER;
+}
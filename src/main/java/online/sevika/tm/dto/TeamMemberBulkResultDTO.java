@@ -0,0 +1,30 @@
+package online.sevika.tm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "TeamMemberBulkResult", description = "Outcome of a bulk team membership import")
+public class TeamMemberBulkResultDTO {
+    private UUID teamId;
+
+    @Schema(description = "Distinct users in the request")
+    private int requested;
+
+    private int added;
+
+    @Schema(description = "Users that were already members and were left unchanged")
+    private List<UUID> alreadyMembers;
+
+    @Schema(description = "Users that do not exist")
+    private List<UUID> notFound;
+}
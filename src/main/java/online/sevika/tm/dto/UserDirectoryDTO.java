@@ -0,0 +1,21 @@
+package online.sevika.tm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "UserDirectory", description = "Page of the user directory, in username order")
+public class UserDirectoryDTO {
+    private List<UserSummaryDTO> users;
+
+    @Schema(description = "Cursor to load the next page, null when exhausted")
+    private String nextCursor;
+}
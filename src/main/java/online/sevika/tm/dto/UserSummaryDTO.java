@@ -1,12 +1,14 @@
 package online.sevika.tm.dto;
 import online.sevika.tm.dto.UserSummaryDTO;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
@@ -19,4 +21,10 @@ public class UserSummaryDTO {
     private String username;
     private String firstName;
     private String lastName;
+
+    /**
+     * Last update of the user, so tags of responses embedding this summary change on a rename
+     */
+    @JsonIgnore
+    private LocalDateTime updatedAt;
 }
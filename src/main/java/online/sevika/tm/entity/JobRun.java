@@ -0,0 +1,58 @@
+package online.sevika.tm.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity representing one run of a scheduled job on the instance holding its lease.
+ */
+@Entity
+@Table(name = "job_runs", indexes = {
+        @Index(name = "idx_job_run_job_started", columnList = "job_name, started_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobRunStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    /**
+     * Rows or entities the job processed, as reported by the job
+     */
+    private Integer items;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    public enum JobRunStatus {
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+}
@@ -57,6 +57,10 @@ public class Project {
     @Builder.Default
     private List<Task> tasks = new ArrayList<>();
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
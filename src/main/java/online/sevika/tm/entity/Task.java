@@ -26,7 +26,8 @@ import java.util.UUID;
            @Index(name = "idx_task_assigned", columnList = "assigned_to"),
            @Index(name = "idx_task_status", columnList = "status"),
            @Index(name = "idx_task_priority", columnList = "priority"),
-           @Index(name = "idx_task_due_date", columnList = "due_date")
+           @Index(name = "idx_task_due_date", columnList = "due_date"),
+           @Index(name = "idx_task_project_status", columnList = "project_id, status")
        })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
@@ -71,6 +72,10 @@ public class Task {
     @Column(name = "due_date")
     private LocalDate dueDate;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
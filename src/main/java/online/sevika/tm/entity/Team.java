@@ -35,6 +35,13 @@ public class Team {
     @Column(name = "owner_id", nullable = false)
     private UUID ownerId;
 
+    /**
+     * Written on insert only; afterwards changed by atomic updates in TeamRepository
+     */
+    @Column(name = "member_count", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer memberCount = 0;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -66,6 +66,13 @@ public class User implements UserDetails {
     @Builder.Default
     private Boolean enabled = true;
 
+    /**
+     * Incremented to revoke all access tokens issued before (password change, disable)
+     */
+    @Column(name = "token_version", nullable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
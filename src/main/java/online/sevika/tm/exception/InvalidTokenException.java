@@ -0,0 +1,11 @@
+package online.sevika.tm.exception;
+
+/**
+ * Exception thrown when a refresh token is unknown, expired, revoked or replayed.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package online.sevika.tm.exception;
+
+/**
+ * Exception thrown when the payment gateway fails or rejects a request.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package online.sevika.tm.exception;
+
+/**
+ * Exception thrown when a conditional request (If-Match) does not match the current resource version.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package online.sevika.tm.exception;
+
+/**
+ * Exception thrown when an action would exceed a limit of the user's subscription plan.
+ */
+public class QuotaExceededException extends RuntimeException {
+
+    public QuotaExceededException(String message) {
+        super(message);
+    }
+}
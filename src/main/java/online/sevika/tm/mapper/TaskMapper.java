@@ -1,10 +1,14 @@
 package online.sevika.tm.mapper;
+import online.sevika.tm.dto.ProjectSummaryDTO;
 import online.sevika.tm.dto.TaskRequestDTO;
 import online.sevika.tm.dto.TaskResponseDTO;
 import online.sevika.tm.dto.TaskSummaryDTO;
 import online.sevika.tm.dto.TaskUpdateRequestDTO;
+import online.sevika.tm.dto.UserSummaryDTO;
 
+import online.sevika.tm.entity.Project;
 import online.sevika.tm.entity.Task;
+import online.sevika.tm.repository.projection.TaskStatusUpdateView;
 import org.mapstruct.*;
 
 /**
@@ -34,4 +38,43 @@ public interface TaskMapper {
      */
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateEntityFromDto(TaskUpdateRequestDTO updateRequest, @MappingTarget Task task);
+
+    /**
+     * Convert the row returned by the status update to Response DTO
+     */
+    default TaskResponseDTO toResponse(TaskStatusUpdateView view) {
+        UserSummaryDTO assignedTo = view.getAssignedToId() == null ? null : UserSummaryDTO.builder()
+                .id(view.getAssignedToId())
+                .username(view.getAssignedToUsername())
+                .firstName(view.getAssignedToFirstName())
+                .lastName(view.getAssignedToLastName())
+                .updatedAt(view.getAssignedToUpdatedAt())
+                .build();
+
+        return TaskResponseDTO.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .description(view.getDescription())
+                .status(Task.TaskStatus.valueOf(view.getStatus()))
+                .priority(Task.TaskPriority.valueOf(view.getPriority()))
+                .project(ProjectSummaryDTO.builder()
+                        .id(view.getProjectId())
+                        .name(view.getProjectName())
+                        .status(Project.ProjectStatus.valueOf(view.getProjectStatus()))
+                        .version(view.getProjectVersion())
+                        .build())
+                .assignedTo(assignedTo)
+                .createdBy(UserSummaryDTO.builder()
+                        .id(view.getCreatedById())
+                        .username(view.getCreatedByUsername())
+                        .firstName(view.getCreatedByFirstName())
+                        .lastName(view.getCreatedByLastName())
+                        .updatedAt(view.getCreatedByUpdatedAt())
+                        .build())
+                .dueDate(view.getDueDate())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .version(view.getVersion())
+                .build();
+    }
 }
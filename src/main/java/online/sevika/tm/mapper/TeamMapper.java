@@ -15,11 +15,13 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 @Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 public interface TeamMapper {
 
+    @Mapping(target = "memberCount", ignore = true)
     Team toEntity(TeamRequestDTO request);
 
     TeamResponseDTO toResponse(Team team);
 
     TeamSummaryDTO toSummary(Team team);
 
+    @Mapping(target = "memberCount", ignore = true)
     void updateEntityFromRequest(TeamRequestDTO request, @MappingTarget Team team);
 }
@@ -2,6 +2,7 @@ package online.sevika.tm.mapper;
 import online.sevika.tm.dto.TeamMemberResponseDTO;
 
 import online.sevika.tm.entity.TeamMember;
+import online.sevika.tm.repository.projection.TeamMemberDetailsView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.NullValuePropertyMappingStrategy;
@@ -13,4 +14,8 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 public interface TeamMemberMapper {
 
     TeamMemberResponseDTO toResponse(TeamMember teamMember);
+
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "team", ignore = true)
+    TeamMemberResponseDTO toResponse(TeamMemberDetailsView member);
 }
@@ -5,6 +5,7 @@ import online.sevika.tm.dto.UserSummaryDTO;
 import online.sevika.tm.dto.UserUpdateRequestDTO;
 
 import online.sevika.tm.entity.User;
+import online.sevika.tm.repository.projection.UserSummaryView;
 import org.mapstruct.*;
 
 /**
@@ -33,6 +34,11 @@ public interface UserMapper {
      */
     UserSummaryDTO toSummary(User user);
 
+    /**
+     * Convert a user directory entry to Summary DTO
+     */
+    UserSummaryDTO toSummary(UserSummaryView user);
+
     /**
      * Update entity from UpdateRequest DTO
      */
@@ -0,0 +1,52 @@
+package online.sevika.tm.repository;
+
+import online.sevika.tm.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for JobLease entity.
+ *
+ * Lease times come from the database clock, so clock skew between instances can't
+ * let two of them hold the same lease.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Take the lease if it is free, lapsed or already ours, registering the job on its first run;
+     * returns 0 if another instance holds it
+     */
+    @Modifying
+    @Query(value = "INSERT INTO job_leases (job_name, owner, acquired_at, heartbeat_at, lease_until) " +
+           "VALUES (:jobName, :owner, LOCALTIMESTAMP, LOCALTIMESTAMP, LOCALTIMESTAMP + make_interval(secs => :leaseSeconds)) " +
+           "ON CONFLICT (job_name) DO UPDATE SET owner = EXCLUDED.owner, acquired_at = EXCLUDED.acquired_at, " +
+           "heartbeat_at = EXCLUDED.heartbeat_at, lease_until = EXCLUDED.lease_until " +
+           "WHERE job_leases.lease_until < LOCALTIMESTAMP OR job_leases.owner = EXCLUDED.owner",
+           nativeQuery = true)
+    int tryAcquire(@Param("jobName") String jobName, @Param("owner") String owner, @Param("leaseSeconds") long leaseSeconds);
+
+    /**
+     * Extend a lease we hold; returns 0 if it has been lost to another instance
+     */
+    @Modifying
+    @Query(value = "UPDATE job_leases SET heartbeat_at = LOCALTIMESTAMP, " +
+           "lease_until = LOCALTIMESTAMP + make_interval(secs => :leaseSeconds) " +
+           "WHERE job_name = :jobName AND owner = :owner",
+           nativeQuery = true)
+    int renew(@Param("jobName") String jobName, @Param("owner") String owner, @Param("leaseSeconds") long leaseSeconds);
+
+    /**
+     * Give up a lease we hold, but keep it for at least holdSeconds after it was acquired so
+     * instances firing the same schedule a little later don't run the job again
+     */
+    @Modifying
+    @Query(value = "UPDATE job_leases SET heartbeat_at = LOCALTIMESTAMP, " +
+           "lease_until = GREATEST(LOCALTIMESTAMP, acquired_at + make_interval(secs => :holdSeconds)) " +
+           "WHERE job_name = :jobName AND owner = :owner",
+           nativeQuery = true)
+    int release(@Param("jobName") String jobName, @Param("owner") String owner, @Param("holdSeconds") long holdSeconds);
+}
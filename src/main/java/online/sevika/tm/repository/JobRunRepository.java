@@ -0,0 +1,25 @@
+package online.sevika.tm.repository;
+
+import online.sevika.tm.entity.JobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Repository interface for JobRun entity.
+ */
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, UUID> {
+
+    /**
+     * Delete a job's run history older than the cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM JobRun r WHERE r.jobName = :jobName AND r.startedAt < :cutoff")
+    int deleteByJobNameStartedBefore(@Param("jobName") String jobName, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,52 @@
+package online.sevika.tm.repository;
+
+import online.sevika.tm.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for OutboxEvent entity.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Claim up to batchSize due events for this relay until claimedUntil, counting the attempt.
+     * Events claimed by a concurrent relay are skipped rather than waited on.
+     */
+    @Query(value = "WITH batch AS (" +
+           "  SELECT id FROM outbox_events " +
+           "  WHERE status = 'PENDING' AND available_at <= :now " +
+           "  ORDER BY available_at LIMIT :batchSize " +
+           "  FOR UPDATE SKIP LOCKED), " +
+           "claimed AS (" +
+           "  UPDATE outbox_events o SET available_at = :claimedUntil, attempts = o.attempts + 1 " +
+           "  FROM batch WHERE o.id = batch.id " +
+           "  RETURNING o.id) " +
+           "SELECT id FROM claimed",
+           nativeQuery = true)
+    List<UUID> claimDue(@Param("now") LocalDateTime now,
+                        @Param("claimedUntil") LocalDateTime claimedUntil,
+                        @Param("batchSize") int batchSize);
+
+    /**
+     * Record a failed attempt and schedule the next one
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.availableAt = :retryAt, o.lastError = :error WHERE o.id = :id")
+    int markFailed(@Param("id") UUID id, @Param("retryAt") LocalDateTime retryAt, @Param("error") String error);
+
+    /**
+     * Move an event to the dead letters, where the relay no longer picks it up
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.status = 'DEAD', o.lastError = :error WHERE o.id = :id")
+    int markDead(@Param("id") UUID id, @Param("error") String error);
+}
@@ -1,7 +1,12 @@
 package online.sevika.tm.repository;
 
+import jakarta.persistence.LockModeType;
 import online.sevika.tm.entity.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -29,6 +34,20 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
      */
     Optional<Payment> findByRazorpayOrderId(String razorpayOrderId);
 
+    /**
+     * Find payment by Razorpay order ID, locking it until the end of the transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.razorpayOrderId = :orderId")
+    Optional<Payment> findByRazorpayOrderIdForUpdate(@Param("orderId") String razorpayOrderId);
+
+    /**
+     * Attach the gateway order created for a pending payment
+     */
+    @Modifying
+    @Query("UPDATE Payment p SET p.razorpayOrderId = :orderId WHERE p.id = :id")
+    int attachOrder(@Param("id") UUID id, @Param("orderId") String razorpayOrderId);
+
     /**
      * Find payments by status
      */
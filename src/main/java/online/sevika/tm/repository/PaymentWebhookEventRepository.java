@@ -0,0 +1,69 @@
+package online.sevika.tm.repository;
+
+import online.sevika.tm.entity.PaymentWebhookEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for PaymentWebhookEvent entity.
+ */
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, UUID> {
+
+    /**
+     * Append an event to the inbox; returns 0 if an event with the same event id is already there
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_webhook_events " +
+           "(id, event_id, event_type, order_id, payload, received_at, available_at, attempts) " +
+           "VALUES (:id, :eventId, :eventType, :orderId, :payload, :now, :now, 0) " +
+           "ON CONFLICT (event_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("eventId") String eventId,
+                       @Param("eventType") String eventType,
+                       @Param("orderId") String orderId,
+                       @Param("payload") String payload,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Claim up to batchSize due events for this worker until claimedUntil, counting the attempt.
+     * Events claimed by a concurrent worker are skipped rather than waited on.
+     */
+    @Query(value = "WITH batch AS (" +
+           "  SELECT id FROM payment_webhook_events " +
+           "  WHERE processed_at IS NULL AND available_at <= :now AND attempts < :maxAttempts " +
+           "  ORDER BY available_at LIMIT :batchSize " +
+           "  FOR UPDATE SKIP LOCKED), " +
+           "claimed AS (" +
+           "  UPDATE payment_webhook_events e SET available_at = :claimedUntil, attempts = e.attempts + 1 " +
+           "  FROM batch WHERE e.id = batch.id " +
+           "  RETURNING e.id) " +
+           "SELECT id FROM claimed",
+           nativeQuery = true)
+    List<UUID> claimDue(@Param("now") LocalDateTime now,
+                        @Param("claimedUntil") LocalDateTime claimedUntil,
+                        @Param("maxAttempts") int maxAttempts,
+                        @Param("batchSize") int batchSize);
+
+    /**
+     * Mark an event as applied
+     */
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.processedAt = :now, e.lastError = NULL WHERE e.id = :id")
+    int markProcessed(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    /**
+     * Record a failed attempt and schedule the next one
+     */
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.availableAt = :retryAt, e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") UUID id, @Param("retryAt") LocalDateTime retryAt, @Param("error") String error);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -53,13 +54,13 @@ public interface ProjectPermissionRepository extends JpaRepository<ProjectPermis
     boolean hasUserAccessToProject(@Param("projectId") UUID projectId, @Param("userId") UUID userId);
 
     /**
-     * Get user's effective permissions on project
+     * Get permissions on project granted to the user directly or to any of the given teams
      */
     @Query("SELECT pp FROM ProjectPermission pp " +
            "WHERE pp.projectId = :projectId " +
-           "AND (pp.userId = :userId OR pp.teamId IN " +
-           "(SELECT tm.teamId FROM TeamMember tm WHERE tm.userId = :userId))")
-    List<ProjectPermission> findUserPermissionsOnProject(@Param("projectId") UUID projectId, @Param("userId") UUID userId);
+           "AND (pp.userId = :userId OR pp.teamId IN :teamIds)")
+    List<ProjectPermission> findPermissionsOnProject(@Param("projectId") UUID projectId, @Param("userId") UUID userId,
+                                                     @Param("teamIds") Collection<UUID> teamIds);
 
     /**
      * Delete permissions for project
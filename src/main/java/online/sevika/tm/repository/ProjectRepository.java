@@ -1,12 +1,15 @@
 package online.sevika.tm.repository;
 
 import online.sevika.tm.entity.Project;
+import online.sevika.tm.repository.projection.CollectionVersionView;
+import online.sevika.tm.repository.projection.ProjectVersionView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -30,12 +33,34 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
      */
     List<Project> findByOwnerIdAndStatus(UUID ownerId, Project.ProjectStatus status);
 
+    /**
+     * Count projects owned by a user
+     */
+    long countByOwnerId(UUID ownerId);
+
     /**
      * Find projects with task count
      */
     @Query("SELECT p FROM Project p LEFT JOIN FETCH p.tasks WHERE p.id = :projectId")
     Project findByIdWithTasks(@Param("projectId") UUID projectId);
 
+    /**
+     * Version, last update and task count of a project without loading the entity
+     */
+    @Query("SELECT p.version AS version, p.updatedAt AS updatedAt, " +
+           "(SELECT COUNT(t) FROM Task t WHERE t.project.id = p.id) AS taskCount " +
+           "FROM Project p WHERE p.id = :id")
+    Optional<ProjectVersionView> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Aggregate version of all projects, including the total task count behind their task counts
+     */
+    @Query("SELECT COUNT(p) AS itemCount, MAX(p.updatedAt) AS lastUpdatedAt, " +
+           "COALESCE(SUM(p.version), 0) AS versionSum, " +
+           "(SELECT COUNT(t) FROM Task t) AS relatedVersion " +
+           "FROM Project p")
+    CollectionVersionView findCollectionVersion();
+
     /**
      * Check if project exists by name and owner
      */
@@ -0,0 +1,55 @@
+package online.sevika.tm.repository;
+
+import online.sevika.tm.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for RefreshToken entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    /**
+     * Find a token by its SHA-256 digest
+     */
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    /**
+     * Mark a token as exchanged; returns 0 if it was already rotated or revoked,
+     * so only one of several concurrent refreshes can win
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.rotatedAt = :now " +
+           "WHERE r.id = :id AND r.rotatedAt IS NULL AND r.revokedAt IS NULL")
+    int markRotated(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    /**
+     * Revoke every token of a family
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.familyId = :familyId AND r.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
+
+    /**
+     * Revoke every token of a user
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.userId = :userId AND r.revokedAt IS NULL")
+    int revokeAllByUserId(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete tokens past their expiry; rotated and revoked tokens are kept until then
+     * so that replaying them is still recognised
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,6 +1,10 @@
 package online.sevika.tm.repository;
 
 import online.sevika.tm.entity.Subscription;
+import online.sevika.tm.entity.SubscriptionPlan;
+import online.sevika.tm.repository.projection.ActiveSubscriptionView;
+import online.sevika.tm.repository.projection.ExpiredSubscriptionView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,7 +12,6 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -18,10 +21,21 @@ import java.util.UUID;
 public interface SubscriptionRepository extends JpaRepository<Subscription, UUID> {
 
     /**
-     * Find active subscription by user ID
+     * Find the plans of a user's paid (active, not yet ended) subscriptions
      */
-    @Query("SELECT s FROM Subscription s WHERE s.user.id = :userId AND s.status IN ('ACTIVE', 'TRIAL') ORDER BY s.createdAt DESC")
-    Optional<Subscription> findActiveSubscriptionByUserId(@Param("userId") UUID userId);
+    @Query("SELECT s.plan FROM Subscription s WHERE s.user.id = :userId " +
+           "AND s.status = 'ACTIVE' AND s.endDate > :now")
+    List<SubscriptionPlan> findCurrentPlansByUserId(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Find a user's current (active or trial, not yet ended) subscriptions, newest first
+     */
+    @Query("SELECT s.id AS id, s.plan.id AS planId, s.status AS status, s.endDate AS endDate " +
+           "FROM Subscription s WHERE s.user.id = :userId " +
+           "AND s.status IN ('ACTIVE', 'TRIAL') AND s.endDate > :now ORDER BY s.createdAt DESC")
+    List<ActiveSubscriptionView> findCurrentSubscriptionViews(@Param("userId") UUID userId,
+                                                              @Param("now") LocalDateTime now,
+                                                              Pageable pageable);
 
     /**
      * Find all subscriptions by user ID
@@ -40,8 +54,19 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, UUID
     List<Subscription> findExpiringSubscriptions(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     /**
-     * Find expired subscriptions that need status update
+     * Mark up to batchSize lapsed active subscriptions as expired in one statement and return them.
+     * Rows locked by a concurrent run are skipped rather than waited on.
      */
-    @Query("SELECT s FROM Subscription s WHERE s.status = 'ACTIVE' AND s.endDate < :now")
-    List<Subscription> findExpiredActiveSubscriptions(@Param("now") LocalDateTime now);
+    @Query(value = "WITH batch AS (" +
+           "  SELECT id FROM subscriptions " +
+           "  WHERE status = 'ACTIVE' AND end_date < :now " +
+           "  ORDER BY end_date LIMIT :batchSize " +
+           "  FOR UPDATE SKIP LOCKED), " +
+           "expired AS (" +
+           "  UPDATE subscriptions s SET status = 'EXPIRED', updated_at = :now " +
+           "  FROM batch WHERE s.id = batch.id " +
+           "  RETURNING s.id, s.user_id) " +
+           "SELECT id AS id, user_id AS userId FROM expired",
+           nativeQuery = true)
+    List<ExpiredSubscriptionView> expireLapsedBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -53,13 +54,13 @@ public interface TaskPermissionRepository extends JpaRepository<TaskPermission,
     boolean hasUserAccessToTask(@Param("taskId") UUID taskId, @Param("userId") UUID userId);
 
     /**
-     * Get user's effective permissions on task
+     * Get permissions on task granted to the user directly or to any of the given teams
      */
     @Query("SELECT tp FROM TaskPermission tp " +
            "WHERE tp.taskId = :taskId " +
-           "AND (tp.userId = :userId OR tp.teamId IN " +
-           "(SELECT tm.teamId FROM TeamMember tm WHERE tm.userId = :userId))")
-    List<TaskPermission> findUserPermissionsOnTask(@Param("taskId") UUID taskId, @Param("userId") UUID userId);
+           "AND (tp.userId = :userId OR tp.teamId IN :teamIds)")
+    List<TaskPermission> findPermissionsOnTask(@Param("taskId") UUID taskId, @Param("userId") UUID userId,
+                                               @Param("teamIds") Collection<UUID> teamIds);
 
     /**
      * Delete permissions for task
@@ -1,13 +1,21 @@
 package online.sevika.tm.repository;
 
 import online.sevika.tm.entity.Task;
+import online.sevika.tm.repository.projection.CollectionVersionView;
+import online.sevika.tm.repository.projection.TaskBoardCardView;
+import online.sevika.tm.repository.projection.TaskDueDateView;
+import online.sevika.tm.repository.projection.TaskStatusUpdateView;
+import online.sevika.tm.repository.projection.TaskVersionView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -16,6 +24,12 @@ import java.util.UUID;
 @Repository
 public interface TaskRepository extends JpaRepository<Task, UUID> {
 
+    /**
+     * Board card ordering: priority (HIGH first), then due date (undated last), then ID
+     */
+    String BOARD_PRIORITY_RANK = "CASE t.priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END";
+    String BOARD_ORDER = BOARD_PRIORITY_RANK + ", COALESCE(t.due_date, DATE '9999-12-31'), t.id";
+
     /**
      * Find all tasks in a project
      */
@@ -47,16 +61,12 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
     List<Task> findByProjectIdAndStatus(UUID projectId, Task.TaskStatus status);
 
     /**
-     * Find overdue tasks
-     */
-    @Query("SELECT t FROM Task t WHERE t.dueDate < :currentDate AND t.status != 'DONE'")
-    List<Task> findOverdueTasks(@Param("currentDate") LocalDate currentDate);
-
-    /**
-     * Find tasks due soon (within specified days)
+     * Find all open tasks that have a due date (served by the partial open-task index)
      */
-    @Query("SELECT t FROM Task t WHERE t.dueDate BETWEEN :startDate AND :endDate AND t.status != 'DONE'")
-    List<Task> findTasksDueSoon(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT t.id AS id, t.project.id AS projectId, a.id AS assignedToId, t.dueDate AS dueDate " +
+           "FROM Task t LEFT JOIN t.assignedTo a " +
+           "WHERE t.dueDate IS NOT NULL AND t.status != 'DONE'")
+    List<TaskDueDateView> findOpenTasksWithDueDate();
 
     /**
      * Find tasks with filters
@@ -73,6 +83,137 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
             @Param("priority") Task.TaskPriority priority
     );
 
+    /**
+     * Full-text search task IDs ranked by relevance, scoped to tasks visible to the user
+     * (admin, project owner, creator, assignee, or direct/team permission)
+     */
+    @Query(value = "SELECT t.id FROM tasks t " +
+           "JOIN projects p ON p.id = t.project_id " +
+           "CROSS JOIN to_tsquery('english', :tsQuery) query " +
+           "WHERE t.search_vector @@ query " +
+           "AND (CAST(:projectId AS uuid) IS NULL OR t.project_id = CAST(:projectId AS uuid)) " +
+           "AND (CAST(:assignedToId AS uuid) IS NULL OR t.assigned_to = CAST(:assignedToId AS uuid)) " +
+           "AND (CAST(:status AS varchar) IS NULL OR t.status = CAST(:status AS varchar)) " +
+           "AND (CAST(:priority AS varchar) IS NULL OR t.priority = CAST(:priority AS varchar)) " +
+           "AND (p.owner_id = :userId OR t.assigned_to = :userId OR t.created_by = :userId " +
+           "  OR EXISTS (SELECT 1 FROM users u WHERE u.id = :userId AND u.role = 'ADMIN') " +
+           "  OR EXISTS (SELECT 1 FROM project_permissions pp WHERE pp.project_id = t.project_id " +
+           "    AND (pp.user_id = :userId OR pp.team_id IN (SELECT tm.team_id FROM team_members tm WHERE tm.user_id = :userId))) " +
+           "  OR EXISTS (SELECT 1 FROM task_permissions tp WHERE tp.task_id = t.id " +
+           "    AND (tp.user_id = :userId OR tp.team_id IN (SELECT tm.team_id FROM team_members tm WHERE tm.user_id = :userId)))) " +
+           "ORDER BY ts_rank(t.search_vector, query) DESC, t.id " +
+           "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<UUID> searchTaskIds(
+            @Param("tsQuery") String tsQuery,
+            @Param("projectId") String projectId,
+            @Param("assignedToId") String assignedToId,
+            @Param("status") String status,
+            @Param("priority") String priority,
+            @Param("userId") UUID userId,
+            @Param("limit") int limit,
+            @Param("offset") int offset
+    );
+
+    /**
+     * Load tasks with project and users fetched in a single query
+     */
+    @Query("SELECT t FROM Task t " +
+           "JOIN FETCH t.project " +
+           "JOIN FETCH t.createdBy " +
+           "LEFT JOIN FETCH t.assignedTo " +
+           "WHERE t.id IN :ids")
+    List<Task> findAllWithDetailsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * First cards of every status column of a project board, with per-column totals
+     */
+    @Query(value = "SELECT b.id AS id, b.title AS title, b.status AS status, b.priority AS priority, " +
+           "b.due_date AS dueDate, b.priority_rank AS priorityRank, b.column_count AS columnCount " +
+           "FROM (SELECT t.id, t.title, t.status, t.priority, t.due_date, " +
+           "  " + BOARD_PRIORITY_RANK + " AS priority_rank, " +
+           "  ROW_NUMBER() OVER (PARTITION BY t.status ORDER BY " + BOARD_ORDER + ") AS rn, " +
+           "  COUNT(*) OVER (PARTITION BY t.status) AS column_count " +
+           "  FROM tasks t WHERE t.project_id = :projectId) b " +
+           "WHERE b.rn <= :limit " +
+           "ORDER BY b.status, b.rn",
+           nativeQuery = true)
+    List<TaskBoardCardView> findBoardCards(@Param("projectId") UUID projectId, @Param("limit") int limit);
+
+    /**
+     * Next cards of a single board column after the given keyset cursor
+     */
+    @Query(value = "SELECT t.id AS id, t.title AS title, t.status AS status, t.priority AS priority, " +
+           "t.due_date AS dueDate, " + BOARD_PRIORITY_RANK + " AS priorityRank, NULL AS columnCount " +
+           "FROM tasks t " +
+           "WHERE t.project_id = :projectId AND t.status = :status " +
+           "AND (" + BOARD_ORDER + ") > (:priorityRank, :dueDate, :id) " +
+           "ORDER BY " + BOARD_ORDER + " " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<TaskBoardCardView> findBoardCardsAfter(
+            @Param("projectId") UUID projectId,
+            @Param("status") String status,
+            @Param("priorityRank") int priorityRank,
+            @Param("dueDate") LocalDate dueDate,
+            @Param("id") UUID id,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Version and last update of a task without loading the entity
+     */
+    @Query("SELECT t.version AS version, t.updatedAt AS updatedAt, p.version AS projectVersion, " +
+           "a.updatedAt AS assignedToUpdatedAt, c.updatedAt AS createdByUpdatedAt " +
+           "FROM Task t JOIN t.project p LEFT JOIN t.assignedTo a LEFT JOIN t.createdBy c WHERE t.id = :id")
+    Optional<TaskVersionView> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Aggregate version of all tasks in a project
+     */
+    @Query("SELECT COUNT(t) AS itemCount, MAX(t.updatedAt) AS lastUpdatedAt, " +
+           "COALESCE(SUM(t.version), 0) AS versionSum, " +
+           "(SELECT p.version FROM Project p WHERE p.id = :projectId) AS relatedVersion " +
+           "FROM Task t WHERE t.project.id = :projectId")
+    CollectionVersionView findCollectionVersionByProjectId(@Param("projectId") UUID projectId);
+
+    /**
+     * Change a task's status in one statement when the user may modify it (project owner,
+     * assignee, creator or admin) and, if expectedVersion is not negative, the version still
+     * matches. Bumps the version and returns the updated row with its project and users;
+     * empty when nothing was updated.
+     */
+    @Query(value = "WITH updated AS (" +
+           "  UPDATE tasks t SET status = :status, updated_at = :updatedAt, version = t.version + 1 " +
+           "  WHERE t.id = :id " +
+           "  AND (:expectedVersion < 0 OR t.version = :expectedVersion) " +
+           "  AND (t.assigned_to = :userId OR t.created_by = :userId " +
+           "    OR EXISTS (SELECT 1 FROM projects p WHERE p.id = t.project_id AND p.owner_id = :userId) " +
+           "    OR EXISTS (SELECT 1 FROM users u WHERE u.id = :userId AND u.role = 'ADMIN')) " +
+           "  RETURNING t.*) " +
+           "SELECT t.id AS id, t.title AS title, t.description AS description, t.status AS status, " +
+           "t.priority AS priority, t.due_date AS dueDate, t.created_at AS createdAt, " +
+           "t.updated_at AS updatedAt, t.version AS version, " +
+           "p.id AS projectId, p.name AS projectName, p.status AS projectStatus, p.version AS projectVersion, " +
+           "a.id AS assignedToId, a.username AS assignedToUsername, " +
+           "a.first_name AS assignedToFirstName, a.last_name AS assignedToLastName, " +
+           "a.updated_at AS assignedToUpdatedAt, " +
+           "c.id AS createdById, c.username AS createdByUsername, " +
+           "c.first_name AS createdByFirstName, c.last_name AS createdByLastName, " +
+           "c.updated_at AS createdByUpdatedAt " +
+           "FROM updated t " +
+           "JOIN projects p ON p.id = t.project_id " +
+           "JOIN users c ON c.id = t.created_by " +
+           "LEFT JOIN users a ON a.id = t.assigned_to",
+           nativeQuery = true)
+    Optional<TaskStatusUpdateView> updateStatusIfPermitted(
+            @Param("id") UUID id,
+            @Param("status") String status,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("userId") UUID userId,
+            @Param("expectedVersion") long expectedVersion
+    );
+
     /**
      * Count tasks by project
      */
@@ -0,0 +1,16 @@
+package online.sevika.tm.repository;
+
+import online.sevika.tm.entity.TeamMember;
+
+import java.util.List;
+
+/**
+ * Batch writes for team members that bypass the persistence context
+ */
+public interface TeamMemberBatchRepository {
+
+    /**
+     * Insert members in JDBC batches, skipping any that already exist. Returns how many were inserted.
+     */
+    int insertAllIgnoringExisting(List<TeamMember> members);
+}
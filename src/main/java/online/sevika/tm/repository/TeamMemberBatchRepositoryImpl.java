@@ -0,0 +1,48 @@
+package online.sevika.tm.repository;
+
+import lombok.RequiredArgsConstructor;
+import online.sevika.tm.entity.TeamMember;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JdbcTemplate implementation of {@link TeamMemberBatchRepository}
+ */
+@RequiredArgsConstructor
+public class TeamMemberBatchRepositoryImpl implements TeamMemberBatchRepository {
+
+    private static final int BATCH_SIZE = 200;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO team_members (id, team_id, user_id, role, joined_at) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (team_id, user_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertAllIgnoringExisting(List<TeamMember> members) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, members, BATCH_SIZE, (ps, member) -> {
+            ps.setObject(1, member.getId());
+            ps.setObject(2, member.getTeamId());
+            ps.setObject(3, member.getUserId());
+            ps.setString(4, member.getRole().name());
+            ps.setTimestamp(5, Timestamp.valueOf(member.getJoinedAt()));
+        });
+
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // A rewritten batch reports no row count, and skipped conflicts would be counted as inserts
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    throw new IllegalStateException(
+                            "JDBC driver did not report inserted row counts; disable reWriteBatchedInserts");
+                }
+                inserted += count;
+            }
+        }
+        return inserted;
+    }
+}
@@ -2,11 +2,13 @@ package online.sevika.tm.repository;
 
 import online.sevika.tm.entity.TeamMember;
 import online.sevika.tm.entity.enums.TeamRole;
+import online.sevika.tm.repository.projection.TeamMemberDetailsView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,7 +17,7 @@ import java.util.UUID;
  * Repository interface for TeamMember entity
  */
 @Repository
-public interface TeamMemberRepository extends JpaRepository<TeamMember, UUID> {
+public interface TeamMemberRepository extends JpaRepository<TeamMember, UUID>, TeamMemberBatchRepository {
 
     /**
      * Find all members of a team
@@ -37,6 +39,12 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, UUID> {
      */
     boolean existsByTeamIdAndUserId(UUID teamId, UUID userId);
 
+    /**
+     * Find which of the given users are already members of a team
+     */
+    @Query("SELECT tm.userId FROM TeamMember tm WHERE tm.teamId = :teamId AND tm.userId IN :userIds")
+    List<UUID> findMemberUserIds(@Param("teamId") UUID teamId, @Param("userIds") Collection<UUID> userIds);
+
     /**
      * Find members by team and role
      */
@@ -47,6 +55,18 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, UUID> {
      */
     long countByTeamId(UUID teamId);
 
+    /**
+     * Find all members of a team with the team name and user details in a single query
+     */
+    @Query("SELECT tm.id AS id, tm.teamId AS teamId, t.name AS teamName, tm.userId AS userId, " +
+           "u.username AS username, u.email AS email, tm.role AS role, tm.joinedAt AS joinedAt " +
+           "FROM TeamMember tm " +
+           "JOIN Team t ON t.id = tm.teamId " +
+           "LEFT JOIN User u ON u.id = tm.userId " +
+           "WHERE tm.teamId = :teamId " +
+           "ORDER BY tm.joinedAt")
+    List<TeamMemberDetailsView> findDetailsByTeamId(@Param("teamId") UUID teamId);
+
     /**
      * Delete team member
      */
@@ -2,6 +2,7 @@ package online.sevika.tm.repository;
 
 import online.sevika.tm.entity.Team;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -41,4 +42,58 @@ public interface TeamRepository extends JpaRepository<Team, UUID> {
      * Count teams owned by user
      */
     long countByOwnerId(UUID ownerId);
+
+    /**
+     * Count one more member unless the team is full. Returns the new count; empty when the team is full.
+     */
+    default Optional<Integer> incrementMemberCount(UUID teamId, int limit) {
+        return addToMemberCount(teamId, 1, limit);
+    }
+
+    /**
+     * Count {@code delta} more members in a single statement unless that would exceed the limit.
+     * Returns the new count; empty when the members don't fit.
+     */
+    @Query(value = "WITH updated AS (" +
+           "  UPDATE teams SET member_count = member_count + :delta " +
+           "  WHERE id = :teamId AND member_count + :delta <= :limit " +
+           "  RETURNING member_count) " +
+           "SELECT member_count FROM updated",
+           nativeQuery = true)
+    Optional<Integer> addToMemberCount(
+            @Param("teamId") UUID teamId,
+            @Param("delta") int delta,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Count one member less
+     */
+    @Modifying
+    @Query(value = "UPDATE teams SET member_count = member_count - 1 WHERE id = :teamId AND member_count > 0",
+           nativeQuery = true)
+    int decrementMemberCount(@Param("teamId") UUID teamId);
+
+    /**
+     * Find teams whose stored member count differs from their member rows
+     */
+    @Query(value = "SELECT t.id FROM teams t " +
+           "WHERE t.member_count <> (SELECT COUNT(*) FROM team_members tm WHERE tm.team_id = t.id)",
+           nativeQuery = true)
+    List<UUID> findIdsWithMemberCountDrift();
+
+    /**
+     * Lock a team row until the end of the transaction
+     */
+    @Query(value = "SELECT id FROM teams WHERE id = :teamId FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockById(@Param("teamId") UUID teamId);
+
+    /**
+     * Recompute the stored member count of a team from its member rows
+     */
+    @Modifying
+    @Query(value = "UPDATE teams t SET member_count = " +
+           "(SELECT COUNT(*) FROM team_members tm WHERE tm.team_id = t.id) WHERE t.id = :teamId",
+           nativeQuery = true)
+    int recountMembers(@Param("teamId") UUID teamId);
 }
@@ -1,10 +1,14 @@
 package online.sevika.tm.repository;
 
 import online.sevika.tm.entity.User;
+import online.sevika.tm.repository.projection.UserSummaryView;
+import online.sevika.tm.repository.projection.UserTokenStateView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,6 +28,12 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Find the ID of the user with a username
+     */
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<UUID> findIdByUsername(@Param("username") String username);
+
     /**
      * Find user by email
      */
@@ -44,4 +54,41 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     @Query("SELECT u FROM User u WHERE u.username = :identifier OR u.email = :identifier")
     Optional<User> findByUsernameOrEmail(String identifier);
+
+    /**
+     * Find the token version and enabled flag of a user
+     */
+    @Query("SELECT u.tokenVersion AS tokenVersion, u.enabled AS enabled FROM User u WHERE u.id = :id")
+    Optional<UserTokenStateView> findTokenStateById(@Param("id") UUID id);
+
+    /**
+     * Next enabled users of the directory after the given username, in username order
+     */
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.first_name AS firstName, u.last_name AS lastName " +
+           "FROM users u " +
+           "WHERE u.enabled = true AND u.username > :after " +
+           "ORDER BY u.username " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<UserSummaryView> findDirectoryPage(@Param("after") String after, @Param("limit") int limit);
+
+    /**
+     * Next enabled users whose username, email, full name or last name starts with the
+     * lower-case LIKE prefix pattern, after the given username, in username order
+     */
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.first_name AS firstName, u.last_name AS lastName " +
+           "FROM users u " +
+           "WHERE u.enabled = true AND u.username > :after " +
+           "AND (lower(u.username) LIKE :prefix " +
+           "  OR lower(u.email) LIKE :prefix " +
+           "  OR lower(u.first_name || ' ' || u.last_name) LIKE :prefix " +
+           "  OR lower(u.last_name) LIKE :prefix) " +
+           "ORDER BY u.username " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<UserSummaryView> searchDirectoryPage(
+            @Param("prefix") String prefix,
+            @Param("after") String after,
+            @Param("limit") int limit
+    );
 }
@@ -0,0 +1,20 @@
+package online.sevika.tm.repository.projection;
+
+import online.sevika.tm.entity.Subscription;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of a user's current subscription.
+ */
+public interface ActiveSubscriptionView {
+
+    UUID getId();
+
+    UUID getPlanId();
+
+    Subscription.SubscriptionStatus getStatus();
+
+    LocalDateTime getEndDate();
+}
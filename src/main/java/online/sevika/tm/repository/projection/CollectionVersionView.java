@@ -0,0 +1,21 @@
+package online.sevika.tm.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate version of a collection (row count, latest update, version sum), used for collection ETags.
+ */
+public interface CollectionVersionView {
+
+    Long getItemCount();
+
+    LocalDateTime getLastUpdatedAt();
+
+    Long getVersionSum();
+
+    /**
+     * Collection-specific extra component: the project version for a project's tasks,
+     * the total task count for the project list
+     */
+    Long getRelatedVersion();
+}
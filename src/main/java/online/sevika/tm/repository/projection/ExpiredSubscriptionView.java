@@ -0,0 +1,13 @@
+package online.sevika.tm.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Projection of a subscription marked expired by the expiry job.
+ */
+public interface ExpiredSubscriptionView {
+
+    UUID getId();
+
+    UUID getUserId();
+}
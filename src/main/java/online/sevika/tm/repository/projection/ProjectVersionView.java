@@ -0,0 +1,15 @@
+package online.sevika.tm.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version-only projection of a project, used to answer conditional requests.
+ */
+public interface ProjectVersionView {
+
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getTaskCount();
+}
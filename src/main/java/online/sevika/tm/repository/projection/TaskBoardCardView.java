@@ -0,0 +1,30 @@
+package online.sevika.tm.repository.projection;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projection of a task card on the project board.
+ */
+public interface TaskBoardCardView {
+
+    UUID getId();
+
+    String getTitle();
+
+    String getStatus();
+
+    String getPriority();
+
+    LocalDate getDueDate();
+
+    /**
+     * Sort rank of the priority (HIGH = 0, MEDIUM = 1, LOW = 2)
+     */
+    Integer getPriorityRank();
+
+    /**
+     * Total number of tasks in the card's column (only set by the board query)
+     */
+    Long getColumnCount();
+}
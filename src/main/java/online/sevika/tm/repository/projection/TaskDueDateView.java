@@ -0,0 +1,18 @@
+package online.sevika.tm.repository.projection;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projection of an open task with a due date, used to build the due-date index.
+ */
+public interface TaskDueDateView {
+
+    UUID getId();
+
+    UUID getProjectId();
+
+    UUID getAssignedToId();
+
+    LocalDate getDueDate();
+}
@@ -0,0 +1,57 @@
+package online.sevika.tm.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flattened task row returned by the single-statement status update.
+ */
+public interface TaskStatusUpdateView {
+
+    UUID getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getStatus();
+
+    String getPriority();
+
+    LocalDate getDueDate();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getVersion();
+
+    UUID getProjectId();
+
+    String getProjectName();
+
+    String getProjectStatus();
+
+    Long getProjectVersion();
+
+    UUID getAssignedToId();
+
+    String getAssignedToUsername();
+
+    String getAssignedToFirstName();
+
+    String getAssignedToLastName();
+
+    LocalDateTime getAssignedToUpdatedAt();
+
+    UUID getCreatedById();
+
+    String getCreatedByUsername();
+
+    String getCreatedByFirstName();
+
+    String getCreatedByLastName();
+
+    LocalDateTime getCreatedByUpdatedAt();
+}
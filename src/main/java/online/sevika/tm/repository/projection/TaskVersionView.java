@@ -0,0 +1,25 @@
+package online.sevika.tm.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version-only projection of a task, used to answer conditional requests.
+ */
+public interface TaskVersionView {
+
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+
+    /**
+     * Version of the owning project (its summary is embedded in the task response)
+     */
+    Long getProjectVersion();
+
+    /**
+     * Last updates of the assignee and creator (their summaries are embedded too)
+     */
+    LocalDateTime getAssignedToUpdatedAt();
+
+    LocalDateTime getCreatedByUpdatedAt();
+}
@@ -0,0 +1,28 @@
+package online.sevika.tm.repository.projection;
+
+import online.sevika.tm.entity.enums.TeamRole;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of a team member with its team name and user details.
+ */
+public interface TeamMemberDetailsView {
+
+    UUID getId();
+
+    UUID getTeamId();
+
+    String getTeamName();
+
+    UUID getUserId();
+
+    String getUsername();
+
+    String getEmail();
+
+    TeamRole getRole();
+
+    LocalDateTime getJoinedAt();
+}
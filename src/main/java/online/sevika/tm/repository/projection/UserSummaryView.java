@@ -0,0 +1,17 @@
+package online.sevika.tm.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Projection of a user entry in the user directory.
+ */
+public interface UserSummaryView {
+
+    UUID getId();
+
+    String getUsername();
+
+    String getFirstName();
+
+    String getLastName();
+}
@@ -0,0 +1,11 @@
+package online.sevika.tm.repository.projection;
+
+/**
+ * Token version and enabled flag of a user, used to validate access tokens.
+ */
+public interface UserTokenStateView {
+
+    Integer getTokenVersion();
+
+    Boolean getEnabled();
+}
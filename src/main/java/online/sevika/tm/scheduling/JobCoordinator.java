@@ -0,0 +1,168 @@
+package online.sevika.tm.scheduling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.entity.JobRun;
+import online.sevika.tm.repository.JobLeaseRepository;
+import online.sevika.tm.repository.JobRunRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs each scheduled maintenance job on one instance at a time.
+ *
+ * Every instance fires the schedule; after a random jitter each tries to take the job's
+ * lease in {@code job_leases}, and only the winner runs it. The winner heartbeats the
+ * lease while the job works, so a crashed instance's lease lapses after the lease TTL,
+ * and keeps it for a minimum hold after finishing so late-firing instances skip the
+ * same tick. Runs are recorded in {@code job_runs}.
+ *
+ * Lease and history writes commit in their own transactions; the job manages its own.
+ */
+@Component
+@Slf4j
+public class JobCoordinator implements DisposableBean {
+
+    private static final String METRIC_NAME = "jobs.run";
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final JobLeaseRepository leaseRepository;
+    private final JobRunRepository runRepository;
+    private final TransactionTemplate ownTransaction;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService heartbeats;
+    private final String instanceId;
+    private final Duration leaseTtl;
+    private final Duration minHold;
+    private final Duration maxJitter;
+    private final Duration historyRetention;
+
+    public JobCoordinator(
+            JobLeaseRepository leaseRepository,
+            JobRunRepository runRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.jobs.instance-id:}") String instanceId,
+            @Value("${app.jobs.lease-ttl:PT2M}") Duration leaseTtl,
+            @Value("${app.jobs.min-hold:PT1M}") Duration minHold,
+            @Value("${app.jobs.max-jitter:PT10S}") Duration maxJitter,
+            @Value("${app.jobs.history-retention:P30D}") Duration historyRetention) {
+        this.leaseRepository = leaseRepository;
+        this.runRepository = runRepository;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("job-heartbeat-"));
+        // pid@host plus a random suffix, so a restarted instance never mistakes its predecessor's lease for its own
+        this.instanceId = instanceId.isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8)
+                : instanceId;
+        this.leaseTtl = leaseTtl;
+        this.minHold = minHold;
+        this.maxJitter = maxJitter;
+        this.historyRetention = historyRetention;
+    }
+
+    /**
+     * Run the job if this instance wins its lease; returns false if another instance has it.
+     * The job returns the number of items it processed, which is recorded with the run.
+     */
+    public boolean runExclusively(String jobName, IntSupplier job) {
+        if (!sleepJitter()) {
+            return false;
+        }
+
+        if (!Boolean.TRUE.equals(ownTransaction.execute(status ->
+                leaseRepository.tryAcquire(jobName, instanceId, leaseTtl.toSeconds()) == 1))) {
+            log.debug("Skipping job {}: lease held by another instance", jobName);
+            meterRegistry.counter("jobs.skipped", "job", jobName).increment();
+            return false;
+        }
+
+        JobRun run = ownTransaction.execute(status -> runRepository.save(JobRun.builder()
+                .jobName(jobName)
+                .owner(instanceId)
+                .status(JobRun.JobRunStatus.RUNNING)
+                .startedAt(LocalDateTime.now())
+                .build()));
+        long heartbeatMillis = Math.max(1, leaseTtl.toMillis() / 3);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(
+                () -> renew(jobName), heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            int items = job.getAsInt();
+            sample.stop(meterRegistry.timer(METRIC_NAME, "job", jobName, "outcome", "success"));
+            finish(run, JobRun.JobRunStatus.SUCCEEDED, items, null);
+            log.info("Job {} processed {} items", jobName, items);
+            return true;
+        } catch (RuntimeException e) {
+            sample.stop(meterRegistry.timer(METRIC_NAME, "job", jobName, "outcome", "failure"));
+            finish(run, JobRun.JobRunStatus.FAILED, null, e.toString());
+            throw e;
+        } finally {
+            heartbeat.cancel(false);
+            ownTransaction.executeWithoutResult(status -> {
+                leaseRepository.release(jobName, instanceId, minHold.toSeconds());
+                runRepository.deleteByJobNameStartedBefore(jobName, LocalDateTime.now().minus(historyRetention));
+            });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+    }
+
+    private boolean sleepJitter() {
+        long jitterMillis = maxJitter.toMillis();
+        if (jitterMillis <= 0) {
+            return true;
+        }
+        try {
+            // Spreads the instances out so the lease isn't contended by all of them at the same instant
+            Thread.sleep(ThreadLocalRandom.current().nextLong(jitterMillis + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void renew(String jobName) {
+        try {
+            Integer renewed = ownTransaction.execute(status ->
+                    leaseRepository.renew(jobName, instanceId, leaseTtl.toSeconds()));
+            if (renewed == null || renewed == 0) {
+                log.warn("Lost the lease on job {} while it was running", jobName);
+            }
+        } catch (RuntimeException e) {
+            // A missed heartbeat is retried on the next tick; the lease outlasts two of them
+            log.warn("Failed to renew the lease on job {}", jobName, e);
+        }
+    }
+
+    private void finish(JobRun run, JobRun.JobRunStatus status, Integer items, String error) {
+        run.setStatus(status);
+        run.setFinishedAt(LocalDateTime.now());
+        run.setItems(items);
+        run.setError(error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH));
+        ownTransaction.executeWithoutResult(txStatus -> runRepository.save(run));
+    }
+}
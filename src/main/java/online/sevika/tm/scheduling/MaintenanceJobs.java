@@ -0,0 +1,40 @@
+package online.sevika.tm.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import online.sevika.tm.service.RefreshTokenService;
+import online.sevika.tm.service.SubscriptionService;
+import online.sevika.tm.service.TeamService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schedules of the cluster-wide maintenance jobs. Each fires on every instance, and the
+ * JobCoordinator lets only one of them run it.
+ *
+ * Per-instance refreshes of in-memory state (due-date index, token versions) stay
+ * scheduled on their own components, since every instance has to run those.
+ */
+@Component
+@RequiredArgsConstructor
+public class MaintenanceJobs {
+
+    private final JobCoordinator jobCoordinator;
+    private final SubscriptionService subscriptionService;
+    private final RefreshTokenService refreshTokenService;
+    private final TeamService teamService;
+
+    @Scheduled(cron = "${app.subscriptions.expiry-cron:0 0 * * * *}")
+    public void expireSubscriptions() {
+        jobCoordinator.runExclusively("subscription-expiry", subscriptionService::updateExpiredSubscriptions);
+    }
+
+    @Scheduled(cron = "${app.jwt.refresh-purge-cron:0 30 * * * *}")
+    public void purgeExpiredRefreshTokens() {
+        jobCoordinator.runExclusively("refresh-token-purge", refreshTokenService::purgeExpiredTokens);
+    }
+
+    @Scheduled(cron = "${app.teams.member-count-reconcile-cron:0 15 4 * * *}")
+    public void reconcileTeamMemberCounts() {
+        jobCoordinator.runExclusively("team-member-count-reconcile", teamService::reconcileMemberCounts);
+    }
+}
@@ -0,0 +1,76 @@
+package online.sevika.tm.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.service.OutboxService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applies outbox events once the writes that recorded them have committed.
+ *
+ * Every instance polls: claims are taken with SKIP LOCKED and held until the claim
+ * timeout, so instances share the backlog without coordination. Each event is applied
+ * in its own transaction, so one failing event is retried or dead-lettered without
+ * holding back the rest of its batch. The relay keeps claiming while batches come back full.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String METRIC_NAME = "outbox";
+
+    private final OutboxService outboxService;
+    private final Counter dispatched;
+    private final Counter failed;
+    private final Counter deadLettered;
+    private final int batchSize;
+
+    public OutboxRelay(
+            OutboxService outboxService,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.batch-size:200}") int batchSize) {
+        this.outboxService = outboxService;
+        this.dispatched = meterRegistry.counter(METRIC_NAME + ".dispatched");
+        this.failed = meterRegistry.counter(METRIC_NAME + ".failed");
+        this.deadLettered = meterRegistry.counter(METRIC_NAME + ".dead-lettered");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Dispatch due outbox events until a batch comes back short; returns the number claimed
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT1S}")
+    public int drain() {
+        int total = 0;
+        List<UUID> claimed;
+        do {
+            claimed = outboxService.claimDue(batchSize);
+            claimed.forEach(this::dispatch);
+            total += claimed.size();
+        } while (claimed.size() == batchSize);
+        return total;
+    }
+
+    private void dispatch(UUID eventId) {
+        try {
+            outboxService.dispatch(eventId);
+            dispatched.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            try {
+                if (outboxService.recordFailure(eventId, e)) {
+                    deadLettered.increment();
+                }
+            } catch (RuntimeException recordError) {
+                // The claim lapses after the claim timeout and the event is retried then
+                log.error("Could not record failure of outbox event {}", eventId, recordError);
+            }
+        }
+    }
+}
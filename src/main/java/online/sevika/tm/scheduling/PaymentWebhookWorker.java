@@ -0,0 +1,96 @@
+package online.sevika.tm.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.service.PaymentWebhookService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Drains the payment webhook inbox on a small worker pool.
+ *
+ * Every instance polls: claims are taken with SKIP LOCKED and held until the claim
+ * timeout, so instances share the backlog without coordination. A batch is applied
+ * in parallel, one event per task and transaction, and the poller keeps claiming while
+ * batches come back full.
+ */
+@Component
+@Slf4j
+public class PaymentWebhookWorker implements DisposableBean {
+
+    private static final String METRIC_NAME = "payments.webhooks";
+
+    private final PaymentWebhookService webhookService;
+    private final ExecutorService workers;
+    private final Counter processed;
+    private final Counter failed;
+    private final int batchSize;
+
+    public PaymentWebhookWorker(
+            PaymentWebhookService webhookService,
+            MeterRegistry meterRegistry,
+            @Value("${app.payments.webhooks.workers:4}") int workerThreads,
+            @Value("${app.payments.webhooks.batch-size:100}") int batchSize) {
+        this.webhookService = webhookService;
+        this.workers = Executors.newFixedThreadPool(workerThreads, new CustomizableThreadFactory("payment-webhook-"));
+        this.processed = meterRegistry.counter(METRIC_NAME + ".processed");
+        this.failed = meterRegistry.counter(METRIC_NAME + ".failed");
+        this.batchSize = batchSize;
+        ExecutorServiceMetrics.monitor(meterRegistry, workers, METRIC_NAME);
+    }
+
+    /**
+     * Apply due inbox events until a batch comes back short; returns the number claimed
+     */
+    @Scheduled(fixedDelayString = "${app.payments.webhooks.poll-interval:PT1S}")
+    public int drain() {
+        int total = 0;
+        List<UUID> claimed;
+        do {
+            claimed = webhookService.claimDue(batchSize);
+            List<Future<?>> tasks = claimed.stream()
+                    .<Future<?>>map(id -> workers.submit(() -> apply(id)))
+                    .toList();
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return total;
+                } catch (ExecutionException e) {
+                    // apply() records its own failures; anything reaching here is a bug in the worker itself
+                    log.error("Payment webhook worker task failed", e.getCause());
+                }
+            }
+            total += claimed.size();
+        } while (claimed.size() == batchSize);
+        return total;
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdown();
+    }
+
+    private void apply(UUID inboxId) {
+        try {
+            webhookService.process(inboxId);
+            processed.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            webhookService.recordFailure(inboxId, e);
+        }
+    }
+}
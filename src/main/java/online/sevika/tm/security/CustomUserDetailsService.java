@@ -1,11 +1,16 @@
 package online.sevika.tm.security;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.cache.UserCache;
+import online.sevika.tm.entity.User;
 import online.sevika.tm.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Custom UserDetailsService implementation.
@@ -13,16 +18,36 @@ import org.springframework.stereotype.Service;
  * Demonstrates:
  * - Spring Security UserDetailsService integration
  * - User authentication loading
+ * - Transparent password rehashing on login
  */
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
+    /**
+     * Always read from the database (not the user cache): credentials must be current
+     */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
+
+    /**
+     * Store a rehashed password after login (same password, current BCrypt cost)
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + userDetails.getUsername()));
+        user.setPassword(newEncodedPassword);
+        userCache.evict(user.getId());
+        log.info("Rehashed password of user {} with the current BCrypt cost", user.getUsername());
+        return userRepository.save(user);
+    }
 }
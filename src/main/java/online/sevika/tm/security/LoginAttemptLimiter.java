@@ -0,0 +1,87 @@
+package online.sevika.tm.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.exception.RateLimitExceededException;
+import online.sevika.tm.util.SlidingWindowCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Throttles login attempts per client IP and failed logins per username, before any
+ * password is hashed.
+ *
+ * The IP limit slows credential stuffing (many usernames from one source); the
+ * username limit slows password guessing against one account from many sources.
+ * Counts are exact per key and bounded in number: under a flood of distinct keys the
+ * rarely seen ones are forgotten first, so the flood can neither lock out other users
+ * nor grow memory without bound.
+ */
+@Component
+@Slf4j
+public class LoginAttemptLimiter {
+
+    private final SlidingWindowCounter attemptsByIp;
+    private final SlidingWindowCounter failuresByUsername;
+    private final int maxAttemptsPerIp;
+    private final int maxFailuresPerUsername;
+    private final Counter throttledByIp;
+    private final Counter throttledByUsername;
+
+    public LoginAttemptLimiter(
+            @Value("${app.security.login-limit.window:PT15M}") Duration window,
+            @Value("${app.security.login-limit.max-attempts-per-ip:100}") int maxAttemptsPerIp,
+            @Value("${app.security.login-limit.max-failures-per-username:10}") int maxFailuresPerUsername,
+            @Value("${app.security.login-limit.max-keys:200000}") long maxKeys,
+            MeterRegistry meterRegistry) {
+        this.attemptsByIp = new SlidingWindowCounter(window, maxKeys, Clock.systemUTC());
+        this.failuresByUsername = new SlidingWindowCounter(window, maxKeys, Clock.systemUTC());
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.throttledByIp = throttledCounter(meterRegistry, "ip");
+        this.throttledByUsername = throttledCounter(meterRegistry, "username");
+    }
+
+    /**
+     * Count a login attempt, or reject it if the IP or username is over its limit
+     *
+     * @throws RateLimitExceededException if the attempt must not reach the password check
+     */
+    public void acquire(String username, String clientIp) {
+        if (failuresByUsername.estimate(normalize(username)) >= maxFailuresPerUsername) {
+            throttledByUsername.increment();
+            log.warn("Login throttled for username '{}'", username);
+            throw new RateLimitExceededException("Too many failed login attempts for this account, please try again later",
+                    failuresByUsername.untilNextWindow());
+        }
+        if (clientIp != null && attemptsByIp.increment(clientIp) > maxAttemptsPerIp) {
+            throttledByIp.increment();
+            log.warn("Login throttled for client {}", clientIp);
+            throw new RateLimitExceededException("Too many login attempts, please try again later",
+                    attemptsByIp.untilNextWindow());
+        }
+    }
+
+    /**
+     * Count a failed login against the username
+     */
+    public void recordFailure(String username) {
+        failuresByUsername.increment(normalize(username));
+    }
+
+    private static String normalize(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected by the login rate limiter")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+}
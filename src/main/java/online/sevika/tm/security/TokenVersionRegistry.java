@@ -0,0 +1,76 @@
+package online.sevika.tm.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of each user's current token version and enabled flag.
+ *
+ * Lets the JWT filter reject revoked tokens without reading the user on every request:
+ * a user's state is loaded at most once per TTL, and evicted locally as soon as a
+ * password change, disable or delete commits. Other instances pick changes up within the TTL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+
+    @Value("${app.jwt.token-state-ttl:PT1M}")
+    private Duration ttl;
+
+    private final Map<UUID, TokenState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Check that the user still exists, is enabled and has not revoked tokens of this version
+     */
+    public boolean isCurrent(UUID userId, int tokenVersion) {
+        long now = System.nanoTime();
+        TokenState state = states.get(userId);
+        if (state == null || state.isExpired(now)) {
+            state = load(userId, now);
+        }
+        return state.enabled() && state.tokenVersion() == tokenVersion;
+    }
+
+    /**
+     * Drop the cached state of a user once the current transaction commits
+     */
+    public void evict(UUID userId) {
+        AfterCommit.run(() -> states.remove(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.token-state-ttl:PT1M}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        states.values().removeIf(state -> state.isExpired(now));
+    }
+
+    private TokenState load(UUID userId, long now) {
+        long expiresAt = now + ttl.toNanos();
+        // Unknown users are cached too, so tokens of deleted users don't hit the database each time
+        TokenState state = userRepository.findTokenStateById(userId)
+                .map(view -> new TokenState(view.getTokenVersion(), Boolean.TRUE.equals(view.getEnabled()), expiresAt))
+                .orElseGet(() -> new TokenState(-1, false, expiresAt));
+        states.put(userId, state);
+        return state;
+    }
+
+    private record TokenState(int tokenVersion, boolean enabled, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
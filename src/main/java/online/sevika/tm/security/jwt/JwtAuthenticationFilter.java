@@ -1,16 +1,17 @@
 package online.sevika.tm.security.jwt;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.security.AuthenticatedUser;
+import online.sevika.tm.security.TokenVersionRegistry;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -30,8 +31,9 @@ import java.io.IOException;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
 
     @Override
     protected void doFilterInternal(
@@ -41,7 +43,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
 
         // Check if Authorization header is present and valid
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -53,27 +54,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            // Extract username from JWT
-            username = jwtUtil.extractUsername(jwt);
+            // If user is not already authenticated
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Build the principal from the verified claims (cached per token); only the token version is checked against the user
+                VerifiedToken token = verifiedTokenCache.verify(jwt);
+                AuthenticatedUser principal = token.principal();
 
-            // If username is present and user is not already authenticated
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                // Validate token
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (tokenVersionRegistry.isCurrent(principal.getId(), token.tokenVersion())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            principal.getAuthorities()
                     );
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    authToken.setDetails(authenticationDetailsSource.buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                     
-                    log.debug("User '{}' authenticated successfully", username);
+                    log.debug("User '{}' authenticated successfully", principal.getUsername());
+                } else {
+                    log.debug("Rejected revoked token for user '{}'", principal.getUsername());
                 }
             }
+        } catch (JwtException e) {
+            // Expired or tampered tokens are routine; the request simply proceeds unauthenticated
+            log.debug("Rejected access token: {}", e.getMessage());
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
         }
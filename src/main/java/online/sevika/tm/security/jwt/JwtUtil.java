@@ -1,117 +1,110 @@
 package online.sevika.tm.security.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.entity.User;
+import online.sevika.tm.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 /**
  * JWT utility class for token generation and validation.
  * 
  * Demonstrates:
  * - JWT token generation
- * - Token validation
+ * - Single-parse token verification
  * - Claims extraction
  * - Security best practices
  */
 @Component
-@Slf4j
 public class JwtUtil {
 
-    @Value("${app.jwt.secret}")
-    private String secret;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "tv";
 
-    @Value("${app.jwt.expiration}")
-    private Long expiration;
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
-
-    /**
-     * Generate JWT token for user
-     */
-    public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
-    }
+    private final long expiration;
 
     /**
-     * Create JWT token with claims
+     * Key and parser are immutable and thread-safe, so they are built once and shared by all requests
      */
-    private String createToken(Map<String, Object> claims, String subject) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expiration);
+    private final SecretKey signingKey;
+    private final JwtParser parser;
 
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+    public JwtUtil(@Value("${app.jwt.secret}") String secret, @Value("${app.jwt.expiration}") long expiration) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     /**
-     * Extract username from token
+     * Generate JWT token for user, carrying the user ID, role and token version
      */
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId().toString());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        return createToken(claims, user.getUsername());
     }
 
     /**
-     * Extract expiration date from token
+     * Lifetime of issued access tokens
      */
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public Duration getAccessTokenLifetime() {
+        return Duration.ofMillis(expiration);
     }
 
     /**
-     * Extract specific claim from token
+     * Create JWT token with claims
      */
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
+    private String createToken(Map<String, Object> claims, String subject) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + expiration);
 
-    /**
-     * Extract all claims from token
-     */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return Jwts.builder()
+                .claims(claims)
+                .subject(subject)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(signingKey, Jwts.SIG.HS256)
+                .compact();
     }
 
     /**
-     * Check if token is expired
+     * Verify signature and expiry and build the principal from the token claims.
+     * The token is parsed exactly once; everything the request needs comes from that parse.
+     *
+     * @throws JwtException if the token is invalid, expired or lacks the principal claims
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Integer tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        if (userId == null || role == null || tokenVersion == null || claims.getSubject() == null) {
+            throw new JwtException("Token does not carry the user claims");
+        }
 
-    /**
-     * Validate token
-     */
-    public Boolean validateToken(String token, UserDetails userDetails) {
+        AuthenticatedUser principal;
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (Exception e) {
-            log.error("Token validation failed: {}", e.getMessage());
-            return false;
+            principal = new AuthenticatedUser(UUID.fromString(userId), claims.getSubject(), User.Role.valueOf(role));
+        } catch (IllegalArgumentException e) {
+            throw new JwtException("Token carries malformed user claims");
         }
+        return new VerifiedToken(principal, tokenVersion, claims.getExpiration().toInstant());
     }
 }
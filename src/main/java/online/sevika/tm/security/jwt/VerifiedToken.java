@@ -0,0 +1,15 @@
+package online.sevika.tm.security.jwt;
+
+import online.sevika.tm.security.AuthenticatedUser;
+
+import java.time.Instant;
+
+/**
+ * Access token whose signature and expiry have been verified, with the principal it carries.
+ *
+ * @param principal    user the token was issued to
+ * @param tokenVersion user's token version at issue time
+ * @param expiresAt    token expiry
+ */
+public record VerifiedToken(AuthenticatedUser principal, int tokenVersion, Instant expiresAt) {
+}
@@ -0,0 +1,91 @@
+package online.sevika.tm.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import online.sevika.tm.util.TokenHashing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of verified access tokens, keyed by the SHA-256 digest of the token.
+ *
+ * A warm session costs one hash and one lookup instead of signature verification and
+ * claim parsing. Each entry expires at its token's own expiry. Only tokens that verify
+ * are cached, so random or forged tokens can't flood it; size-based eviction uses
+ * Caffeine's frequency-aware admission, which keeps hot sessions over one-off tokens.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final String METRIC_NAME = "jwt.verified.tokens";
+
+    private final JwtUtil jwtUtil;
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+    private final Counter rejected;
+
+    public VerifiedTokenCache(
+            JwtUtil jwtUtil,
+            MeterRegistry meterRegistry,
+            @Value("${app.jwt.verified-cache.max-size:10000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        this.rejected = Counter.builder("jwt.tokens.rejected")
+                .description("Access tokens that failed verification")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, METRIC_NAME);
+    }
+
+    /**
+     * Return the verified token, from the cache when this exact token was verified before
+     *
+     * @throws JwtException if the token is invalid, expired or lacks the principal claims
+     */
+    public VerifiedToken verify(String token) {
+        ByteBuffer key = ByteBuffer.wrap(TokenHashing.sha256(token));
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified;
+        try {
+            verified = jwtUtil.verify(token);
+        } catch (JwtException e) {
+            rejected.increment();
+            throw e;
+        }
+        cache.put(key, verified);
+        return verified;
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken token, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
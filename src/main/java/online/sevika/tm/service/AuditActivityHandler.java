@@ -0,0 +1,52 @@
+package online.sevika.tm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import online.sevika.tm.entity.AuditLog;
+import online.sevika.tm.entity.OutboxEvent;
+import online.sevika.tm.repository.AuditLogRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes audit entries recorded through the outbox to the audit log, timestamped with the
+ * time of the write rather than the time of the relay.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditActivityHandler implements OutboxHandler {
+
+    public static final String EVENT_TYPE = "audit.activity";
+
+    private final AuditLogRepository auditLogRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String eventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        AuditLogService.Activity activity;
+        try {
+            activity = objectMapper.readValue(event.getPayload(), AuditLogService.Activity.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed audit activity in outbox event " + event.getId(), e);
+        }
+
+        auditLogRepository.save(AuditLog.builder()
+                .entityType(activity.entityType())
+                .entityId(activity.entityId())
+                .action(activity.action())
+                .userId(activity.userId())
+                .username(activity.username())
+                .oldValue(activity.oldValue())
+                .newValue(activity.newValue())
+                .description(activity.description())
+                .ipAddress(activity.ipAddress())
+                .userAgent(activity.userAgent())
+                .timestamp(event.getCreatedAt())
+                .build());
+    }
+}
@@ -16,9 +16,9 @@ import java.util.UUID;
 public interface AuditLogService {
 
     /**
-     * Log an audit entry
+     * Audit entry recorded with a write, written to the audit log once the write commits
      */
-    void logActivity(
+    record Activity(
             EntityType entityType,
             String entityId,
             AuditAction action,
@@ -29,6 +29,20 @@ public interface AuditLogService {
             String description,
             String ipAddress,
             String userAgent
+    ) {
+    }
+
+    /**
+     * Record an audit entry in the caller's transaction through the outbox, attributed to the
+     * current user and request. Values other than strings are stored as JSON.
+     */
+    void recordActivity(
+            EntityType entityType,
+            String entityId,
+            AuditAction action,
+            Object oldValue,
+            Object newValue,
+            String description
     );
 
     /**
@@ -1,6 +1,7 @@
 package online.sevika.tm.service;
 import online.sevika.tm.dto.AuthResponseDTO;
 import online.sevika.tm.dto.LoginRequestDTO;
+import online.sevika.tm.dto.RefreshTokenRequestDTO;
 import online.sevika.tm.dto.RegisterRequestDTO;
 
 /**
@@ -14,7 +15,17 @@ public interface AuthService {
     AuthResponseDTO register(RegisterRequestDTO request);
 
     /**
-     * Authenticate user and generate JWT token
+     * Authenticate user and generate JWT token, subject to per-IP and per-username login limits
      */
-    AuthResponseDTO login(LoginRequestDTO request);
+    AuthResponseDTO login(LoginRequestDTO request, String clientIp);
+
+    /**
+     * Exchange a refresh token for a new access token and refresh token
+     */
+    AuthResponseDTO refresh(RefreshTokenRequestDTO request);
+
+    /**
+     * Revoke the refresh token family of the current session
+     */
+    void logout(RefreshTokenRequestDTO request);
 }
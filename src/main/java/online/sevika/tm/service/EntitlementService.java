@@ -0,0 +1,58 @@
+package online.sevika.tm.service;
+
+import java.util.UUID;
+
+/**
+ * Service interface for subscription entitlements and quota checks
+ */
+public interface EntitlementService {
+
+    /**
+     * Resolved limits and features of a user's current plans, or the defaults without one.
+     * Negative limits mean unlimited.
+     */
+    record Entitlements(
+            int maxProjects,
+            int maxTasksPerProject,
+            int maxTeamMembers,
+            boolean fileAttachments,
+            boolean advancedReporting,
+            boolean prioritySupport,
+            boolean apiAccess) {
+    }
+
+    /**
+     * Get the entitlements of a user
+     */
+    Entitlements getEntitlements(UUID userId);
+
+    /**
+     * Count one more project for the owner, or reject it if the owner's plan is full
+     */
+    void acquireProject(UUID ownerId);
+
+    /**
+     * Count one project less for the owner, and forget the deleted project's task count
+     */
+    void releaseProject(UUID ownerId, UUID projectId);
+
+    /**
+     * Count one more task in the project, or reject it if the project owner's plan is full
+     */
+    void acquireTask(UUID projectId, UUID projectOwnerId);
+
+    /**
+     * Count one task less in the project
+     */
+    void releaseTask(UUID projectId);
+
+    /**
+     * Drop a user's cached entitlements and current subscription after their subscriptions change
+     */
+    void evict(UUID userId);
+
+    /**
+     * Drop all cached entitlements after a plan changes
+     */
+    void evictAll();
+}
@@ -0,0 +1,21 @@
+package online.sevika.tm.service;
+
+import online.sevika.tm.entity.OutboxEvent;
+
+/**
+ * Applies outbox events of one type. Handlers run inside the dispatch transaction and may
+ * see the same event again after a failure or a relay crash, so they must be idempotent
+ * or tolerate duplicates.
+ */
+public interface OutboxHandler {
+
+    /**
+     * Event type this handler applies
+     */
+    String eventType();
+
+    /**
+     * Apply the event; throwing schedules a retry
+     */
+    void handle(OutboxEvent event);
+}
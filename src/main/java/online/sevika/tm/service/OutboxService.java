@@ -0,0 +1,31 @@
+package online.sevika.tm.service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface for the transactional outbox: side effects recorded with the write
+ * that causes them, and applied by the relay once that write has committed.
+ */
+public interface OutboxService {
+
+    /**
+     * Append an event to the outbox in the caller's transaction; payload is stored as JSON
+     */
+    void publish(String eventType, String aggregateType, String aggregateId, Object payload);
+
+    /**
+     * Claim up to batchSize due events for dispatch; returns their IDs
+     */
+    List<UUID> claimDue(int batchSize);
+
+    /**
+     * Apply a claimed event with the handler for its type, and remove it from the outbox
+     */
+    void dispatch(UUID eventId);
+
+    /**
+     * Record a failed attempt at an event; returns true if it was moved to the dead letters
+     */
+    boolean recordFailure(UUID eventId, RuntimeException error);
+}
@@ -0,0 +1,38 @@
+package online.sevika.tm.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Payment gateway operations used by subscriptions and webhooks.
+ *
+ * The implementation is chosen with {@code app.payments.gateway}: {@code razorpay}
+ * (default) or {@code simulated} for load tests.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Order created at the gateway; amount is in the currency's smallest unit (paise for INR)
+     */
+    record GatewayOrder(String id, long amount, String currency) {
+    }
+
+    /**
+     * Create an order for the customer to pay; throws PaymentGatewayException on failure
+     */
+    GatewayOrder createOrder(BigDecimal amount, String currency, String receipt);
+
+    /**
+     * Verify the signature returned to the browser after checkout
+     */
+    boolean verifyPaymentSignature(String orderId, String paymentId, String signature);
+
+    /**
+     * Verify the signature of a webhook request against its raw body
+     */
+    boolean verifyWebhookSignature(String payload, String signature);
+
+    /**
+     * Public key ID for client-side checkout
+     */
+    String getKeyId();
+}
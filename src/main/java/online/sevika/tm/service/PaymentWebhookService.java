@@ -0,0 +1,31 @@
+package online.sevika.tm.service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface for payment gateway webhooks: an inbox that accepts events at once
+ * and workers that apply them to payments and subscriptions afterwards.
+ */
+public interface PaymentWebhookService {
+
+    /**
+     * Verify and store a webhook event; returns false if the event was already received
+     */
+    boolean receive(String payload, String signature, String eventId);
+
+    /**
+     * Claim up to batchSize due events for processing; returns their inbox IDs
+     */
+    List<UUID> claimDue(int batchSize);
+
+    /**
+     * Apply a claimed event to its payment and subscription, and mark it processed
+     */
+    void process(UUID inboxId);
+
+    /**
+     * Record a failed attempt at an event and schedule its retry
+     */
+    void recordFailure(UUID inboxId, RuntimeException error);
+}
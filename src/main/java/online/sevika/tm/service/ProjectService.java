@@ -23,6 +23,16 @@ public interface ProjectService {
      */
     ProjectResponseDTO getProjectById(UUID id);
 
+    /**
+     * Get the entity tag of a project from its version, without loading it
+     */
+    String getProjectETag(UUID id);
+
+    /**
+     * Get the aggregate entity tag of the project list
+     */
+    String getAllProjectsETag();
+
     /**
      * Get all projects
      */
@@ -38,6 +48,11 @@ public interface ProjectService {
      */
     ProjectResponseDTO updateProject(UUID id, ProjectUpdateRequestDTO updateRequest, UUID userId);
 
+    /**
+     * Update project if it is still at the expected version (null skips the check)
+     */
+    ProjectResponseDTO updateProject(UUID id, ProjectUpdateRequestDTO updateRequest, UUID userId, Long expectedVersion);
+
     /**
      * Delete project
      */
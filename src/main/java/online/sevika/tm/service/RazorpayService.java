@@ -5,36 +5,37 @@ import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
 import lombok.extern.slf4j.Slf4j;
 import online.sevika.tm.config.RazorpayConfig;
+import online.sevika.tm.exception.PaymentGatewayException;
+import online.sevika.tm.util.HmacSignatureVerifier;
 import org.json.JSONObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.util.Formatter;
 
 /**
- * Service for Razorpay payment gateway operations.
+ * Payment gateway backed by Razorpay.
  */
 @Service
+@ConditionalOnProperty(name = "app.payments.gateway", havingValue = "razorpay", matchIfMissing = true)
 @Slf4j
-public class RazorpayService {
+public class RazorpayService implements PaymentGateway {
 
     private final RazorpayClient razorpayClient;
     private final RazorpayConfig razorpayConfig;
+    private final HmacSignatureVerifier paymentSignatures;
+    private final HmacSignatureVerifier webhookSignatures;
 
     public RazorpayService(RazorpayConfig razorpayConfig) throws RazorpayException {
         this.razorpayConfig = razorpayConfig;
+        this.paymentSignatures = new HmacSignatureVerifier(razorpayConfig.getKeySecret());
+        this.webhookSignatures = new HmacSignatureVerifier(razorpayConfig.getWebhookSecret());
         this.razorpayClient = new RazorpayClient(razorpayConfig.getKeyId(), razorpayConfig.getKeySecret());
         log.info("Razorpay client initialized in {} mode", razorpayConfig.getTestMode() ? "TEST" : "LIVE");
     }
 
-    /**
-     * Create a Razorpay order for payment
-     */
-    public Order createOrder(BigDecimal amount, String currency, String receipt) throws RazorpayException {
+    @Override
+    public GatewayOrder createOrder(BigDecimal amount, String currency, String receipt) {
         try {
             JSONObject orderRequest = new JSONObject();
             // Razorpay expects amount in smallest currency unit (paise for INR)
@@ -44,56 +45,32 @@ public class RazorpayService {
 
             Order order = razorpayClient.orders.create(orderRequest);
             log.info("Razorpay order created: {}", order.get("id").toString());
-            return order;
+            return new GatewayOrder(order.get("id"), ((Number) order.get("amount")).longValue(), order.get("currency"));
         } catch (RazorpayException e) {
             log.error("Error creating Razorpay order: " + e.getMessage(), e);
-            throw e;
+            throw new PaymentGatewayException("Failed to create payment order: " + e.getMessage(), e);
         }
     }
 
-    /**
-     * Verify payment signature
-     */
+    @Override
     public boolean verifyPaymentSignature(String orderId, String paymentId, String signature) {
-        try {
-            String payload = orderId + "|" + paymentId;
-            String generatedSignature = calculateHmacSHA256(payload, razorpayConfig.getKeySecret());
-            boolean isValid = generatedSignature.equals(signature);
-            
-            if (isValid) {
-                log.info("Payment signature verified successfully for order: {}", orderId);
-            } else {
-                log.warn("Payment signature verification failed for order: {}", orderId);
-            }
-            
-            return isValid;
-        } catch (Exception e) {
-            log.error("Error verifying payment signature: {}", e.getMessage());
-            return false;
+        boolean isValid = paymentSignatures.verify(orderId + "|" + paymentId, signature);
+
+        if (isValid) {
+            log.info("Payment signature verified successfully for order: {}", orderId);
+        } else {
+            log.warn("Payment signature verification failed for order: {}", orderId);
         }
+
+        return isValid;
     }
 
-    /**
-     * Calculate HMAC SHA256 signature
-     */
-    private String calculateHmacSHA256(String data, String secret) throws Exception {
-        Mac mac = Mac.getInstance("HmacSHA256");
-        SecretKeySpec secretKeySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-        mac.init(secretKeySpec);
-        byte[] hash = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-        
-        Formatter formatter = new Formatter();
-        for (byte b : hash) {
-            formatter.format("%02x", b);
-        }
-        String result = formatter.toString();
-        formatter.close();
-        return result;
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        return webhookSignatures.verify(payload, signature);
     }
 
-    /**
-     * Get Razorpay key ID for client-side integration
-     */
+    @Override
     public String getKeyId() {
         return razorpayConfig.getKeyId();
     }
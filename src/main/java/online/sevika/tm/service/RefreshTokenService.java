@@ -0,0 +1,41 @@
+package online.sevika.tm.service;
+
+import java.util.UUID;
+
+/**
+ * Service interface for refresh token operations.
+ */
+public interface RefreshTokenService {
+
+    /**
+     * Issue a refresh token that starts a new token family for the user
+     */
+    String issue(UUID userId);
+
+    /**
+     * Exchange a refresh token for a new one of the same family; replaying an
+     * already exchanged token revokes the whole family
+     */
+    Rotation rotate(String refreshToken);
+
+    /**
+     * Revoke the family of a refresh token (logout)
+     */
+    void revoke(String refreshToken);
+
+    /**
+     * Revoke all refresh tokens of a user
+     */
+    void revokeAllForUser(UUID userId);
+
+    /**
+     * Delete expired refresh tokens; returns the number deleted
+     */
+    int purgeExpiredTokens();
+
+    /**
+     * Owner of a rotated token and the token replacing it
+     */
+    record Rotation(UUID userId, String refreshToken) {
+    }
+}
@@ -0,0 +1,93 @@
+package online.sevika.tm.service;
+
+import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.config.RazorpayConfig;
+import online.sevika.tm.exception.PaymentGatewayException;
+import online.sevika.tm.util.HmacSignatureVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process payment gateway for load tests, enabled with {@code app.payments.gateway=simulated}.
+ *
+ * Order creation waits a configurable latency (base plus uniform jitter, with an occasional
+ * slow call) and fails at a configurable rate, so the subscription flow can be exercised
+ * against a slow or flaky gateway. Signatures use the same HMAC scheme and secrets as
+ * Razorpay, so load-test clients sign requests the way the real gateway would.
+ */
+@Service
+@ConditionalOnProperty(name = "app.payments.gateway", havingValue = "simulated")
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final RazorpayConfig razorpayConfig;
+    private final HmacSignatureVerifier paymentSignatures;
+    private final HmacSignatureVerifier webhookSignatures;
+    private final Duration latency;
+    private final Duration latencyJitter;
+    private final double slowRate;
+    private final Duration slowLatency;
+    private final double failureRate;
+
+    public SimulatedPaymentGateway(
+            RazorpayConfig razorpayConfig,
+            @Value("${app.payments.simulator.latency:PT0.2S}") Duration latency,
+            @Value("${app.payments.simulator.latency-jitter:PT0.1S}") Duration latencyJitter,
+            @Value("${app.payments.simulator.slow-rate:0.0}") double slowRate,
+            @Value("${app.payments.simulator.slow-latency:PT5S}") Duration slowLatency,
+            @Value("${app.payments.simulator.failure-rate:0.0}") double failureRate) {
+        this.razorpayConfig = razorpayConfig;
+        this.paymentSignatures = new HmacSignatureVerifier(razorpayConfig.getKeySecret());
+        this.webhookSignatures = new HmacSignatureVerifier(razorpayConfig.getWebhookSecret());
+        this.latency = latency;
+        this.latencyJitter = latencyJitter;
+        this.slowRate = slowRate;
+        this.slowLatency = slowLatency;
+        this.failureRate = failureRate;
+        log.warn("Simulated payment gateway in use: orders are never charged");
+    }
+
+    @Override
+    public GatewayOrder createOrder(BigDecimal amount, String currency, String receipt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        pause(random.nextDouble() < slowRate
+                ? slowLatency
+                : latency.plusMillis(random.nextLong(latencyJitter.toMillis() + 1)));
+
+        if (random.nextDouble() < failureRate) {
+            throw new PaymentGatewayException("Simulated gateway failure for receipt " + receipt);
+        }
+        String orderId = "order_sim_" + UUID.randomUUID().toString().replace("-", "");
+        return new GatewayOrder(orderId, amount.movePointRight(2).longValue(), currency);
+    }
+
+    @Override
+    public boolean verifyPaymentSignature(String orderId, String paymentId, String signature) {
+        return paymentSignatures.verify(orderId + "|" + paymentId, signature);
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        return webhookSignatures.verify(payload, signature);
+    }
+
+    @Override
+    public String getKeyId() {
+        return razorpayConfig.getKeyId();
+    }
+
+    private static void pause(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while waiting for the simulated gateway", e);
+        }
+    }
+}
@@ -49,7 +49,7 @@ public interface SubscriptionService {
     List<PaymentResponseDTO> getUserPayments(UUID userId);
 
     /**
-     * Update expired subscriptions (scheduled task)
+     * Expire lapsed active subscriptions (scheduled task); returns the number expired
      */
-    void updateExpiredSubscriptions();
+    int updateExpiredSubscriptions();
 }
@@ -1,4 +1,7 @@
 package online.sevika.tm.service;
+import online.sevika.tm.dto.TaskBoardColumnDTO;
+import online.sevika.tm.dto.TaskBoardDTO;
+import online.sevika.tm.dto.TaskDueBucketsDTO;
 import online.sevika.tm.dto.TaskRequestDTO;
 import online.sevika.tm.dto.TaskResponseDTO;
 import online.sevika.tm.dto.TaskUpdateRequestDTO;
@@ -23,17 +26,44 @@ public interface TaskService {
      */
     TaskResponseDTO getTaskById(UUID id);
 
+    /**
+     * Get the entity tag of a task from its version, without loading it
+     */
+    String getTaskETag(UUID id);
+
+    /**
+     * Get the aggregate entity tag of a project's tasks
+     */
+    String getTasksByProjectETag(UUID projectId);
+
     /**
      * Get all tasks with optional filters
      */
     List<TaskResponseDTO> getAllTasks(UUID projectId, UUID assignedToId, 
                                        Task.TaskStatus status, Task.TaskPriority priority);
 
+    /**
+     * Full-text search tasks visible to the user, combined with optional filters
+     */
+    List<TaskResponseDTO> searchTasks(String query, UUID projectId, UUID assignedToId,
+                                      Task.TaskStatus status, Task.TaskPriority priority,
+                                      UUID userId, int page, int size);
+
     /**
      * Get tasks by project
      */
     List<TaskResponseDTO> getTasksByProject(UUID projectId);
 
+    /**
+     * Get the project board: per-status counts and the first cards of each column
+     */
+    TaskBoardDTO getTaskBoard(UUID projectId, int limit);
+
+    /**
+     * Load the next cards of a single board column after the given cursor
+     */
+    TaskBoardColumnDTO getTaskBoardColumn(UUID projectId, Task.TaskStatus status, String cursor, int limit);
+
     /**
      * Get tasks assigned to user
      */
@@ -44,18 +74,43 @@ public interface TaskService {
      */
     TaskResponseDTO updateTask(UUID id, TaskUpdateRequestDTO updateRequest, UUID userId);
 
+    /**
+     * Update task if it is still at the expected version (null skips the check)
+     */
+    TaskResponseDTO updateTask(UUID id, TaskUpdateRequestDTO updateRequest, UUID userId, Long expectedVersion);
+
     /**
      * Update task status
      */
     TaskResponseDTO updateTaskStatus(UUID id, Task.TaskStatus status, UUID userId);
 
+    /**
+     * Update task status if it is still at the expected version (null skips the check)
+     */
+    TaskResponseDTO updateTaskStatus(UUID id, Task.TaskStatus status, UUID userId, Long expectedVersion);
+
     /**
      * Delete task
      */
     void deleteTask(UUID id, UUID userId);
 
     /**
-     * Get overdue tasks
+     * Get up to {@code limit} overdue tasks, earliest due first
+     */
+    List<TaskResponseDTO> getOverdueTasks(int limit);
+
+    /**
+     * Get up to {@code limit} open tasks due within the given number of days, earliest due first
+     */
+    List<TaskResponseDTO> getTasksDueSoon(int days, int limit);
+
+    /**
+     * Get overdue, due-today and due-this-week tasks assigned to a user
+     */
+    TaskDueBucketsDTO getDueTasksForUser(UUID userId);
+
+    /**
+     * Get overdue, due-today and due-this-week tasks of a project
      */
-    List<TaskResponseDTO> getOverdueTasks();
+    TaskDueBucketsDTO getDueTasksForProject(UUID projectId);
 }
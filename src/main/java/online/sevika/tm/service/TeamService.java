@@ -1,4 +1,6 @@
 package online.sevika.tm.service;
+import online.sevika.tm.dto.TeamMemberBulkRequestDTO;
+import online.sevika.tm.dto.TeamMemberBulkResultDTO;
 import online.sevika.tm.dto.TeamMemberRequestDTO;
 import online.sevika.tm.dto.TeamMemberResponseDTO;
 import online.sevika.tm.dto.TeamRequestDTO;
@@ -49,6 +51,11 @@ public interface TeamService {
      */
     TeamMemberResponseDTO addTeamMember(UUID teamId, TeamMemberRequestDTO request, UUID addedBy);
 
+    /**
+     * Add many users to a team with the same role, skipping unknown users and existing members
+     */
+    TeamMemberBulkResultDTO addTeamMembers(UUID teamId, TeamMemberBulkRequestDTO request, UUID addedBy);
+
     /**
      * Remove member from team
      */
@@ -73,4 +80,9 @@ public interface TeamService {
      * Check if user is team admin or owner
      */
     boolean isTeamAdminOrOwner(UUID teamId, UUID userId);
+
+    /**
+     * Repair stored team member counts that drifted from the member rows; returns the number repaired
+     */
+    int reconcileMemberCounts();
 }
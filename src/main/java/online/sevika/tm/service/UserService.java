@@ -1,4 +1,5 @@
 package online.sevika.tm.service;
+import online.sevika.tm.dto.UserDirectoryDTO;
 import online.sevika.tm.dto.UserRequestDTO;
 import online.sevika.tm.dto.UserResponseDTO;
 import online.sevika.tm.dto.UserUpdateRequestDTO;
@@ -33,6 +34,12 @@ public interface UserService {
      */
     List<UserResponseDTO> getAllUsers();
 
+    /**
+     * Page of enabled users in username order, optionally filtered by a prefix of the
+     * username, email or name, continuing after the given cursor
+     */
+    UserDirectoryDTO getUserDirectory(String query, String cursor, int limit);
+
     /**
      * Update user
      */
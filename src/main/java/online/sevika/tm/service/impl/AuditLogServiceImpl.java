@@ -1,5 +1,8 @@
 package online.sevika.tm.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import online.sevika.tm.dto.AuditLogDTO;
@@ -9,12 +12,19 @@ import online.sevika.tm.entity.enums.AuditAction;
 import online.sevika.tm.entity.enums.EntityType;
 import online.sevika.tm.mapper.AuditLogMapper;
 import online.sevika.tm.repository.AuditLogRepository;
+import online.sevika.tm.security.AuthenticatedUser;
+import online.sevika.tm.service.AuditActivityHandler;
 import online.sevika.tm.service.AuditLogService;
+import online.sevika.tm.service.OutboxService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -31,41 +41,42 @@ public class AuditLogServiceImpl implements AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
     private final AuditLogMapper auditLogMapper;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional
-    public void logActivity(
+    public void recordActivity(
             EntityType entityType,
             String entityId,
             AuditAction action,
-            UUID userId,
-            String username,
-            String oldValue,
-            String newValue,
-            String description,
-            String ipAddress,
-            String userAgent
+            Object oldValue,
+            Object newValue,
+            String description
     ) {
-        try {
-            AuditLog auditLog = AuditLog.builder()
-                    .entityType(entityType)
-                    .entityId(entityId)
-                    .action(action)
-                    .userId(userId)
-                    .username(username)
-                    .oldValue(oldValue)
-                    .newValue(newValue)
-                    .description(description)
-                    .ipAddress(ipAddress)
-                    .userAgent(userAgent)
-                    .timestamp(LocalDateTime.now())
-                    .build();
-
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log created: {} {} by user {}", action, entityType, username);
-        } catch (Exception e) {
-            log.error("Failed to log activity: " + e.getMessage(), e);
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UUID userId = null;
+        String username = "system";
+
+        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
+            username = auth.getName();
+            // The JWT principal carries the user ID, so no lookup is needed
+            if (auth.getPrincipal() instanceof AuthenticatedUser principal) {
+                userId = principal.getId();
+            }
+        }
+
+        String ipAddress = null;
+        String userAgent = null;
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            ipAddress = getClientIP(request);
+            userAgent = request.getHeader("User-Agent");
         }
+
+        Activity activity = new Activity(entityType, entityId, action, userId, username,
+                toValue(oldValue), toValue(newValue), description, ipAddress, userAgent);
+        outboxService.publish(AuditActivityHandler.EVENT_TYPE, entityType.name(), entityId, activity);
     }
 
     @Override
@@ -135,4 +146,25 @@ public class AuditLogServiceImpl implements AuditLogService {
     public long getUserActivityCount(UUID userId) {
         return auditLogRepository.countByUserId(userId);
     }
+
+    private String toValue(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            // The entry is still worth keeping without its snapshot
+            log.warn("Could not serialize audit value of type {}: {}", value.getClass().getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private String getClientIP(HttpServletRequest request) {
+        String xfHeader = request.getHeader("X-Forwarded-For");
+        if (xfHeader == null) {
+            return request.getRemoteAddr();
+        }
+        return xfHeader.split(",")[0];
+    }
 }
@@ -1,19 +1,24 @@
 package online.sevika.tm.service.impl;
 import online.sevika.tm.dto.AuthResponseDTO;
 import online.sevika.tm.dto.LoginRequestDTO;
+import online.sevika.tm.dto.RefreshTokenRequestDTO;
 import online.sevika.tm.dto.RegisterRequestDTO;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import online.sevika.tm.entity.User;
 import online.sevika.tm.exception.DuplicateResourceException;
+import online.sevika.tm.exception.InvalidTokenException;
 import online.sevika.tm.mapper.UserMapper;
 import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.security.LoginAttemptLimiter;
 import online.sevika.tm.security.jwt.JwtUtil;
 import online.sevika.tm.service.AuthService;
+import online.sevika.tm.service.RefreshTokenService;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -32,6 +37,8 @@ public class AuthServiceImpl implements AuthService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginAttemptLimiter loginAttemptLimiter;
     private final AuthenticationManager authenticationManager;
 
     @Override
@@ -58,36 +65,67 @@ public class AuthServiceImpl implements AuthService {
                 .build();
 
         User savedUser = userRepository.save(user);
-        String token = jwtUtil.generateToken(savedUser);
 
         log.info("User registered successfully: {}", savedUser.getUsername());
 
-        return AuthResponseDTO.builder()
-                .token(token)
-                .type("Bearer")
-                .user(userMapper.toResponse(savedUser))
-                .build();
+        return authResponse(savedUser, refreshTokenService.issue(savedUser.getId()));
     }
 
     @Override
-    public AuthResponseDTO login(LoginRequestDTO request) {
+    @Transactional
+    public AuthResponseDTO login(LoginRequestDTO request, String clientIp) {
         log.info("User login attempt: {}", request.getUsername());
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
-
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String token = jwtUtil.generateToken(userDetails);
+        // Throttle before the password is hashed
+        loginAttemptLimiter.acquire(request.getUsername(), clientIp);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+            );
+        } catch (AuthenticationException e) {
+            loginAttemptLimiter.recordFailure(request.getUsername());
+            throw e;
+        }
 
-        User user = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The authenticated principal is the user just loaded for the password check
+        User user = authentication.getPrincipal() instanceof User principal
+                ? principal
+                : userRepository.findByUsername(((UserDetails) authentication.getPrincipal()).getUsername())
+                        .orElseThrow(() -> new RuntimeException("User not found"));
 
         log.info("User logged in successfully: {}", request.getUsername());
 
+        return authResponse(user, refreshTokenService.issue(user.getId()));
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public AuthResponseDTO refresh(RefreshTokenRequestDTO request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+
+        User user = userRepository.findById(rotation.userId())
+                .filter(User::isEnabled)
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+
+        log.debug("Access token refreshed for user: {}", user.getUsername());
+
+        return authResponse(user, rotation.refreshToken());
+    }
+
+    @Override
+    @Transactional
+    public void logout(RefreshTokenRequestDTO request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+    }
+
+    private AuthResponseDTO authResponse(User user, String refreshToken) {
         return AuthResponseDTO.builder()
-                .token(token)
+                .token(jwtUtil.generateToken(user))
                 .type("Bearer")
+                .expiresIn(jwtUtil.getAccessTokenLifetime().toSeconds())
+                .refreshToken(refreshToken)
                 .user(userMapper.toResponse(user))
                 .build();
     }
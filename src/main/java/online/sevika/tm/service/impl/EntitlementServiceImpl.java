@@ -0,0 +1,195 @@
+package online.sevika.tm.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import online.sevika.tm.cache.ActiveSubscriptionCache;
+import online.sevika.tm.entity.SubscriptionPlan;
+import online.sevika.tm.exception.QuotaExceededException;
+import online.sevika.tm.repository.ProjectRepository;
+import online.sevika.tm.repository.SubscriptionRepository;
+import online.sevika.tm.repository.TaskRepository;
+import online.sevika.tm.service.EntitlementService;
+import online.sevika.tm.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service implementation for entitlements, with cached plan limits and live usage counters.
+ *
+ * A user's limits are resolved from the plans of their active subscriptions once and
+ * cached; a trial awaiting payment grants nothing yet. Project and
+ * task usage is counted once per owner or project and then kept up to date by the
+ * create and delete paths, so a quota check is an in-memory compare-and-increment;
+ * a rolled-back create gives its slot back. Counters only see this instance's writes,
+ * so they expire after the TTL and are recounted, which bounds the drift across
+ * instances. Under an unlimited plan nothing is counted.
+ */
+@Service
+public class EntitlementServiceImpl implements EntitlementService {
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final ActiveSubscriptionCache activeSubscriptionCache;
+    private final Entitlements defaults;
+    private final Cache<UUID, Entitlements> entitlementsByUser;
+    private final Cache<UUID, AtomicInteger> projectsByOwner;
+    private final Cache<UUID, AtomicInteger> tasksByProject;
+
+    public EntitlementServiceImpl(
+            SubscriptionRepository subscriptionRepository,
+            ProjectRepository projectRepository,
+            TaskRepository taskRepository,
+            ActiveSubscriptionCache activeSubscriptionCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.entitlements.defaults.max-projects:-1}") int defaultMaxProjects,
+            @Value("${app.entitlements.defaults.max-tasks-per-project:-1}") int defaultMaxTasksPerProject,
+            @Value("${app.entitlements.defaults.max-team-members:-1}") int defaultMaxTeamMembers,
+            @Value("${app.entitlements.cache.max-size:10000}") long maxSize,
+            @Value("${app.entitlements.cache.ttl:PT5M}") Duration ttl) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.activeSubscriptionCache = activeSubscriptionCache;
+        this.defaults = new Entitlements(defaultMaxProjects, defaultMaxTasksPerProject, defaultMaxTeamMembers,
+                false, false, false, false);
+        this.entitlementsByUser = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.projectsByOwner = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.tasksByProject = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entitlementsByUser, "entitlements");
+    }
+
+    @Override
+    public Entitlements getEntitlements(UUID userId) {
+        return entitlementsByUser.get(userId, this::resolve);
+    }
+
+    @Override
+    public void acquireProject(UUID ownerId) {
+        int limit = getEntitlements(ownerId).maxProjects();
+        if (limit < 0) {
+            increment(projectsByOwner.getIfPresent(ownerId));
+            return;
+        }
+        AtomicInteger projects = projectsByOwner.get(ownerId,
+                key -> new AtomicInteger((int) projectRepository.countByOwnerId(key)));
+        acquire(projects, limit, "Project limit of your plan reached (" + limit + ")");
+    }
+
+    @Override
+    public void releaseProject(UUID ownerId, UUID projectId) {
+        AtomicInteger projects = projectsByOwner.getIfPresent(ownerId);
+        AfterCommit.run(() -> {
+            decrement(projects);
+            tasksByProject.invalidate(projectId);
+        });
+    }
+
+    @Override
+    public void acquireTask(UUID projectId, UUID projectOwnerId) {
+        int limit = getEntitlements(projectOwnerId).maxTasksPerProject();
+        if (limit < 0) {
+            increment(tasksByProject.getIfPresent(projectId));
+            return;
+        }
+        AtomicInteger tasks = tasksByProject.get(projectId,
+                key -> new AtomicInteger((int) taskRepository.countByProjectId(key)));
+        acquire(tasks, limit, "Task limit per project of the project owner's plan reached (" + limit + ")");
+    }
+
+    @Override
+    public void releaseTask(UUID projectId) {
+        AtomicInteger tasks = tasksByProject.getIfPresent(projectId);
+        AfterCommit.run(() -> decrement(tasks));
+    }
+
+    @Override
+    public void evict(UUID userId) {
+        AfterCommit.run(() -> entitlementsByUser.invalidate(userId));
+        activeSubscriptionCache.evict(userId);
+    }
+
+    @Override
+    public void evictAll() {
+        AfterCommit.run(entitlementsByUser::invalidateAll);
+    }
+
+    private Entitlements resolve(UUID userId) {
+        List<SubscriptionPlan> plans = subscriptionRepository.findCurrentPlansByUserId(userId, LocalDateTime.now());
+        if (plans.isEmpty()) {
+            return defaults;
+        }
+
+        // Overlapping subscriptions grant the most generous of their plans
+        Entitlements resolved = toEntitlements(plans.get(0));
+        for (SubscriptionPlan plan : plans.subList(1, plans.size())) {
+            Entitlements other = toEntitlements(plan);
+            resolved = new Entitlements(
+                    widest(resolved.maxProjects(), other.maxProjects()),
+                    widest(resolved.maxTasksPerProject(), other.maxTasksPerProject()),
+                    widest(resolved.maxTeamMembers(), other.maxTeamMembers()),
+                    resolved.fileAttachments() || other.fileAttachments(),
+                    resolved.advancedReporting() || other.advancedReporting(),
+                    resolved.prioritySupport() || other.prioritySupport(),
+                    resolved.apiAccess() || other.apiAccess());
+        }
+        return resolved;
+    }
+
+    private static Entitlements toEntitlements(SubscriptionPlan plan) {
+        return new Entitlements(
+                plan.getMaxProjects(),
+                plan.getMaxTasksPerProject(),
+                plan.getMaxTeamMembers(),
+                Boolean.TRUE.equals(plan.getFileAttachments()),
+                Boolean.TRUE.equals(plan.getAdvancedReporting()),
+                Boolean.TRUE.equals(plan.getPrioritySupport()),
+                Boolean.TRUE.equals(plan.getApiAccess()));
+    }
+
+    private static int widest(int a, int b) {
+        return a < 0 || b < 0 ? -1 : Math.max(a, b);
+    }
+
+    private static void acquire(AtomicInteger counter, int limit, String message) {
+        int current;
+        do {
+            current = counter.get();
+            if (current >= limit) {
+                throw new QuotaExceededException(message);
+            }
+        } while (!counter.compareAndSet(current, current + 1));
+        AfterCommit.onRollback(counter::decrementAndGet);
+    }
+
+    private static void increment(AtomicInteger counter) {
+        if (counter != null) {
+            counter.incrementAndGet();
+            AfterCommit.onRollback(counter::decrementAndGet);
+        }
+    }
+
+    private static void decrement(AtomicInteger counter) {
+        if (counter != null) {
+            counter.updateAndGet(count -> Math.max(0, count - 1));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package online.sevika.tm.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.entity.OutboxEvent;
+import online.sevika.tm.repository.OutboxEventRepository;
+import online.sevika.tm.service.OutboxHandler;
+import online.sevika.tm.service.OutboxService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of OutboxService.
+ *
+ * Publishing requires an open transaction, so an event exists exactly when the write that
+ * caused it committed. Dispatching applies and deletes the event in one transaction; an
+ * event that keeps failing is retried with exponential backoff and, after the configured
+ * number of attempts, left in the table as DEAD with its last error.
+ */
+@Service
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final int MAX_BACKOFF_DOUBLINGS = 10;
+
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, OutboxHandler> handlers;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.claim-timeout:PT5M}")
+    private Duration claimTimeout;
+
+    @Value("${app.outbox.retry-delay:PT10S}")
+    private Duration retryDelay;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxRepository, ObjectMapper objectMapper,
+                             List<OutboxHandler> handlers) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        // Fails at startup if two handlers claim the same event type
+        this.handlers = handlers.stream().collect(Collectors.toMap(OutboxHandler::eventType, Function.identity()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String eventType, String aggregateType, String aggregateId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload for " + eventType + " is not serializable", e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .eventType(eventType)
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .payload(json)
+                .createdAt(now)
+                .availableAt(now)
+                .attempts(0)
+                .status(OutboxEvent.OutboxStatus.PENDING)
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public List<UUID> claimDue(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        return outboxRepository.claimDue(now, now.plus(claimTimeout), batchSize);
+    }
+
+    @Override
+    @Transactional
+    public void dispatch(UUID eventId) {
+        Optional<OutboxEvent> found = outboxRepository.findById(eventId);
+        if (found.isEmpty() || found.get().getStatus() != OutboxEvent.OutboxStatus.PENDING) {
+            return;
+        }
+        OutboxEvent event = found.get();
+
+        OutboxHandler handler = handlers.get(event.getEventType());
+        if (handler == null) {
+            throw new IllegalStateException("No outbox handler for event type " + event.getEventType());
+        }
+        handler.handle(event);
+        outboxRepository.delete(event);
+    }
+
+    @Override
+    @Transactional
+    public boolean recordFailure(UUID eventId, RuntimeException error) {
+        Optional<OutboxEvent> found = outboxRepository.findById(eventId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        OutboxEvent event = found.get();
+        String lastError = truncate(error.toString(), MAX_ERROR_LENGTH);
+
+        int attempts = event.getAttempts();
+        if (attempts >= maxAttempts) {
+            outboxRepository.markDead(eventId, lastError);
+            log.error("Outbox event {} ({} {}) dead-lettered after {} attempts", eventId, event.getEventType(),
+                    event.getAggregateId(), attempts, error);
+            return true;
+        }
+
+        // Exponential backoff from the retry delay, capped at 2^10 times it
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), MAX_BACKOFF_DOUBLINGS));
+        outboxRepository.markFailed(eventId, LocalDateTime.now().plus(delay), lastError);
+        log.warn("Outbox event {} ({}) failed on attempt {}, retrying in {}", eventId, event.getEventType(),
+                attempts, delay, error);
+        return false;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
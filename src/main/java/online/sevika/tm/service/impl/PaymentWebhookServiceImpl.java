@@ -0,0 +1,208 @@
+package online.sevika.tm.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.entity.Payment;
+import online.sevika.tm.entity.PaymentWebhookEvent;
+import online.sevika.tm.entity.Subscription;
+import online.sevika.tm.repository.PaymentRepository;
+import online.sevika.tm.repository.PaymentWebhookEventRepository;
+import online.sevika.tm.repository.SubscriptionRepository;
+import online.sevika.tm.service.EntitlementService;
+import online.sevika.tm.service.PaymentGateway;
+import online.sevika.tm.service.PaymentWebhookService;
+import online.sevika.tm.util.TokenHashing;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Implementation of PaymentWebhookService.
+ *
+ * Receiving only verifies the signature and appends the raw event to the inbox, so the
+ * gateway gets its acknowledgement in one insert however busy the workers are. The
+ * unique event id turns the gateway's redeliveries into no-ops. Applying an event locks
+ * the payment, and only ever moves a payment forward, so events for the same order can
+ * be applied in any order and more than once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentWebhookServiceImpl implements PaymentWebhookService {
+
+    private static final int MAX_EVENT_ID_LENGTH = 100;
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final int MAX_FAILURE_REASON_LENGTH = 1000;
+    private static final int MAX_BACKOFF_DOUBLINGS = 10;
+
+    private final PaymentWebhookEventRepository eventRepository;
+    private final PaymentRepository paymentRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final PaymentGateway paymentGateway;
+    private final EntitlementService entitlementService;
+
+    @Value("${app.payments.webhooks.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.payments.webhooks.claim-timeout:PT5M}")
+    private Duration claimTimeout;
+
+    @Value("${app.payments.webhooks.retry-delay:PT30S}")
+    private Duration retryDelay;
+
+    @Override
+    @Transactional
+    public boolean receive(String payload, String signature, String eventId) {
+        if (!paymentGateway.verifyWebhookSignature(payload, signature)) {
+            throw new IllegalArgumentException("Invalid webhook signature");
+        }
+
+        JSONObject event;
+        try {
+            event = new JSONObject(payload);
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Malformed webhook payload");
+        }
+
+        // Without the gateway's event id, identical bodies are treated as the same event
+        String id = eventId == null || eventId.isBlank() || eventId.length() > MAX_EVENT_ID_LENGTH
+                ? HexFormat.of().formatHex(TokenHashing.sha256(payload))
+                : eventId;
+        boolean stored = eventRepository.insertIfAbsent(UUID.randomUUID(), id, event.optString("event", "unknown"),
+                orderId(event), payload, LocalDateTime.now()) == 1;
+        if (stored) {
+            log.info("Webhook event {} ({}) queued", id, event.optString("event"));
+        } else {
+            log.info("Duplicate webhook event {} ignored", id);
+        }
+        return stored;
+    }
+
+    @Override
+    @Transactional
+    public List<UUID> claimDue(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        return eventRepository.claimDue(now, now.plus(claimTimeout), maxAttempts, batchSize);
+    }
+
+    @Override
+    @Transactional
+    public void process(UUID inboxId) {
+        Optional<PaymentWebhookEvent> found = eventRepository.findById(inboxId);
+        if (found.isEmpty() || found.get().getProcessedAt() != null) {
+            return;
+        }
+        PaymentWebhookEvent event = found.get();
+
+        JSONObject payment = entity(new JSONObject(event.getPayload()), "payment");
+        switch (event.getEventType()) {
+            case "payment.captured", "order.paid" -> capture(event.getOrderId(), payment);
+            case "payment.failed" -> fail(event.getOrderId(), payment);
+            default -> log.debug("Ignoring webhook event type {}", event.getEventType());
+        }
+
+        eventRepository.markProcessed(inboxId, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public void recordFailure(UUID inboxId, RuntimeException error) {
+        Optional<PaymentWebhookEvent> found = eventRepository.findById(inboxId);
+        if (found.isEmpty()) {
+            return;
+        }
+        PaymentWebhookEvent event = found.get();
+
+        // Exponential backoff from the retry delay, capped at 2^10 times it
+        int attempts = event.getAttempts();
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), MAX_BACKOFF_DOUBLINGS));
+        eventRepository.markFailed(inboxId, LocalDateTime.now().plus(delay), truncate(error.toString(), MAX_ERROR_LENGTH));
+
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on webhook event {} after {} attempts", event.getEventId(), attempts, error);
+        } else {
+            log.warn("Webhook event {} failed on attempt {}, retrying in {}", event.getEventId(), attempts, delay, error);
+        }
+    }
+
+    private void capture(String orderId, JSONObject gatewayPayment) {
+        Optional<Payment> found = lockPayment(orderId);
+        if (found.isEmpty()) {
+            return;
+        }
+        Payment payment = found.get();
+
+        if (payment.getStatus() != Payment.PaymentStatus.SUCCESS) {
+            payment.setStatus(Payment.PaymentStatus.SUCCESS);
+            payment.setFailureReason(null);
+            if (gatewayPayment != null) {
+                payment.setRazorpayPaymentId(gatewayPayment.optString("id", null));
+                payment.setPaymentMethod(gatewayPayment.optString("method", null));
+            }
+            payment.setPaidAt(LocalDateTime.now());
+            paymentRepository.save(payment);
+        }
+
+        // Only a subscription still waiting for its payment is activated; a cancelled one stays cancelled
+        Subscription subscription = payment.getSubscription();
+        if (subscription != null && subscription.getStatus() == Subscription.SubscriptionStatus.TRIAL) {
+            subscription.setStatus(Subscription.SubscriptionStatus.ACTIVE);
+            subscriptionRepository.save(subscription);
+            entitlementService.evict(subscription.getUser().getId());
+            log.info("Subscription activated by webhook: {}", subscription.getId());
+        }
+    }
+
+    private void fail(String orderId, JSONObject gatewayPayment) {
+        Optional<Payment> found = lockPayment(orderId);
+        if (found.isEmpty()) {
+            return;
+        }
+        Payment payment = found.get();
+
+        // A failed attempt never overrides a captured one; the customer may retry on the same order
+        if (payment.getStatus() == Payment.PaymentStatus.PENDING) {
+            payment.setStatus(Payment.PaymentStatus.FAILED);
+            String reason = gatewayPayment == null ? null : gatewayPayment.optString("error_description", null);
+            payment.setFailureReason(reason == null ? "Payment failed" : truncate(reason, MAX_FAILURE_REASON_LENGTH));
+            paymentRepository.save(payment);
+        }
+    }
+
+    private Optional<Payment> lockPayment(String orderId) {
+        Optional<Payment> payment = orderId == null ? Optional.empty() : paymentRepository.findByRazorpayOrderIdForUpdate(orderId);
+        if (payment.isEmpty()) {
+            // Orders created outside this application share the gateway account
+            log.warn("Ignoring webhook for unknown order {}", orderId);
+        }
+        return payment;
+    }
+
+    private static String orderId(JSONObject event) {
+        JSONObject payment = entity(event, "payment");
+        if (payment != null && !payment.isNull("order_id")) {
+            return payment.optString("order_id", null);
+        }
+        JSONObject order = entity(event, "order");
+        return order == null ? null : order.optString("id", null);
+    }
+
+    private static JSONObject entity(JSONObject event, String name) {
+        JSONObject payload = event.optJSONObject("payload");
+        JSONObject wrapper = payload == null ? null : payload.optJSONObject(name);
+        return wrapper == null ? null : wrapper.optJSONObject("entity");
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -5,6 +5,8 @@ import online.sevika.tm.dto.TaskPermissionResponseDTO;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.cache.TeamMembershipIndex;
+import online.sevika.tm.cache.UserCache;
 import online.sevika.tm.entity.Project;
 import online.sevika.tm.entity.ProjectPermission;
 import online.sevika.tm.entity.Task;
@@ -20,16 +22,19 @@ import online.sevika.tm.repository.ProjectRepository;
 import online.sevika.tm.repository.TaskPermissionRepository;
 import online.sevika.tm.repository.TaskRepository;
 import online.sevika.tm.repository.TeamRepository;
-import online.sevika.tm.repository.UserRepository;
 import online.sevika.tm.service.PermissionService;
 import online.sevika.tm.service.TeamService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for Permission operations
@@ -45,7 +50,8 @@ public class PermissionServiceImpl implements PermissionService {
     private final ProjectRepository projectRepository;
     private final TaskRepository taskRepository;
     private final TeamRepository teamRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final TeamMembershipIndex membershipIndex;
     private final PermissionMapper permissionMapper;
     private final TeamService teamService;
 
@@ -76,7 +82,7 @@ public class PermissionServiceImpl implements PermissionService {
             teamRepository.findById(request.getTeamId())
                     .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + request.getTeamId()));
         } else {
-            userRepository.findById(request.getUserId())
+            userCache.findById(request.getUserId())
                     .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + request.getUserId()));
         }
 
@@ -139,8 +145,12 @@ public class PermissionServiceImpl implements PermissionService {
         projectRepository.findById(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found with id: " + projectId));
 
-        return projectPermissionRepository.findByProjectId(projectId).stream()
-                .map(this::toProjectPermissionResponseWithDetails)
+        List<ProjectPermission> permissions = projectPermissionRepository.findByProjectId(projectId);
+        Map<UUID, User> users = userCache.getUsersByIds(permissions.stream()
+                .flatMap(permission -> Stream.of(permission.getUserId(), permission.getGrantedBy()))
+                .toList());
+        return permissions.stream()
+                .map(permission -> toProjectPermissionResponseWithDetails(permission, users))
                 .collect(Collectors.toList());
     }
 
@@ -154,7 +164,10 @@ public class PermissionServiceImpl implements PermissionService {
         }
 
         // Get user's permissions (direct or through team)
-        List<ProjectPermission> permissions = projectPermissionRepository.findUserPermissionsOnProject(projectId, userId);
+        Set<UUID> teamIds = membershipIndex.teamsOf(userId).keySet();
+        List<ProjectPermission> permissions = teamIds.isEmpty()
+                ? projectPermissionRepository.findByProjectIdAndUserId(projectId, userId).stream().toList()
+                : projectPermissionRepository.findPermissionsOnProject(projectId, userId, teamIds);
         
         if (permissions.isEmpty()) {
             return false;
@@ -191,7 +204,7 @@ public class PermissionServiceImpl implements PermissionService {
             teamRepository.findById(request.getTeamId())
                     .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + request.getTeamId()));
         } else {
-            userRepository.findById(request.getUserId())
+            userCache.findById(request.getUserId())
                     .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + request.getUserId()));
         }
 
@@ -254,8 +267,12 @@ public class PermissionServiceImpl implements PermissionService {
         taskRepository.findById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
 
-        return taskPermissionRepository.findByTaskId(taskId).stream()
-                .map(this::toTaskPermissionResponseWithDetails)
+        List<TaskPermission> permissions = taskPermissionRepository.findByTaskId(taskId);
+        Map<UUID, User> users = userCache.getUsersByIds(permissions.stream()
+                .flatMap(permission -> Stream.of(permission.getUserId(), permission.getGrantedBy()))
+                .toList());
+        return permissions.stream()
+                .map(permission -> toTaskPermissionResponseWithDetails(permission, users))
                 .collect(Collectors.toList());
     }
 
@@ -269,7 +286,10 @@ public class PermissionServiceImpl implements PermissionService {
         }
 
         // Check task-specific permissions first
-        List<TaskPermission> taskPermissions = taskPermissionRepository.findUserPermissionsOnTask(taskId, userId);
+        Set<UUID> teamIds = membershipIndex.teamsOf(userId).keySet();
+        List<TaskPermission> taskPermissions = teamIds.isEmpty()
+                ? taskPermissionRepository.findByTaskIdAndUserId(taskId, userId).stream().toList()
+                : taskPermissionRepository.findPermissionsOnTask(taskId, userId, teamIds);
         if (!taskPermissions.isEmpty()) {
             return taskPermissions.stream().anyMatch(p -> hasRequiredPermission(p.getPermission(), requiredPermission));
         }
@@ -295,6 +315,11 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     private ProjectPermissionResponseDTO toProjectPermissionResponseWithDetails(ProjectPermission permission) {
+        return toProjectPermissionResponseWithDetails(permission,
+                userCache.getUsersByIds(Arrays.asList(permission.getUserId(), permission.getGrantedBy())));
+    }
+
+    private ProjectPermissionResponseDTO toProjectPermissionResponseWithDetails(ProjectPermission permission, Map<UUID, User> users) {
         ProjectPermissionResponseDTO response = permissionMapper.toProjectPermissionResponse(permission);
         
         // Get project name
@@ -310,21 +335,26 @@ public class PermissionServiceImpl implements PermissionService {
         }
         
         // Get user name if applicable
-        if (permission.getUserId() != null) {
-            userRepository.findById(permission.getUserId()).ifPresent(user -> 
-                response.setUsername(user.getUsername())
-            );
+        User user = permission.getUserId() != null ? users.get(permission.getUserId()) : null;
+        if (user != null) {
+            response.setUsername(user.getUsername());
         }
         
         // Get granter name
-        userRepository.findById(permission.getGrantedBy()).ifPresent(user -> 
-            response.setGrantedByUsername(user.getUsername())
-        );
+        User grantedBy = users.get(permission.getGrantedBy());
+        if (grantedBy != null) {
+            response.setGrantedByUsername(grantedBy.getUsername());
+        }
         
         return response;
     }
 
     private TaskPermissionResponseDTO toTaskPermissionResponseWithDetails(TaskPermission permission) {
+        return toTaskPermissionResponseWithDetails(permission,
+                userCache.getUsersByIds(Arrays.asList(permission.getUserId(), permission.getGrantedBy())));
+    }
+
+    private TaskPermissionResponseDTO toTaskPermissionResponseWithDetails(TaskPermission permission, Map<UUID, User> users) {
         TaskPermissionResponseDTO response = permissionMapper.toTaskPermissionResponse(permission);
         
         // Get task title
@@ -340,16 +370,16 @@ public class PermissionServiceImpl implements PermissionService {
         }
         
         // Get user name if applicable
-        if (permission.getUserId() != null) {
-            userRepository.findById(permission.getUserId()).ifPresent(user -> 
-                response.setUsername(user.getUsername())
-            );
+        User user = permission.getUserId() != null ? users.get(permission.getUserId()) : null;
+        if (user != null) {
+            response.setUsername(user.getUsername());
         }
         
         // Get granter name
-        userRepository.findById(permission.getGrantedBy()).ifPresent(user -> 
-            response.setGrantedByUsername(user.getUsername())
-        );
+        User grantedBy = users.get(permission.getGrantedBy());
+        if (grantedBy != null) {
+            response.setGrantedByUsername(grantedBy.getUsername());
+        }
         
         return response;
     }
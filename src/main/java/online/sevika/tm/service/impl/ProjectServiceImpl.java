@@ -2,18 +2,25 @@ package online.sevika.tm.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.cache.TaskDueDateIndex;
+import online.sevika.tm.cache.UserCache;
 import online.sevika.tm.dto.ProjectRequestDTO;
 import online.sevika.tm.dto.ProjectResponseDTO;
 import online.sevika.tm.dto.ProjectUpdateRequestDTO;
 import online.sevika.tm.dto.ProjectSummaryDTO;
 import online.sevika.tm.entity.Project;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.entity.enums.AuditAction;
+import online.sevika.tm.entity.enums.EntityType;
+import online.sevika.tm.exception.PreconditionFailedException;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.exception.UnauthorizedException;
 import online.sevika.tm.mapper.ProjectMapper;
 import online.sevika.tm.repository.ProjectRepository;
-import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.service.AuditLogService;
+import online.sevika.tm.service.EntitlementService;
 import online.sevika.tm.service.ProjectService;
+import online.sevika.tm.util.ETags;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,17 +38,22 @@ import java.util.stream.Collectors;
 public class ProjectServiceImpl implements ProjectService {
 
     private final ProjectRepository projectRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ProjectMapper projectMapper;
+    private final TaskDueDateIndex taskDueDateIndex;
+    private final EntitlementService entitlementService;
+    private final AuditLogService auditLogService;
 
     @Override
     @Transactional
     public ProjectResponseDTO createProject(ProjectRequestDTO request, UUID ownerId) {
         log.info("Creating new project: {} for owner ID: {}", request.getName(), ownerId);
 
-        User owner = userRepository.findById(ownerId)
+        User owner = userCache.findById(ownerId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + ownerId));
 
+        entitlementService.acquireProject(ownerId);
+
         Project project = projectMapper.toEntity(request);
         project.setOwner(owner);
         project.setStatus(Project.ProjectStatus.ACTIVE);
@@ -49,7 +61,10 @@ public class ProjectServiceImpl implements ProjectService {
         Project savedProject = projectRepository.save(project);
         log.info("Project created successfully with ID: {}", savedProject.getId());
 
-        return projectMapper.toResponse(savedProject);
+        ProjectResponseDTO response = projectMapper.toResponse(savedProject);
+        auditLogService.recordActivity(EntityType.PROJECT, savedProject.getId().toString(), AuditAction.CREATED,
+                null, response, "Project created: " + savedProject.getName());
+        return response;
     }
 
     @Override
@@ -60,6 +75,18 @@ public class ProjectServiceImpl implements ProjectService {
         return projectMapper.toResponse(project);
     }
 
+    @Override
+    public String getProjectETag(UUID id) {
+        return projectRepository.findVersionById(id)
+                .map(ETags::forProject)
+                .orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + id));
+    }
+
+    @Override
+    public String getAllProjectsETag() {
+        return ETags.forCollection(projectRepository.findCollectionVersion());
+    }
+
     @Override
     public List<ProjectResponseDTO> getAllProjects() {
         log.debug("Fetching all projects");
@@ -79,12 +106,23 @@ public class ProjectServiceImpl implements ProjectService {
     @Override
     @Transactional
     public ProjectResponseDTO updateProject(UUID id, ProjectUpdateRequestDTO updateRequest, UUID userId) {
+        return updateProject(id, updateRequest, userId, null);
+    }
+
+    @Override
+    @Transactional
+    public ProjectResponseDTO updateProject(UUID id, ProjectUpdateRequestDTO updateRequest, UUID userId,
+                                            Long expectedVersion) {
         log.info("Updating project with ID: {}", id);
 
         Project project = projectRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + id));
 
-        User user = userRepository.findById(userId)
+        if (expectedVersion != null && !expectedVersion.equals(project.getVersion())) {
+            throw new PreconditionFailedException("Project has been modified since version " + expectedVersion);
+        }
+
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
         if (!project.getOwner().getId().equals(userId) && user.getRole() != User.Role.ADMIN) {
@@ -93,10 +131,15 @@ public class ProjectServiceImpl implements ProjectService {
 
         projectMapper.updateEntityFromDto(updateRequest, project);
 
+        // Flush so the response carries the incremented version and update time
         Project updatedProject = projectRepository.save(project);
+        projectRepository.flush();
         log.info("Project updated successfully with ID: {}", updatedProject.getId());
 
-        return projectMapper.toResponse(updatedProject);
+        ProjectResponseDTO response = projectMapper.toResponse(updatedProject);
+        auditLogService.recordActivity(EntityType.PROJECT, id.toString(), AuditAction.UPDATED,
+                updateRequest, response, "Project updated: " + updatedProject.getName());
+        return response;
     }
 
     @Override
@@ -107,7 +150,7 @@ public class ProjectServiceImpl implements ProjectService {
         Project project = projectRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + id));
 
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
         if (!project.getOwner().getId().equals(userId) && user.getRole() != User.Role.ADMIN) {
@@ -115,6 +158,10 @@ public class ProjectServiceImpl implements ProjectService {
         }
 
         projectRepository.deleteById(id);
+        taskDueDateIndex.onProjectDeleted(id);
+        entitlementService.releaseProject(project.getOwner().getId(), id);
+        auditLogService.recordActivity(EntityType.PROJECT, id.toString(), AuditAction.DELETED,
+                null, null, "Project deleted");
         log.info("Project deleted successfully with ID: {}", id);
     }
 }
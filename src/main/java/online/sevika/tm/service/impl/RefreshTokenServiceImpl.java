@@ -0,0 +1,104 @@
+package online.sevika.tm.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.entity.RefreshToken;
+import online.sevika.tm.exception.InvalidTokenException;
+import online.sevika.tm.repository.RefreshTokenRepository;
+import online.sevika.tm.service.RefreshTokenService;
+import online.sevika.tm.util.TokenHashing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Implementation of RefreshTokenService.
+ *
+ * Tokens are 256-bit random values handed to the client once; only their SHA-256 digest
+ * is stored. Every refresh consumes the presented token and issues a successor in the
+ * same family, so a replayed token exposes theft and revokes the family.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    @Override
+    @Transactional
+    public String issue(UUID userId) {
+        return save(userId, UUID.randomUUID(), LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken current = refreshTokenRepository.findByTokenHash(TokenHashing.sha256(refreshToken))
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+
+        if (current.getRevokedAt() != null || !current.getExpiresAt().isAfter(now)) {
+            throw new InvalidTokenException("Refresh token expired or revoked");
+        }
+
+        if (refreshTokenRepository.markRotated(current.getId(), now) == 0) {
+            // Already exchanged: either the client or a thief holds a copy, so end the whole session
+            log.warn("Refresh token reuse detected for user {}, revoking family {}", current.getUserId(), current.getFamilyId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new InvalidTokenException("Refresh token reuse detected, please log in again");
+        }
+
+        return new Rotation(current.getUserId(), save(current.getUserId(), current.getFamilyId(), now));
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(TokenHashing.sha256(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllForUser(UUID userId) {
+        int revoked = refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+        log.info("Revoked {} refresh tokens of user {}", revoked, userId);
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpiredTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired refresh tokens", deleted);
+        return deleted;
+    }
+
+    private String save(UUID userId, UUID familyId, LocalDateTime now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = ENCODER.encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .userId(userId)
+                .familyId(familyId)
+                .tokenHash(TokenHashing.sha256(token))
+                .createdAt(now)
+                .expiresAt(now.plusNanos(refreshExpiration * 1_000_000))
+                .build());
+        return token;
+    }
+}
@@ -8,6 +8,7 @@ import online.sevika.tm.entity.SubscriptionPlan;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.mapper.SubscriptionPlanMapper;
 import online.sevika.tm.repository.SubscriptionPlanRepository;
+import online.sevika.tm.service.EntitlementService;
 import online.sevika.tm.service.SubscriptionPlanService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +27,7 @@ public class SubscriptionPlanServiceImpl implements SubscriptionPlanService {
 
     private final SubscriptionPlanRepository subscriptionPlanRepository;
     private final SubscriptionPlanMapper subscriptionPlanMapper;
+    private final EntitlementService entitlementService;
 
     @Override
     @Transactional
@@ -84,6 +86,7 @@ public class SubscriptionPlanServiceImpl implements SubscriptionPlanService {
 
         subscriptionPlanMapper.updateEntityFromDto(request, plan);
         plan = subscriptionPlanRepository.save(plan);
+        entitlementService.evictAll();
 
         log.info("Subscription plan updated successfully with ID: {}", planId);
         return subscriptionPlanMapper.toResponse(plan);
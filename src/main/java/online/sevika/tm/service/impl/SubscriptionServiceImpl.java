@@ -5,14 +5,19 @@ import online.sevika.tm.dto.RazorpayOrderResponseDTO;
 import online.sevika.tm.dto.SubscriptionRequestDTO;
 import online.sevika.tm.dto.SubscriptionResponseDTO;
 
-import com.razorpay.Order;
-import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.cache.ActiveSubscriptionCache;
+import online.sevika.tm.cache.UserCache;
 import online.sevika.tm.entity.Payment;
 import online.sevika.tm.entity.Subscription;
 import online.sevika.tm.entity.SubscriptionPlan;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.entity.enums.AuditAction;
+import online.sevika.tm.entity.enums.EntityType;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.exception.UnauthorizedException;
 import online.sevika.tm.mapper.PaymentMapper;
@@ -20,15 +25,19 @@ import online.sevika.tm.mapper.SubscriptionMapper;
 import online.sevika.tm.repository.PaymentRepository;
 import online.sevika.tm.repository.SubscriptionPlanRepository;
 import online.sevika.tm.repository.SubscriptionRepository;
-import online.sevika.tm.repository.UserRepository;
-import online.sevika.tm.service.RazorpayService;
+import online.sevika.tm.repository.projection.ExpiredSubscriptionView;
+import online.sevika.tm.service.AuditLogService;
+import online.sevika.tm.service.EntitlementService;
+import online.sevika.tm.service.PaymentGateway;
 import online.sevika.tm.service.SubscriptionService;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -42,76 +51,58 @@ public class SubscriptionServiceImpl implements SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
     private final SubscriptionPlanRepository subscriptionPlanRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final PaymentRepository paymentRepository;
     private final SubscriptionMapper subscriptionMapper;
     private final PaymentMapper paymentMapper;
-    private final RazorpayService razorpayService;
+    private final PaymentGateway paymentGateway;
+    private final EntitlementService entitlementService;
+    private final ActiveSubscriptionCache activeSubscriptionCache;
+    private final AuditLogService auditLogService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Subscriptions expired per statement by the expiry job
+     */
+    @Value("${app.subscriptions.expiry-batch-size:500}")
+    private int expiryBatchSize;
 
     @Override
-    @Transactional
     public RazorpayOrderResponseDTO createSubscription(SubscriptionRequestDTO request, UUID userId) {
         log.info("Creating subscription for user: {} with plan: {}", userId, request.getPlanId());
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
-
-        SubscriptionPlan plan = subscriptionPlanRepository.findById(request.getPlanId())
-                .orElseThrow(() -> new ResourceNotFoundException("Subscription plan not found with ID: " + request.getPlanId()));
+        // The pending subscription and payment commit before the gateway is called, so a slow
+        // gateway never holds a pooled connection; if the order can't be created they are failed
+        Payment payment = transactionTemplate.execute(status -> reservePayment(request, userId));
+        Subscription subscription = payment.getSubscription();
+        SubscriptionPlan plan = subscription.getPlan();
+        User user = payment.getUser();
 
-        if (!plan.getActive()) {
-            throw new IllegalArgumentException("This subscription plan is no longer available");
+        PaymentGateway.GatewayOrder order;
+        try {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            order = paymentGateway.createOrder(plan.getPrice(), "INR", "SUB_" + subscription.getId());
+            sample.stop(meterRegistry.timer("payments.gateway.create-order"));
+            transactionTemplate.executeWithoutResult(status -> paymentRepository.attachOrder(payment.getId(), order.id()));
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> releasePayment(payment.getId(), e));
+            throw e;
         }
 
-        // Calculate subscription period
-        LocalDateTime startDate = LocalDateTime.now();
-        LocalDateTime endDate = calculateEndDate(startDate, plan.getBillingCycle());
-
-        // Create subscription in pending state
-        Subscription subscription = Subscription.builder()
-                .user(user)
-                .plan(plan)
-                .status(Subscription.SubscriptionStatus.TRIAL)
-                .startDate(startDate)
-                .endDate(endDate)
-                .autoRenew(request.getAutoRenew())
+        log.info("Payment order {} created for subscription: {}", order.id(), subscription.getId());
+
+        return RazorpayOrderResponseDTO.builder()
+                .orderId(order.id())
+                .amount(String.valueOf(order.amount()))
+                .currency(order.currency())
+                .key(paymentGateway.getKeyId())
+                .name("Sevika Task Management")
+                .description(plan.getName() + " - " + plan.getBillingCycle())
+                .prefillName(user.getFirstName() + " " + user.getLastName())
+                .prefillEmail(user.getEmail())
+                .subscriptionId(subscription.getId())
                 .build();
-        subscription = subscriptionRepository.save(subscription);
-
-        try {
-            // Create Razorpay order
-            String receipt = "SUB_" + subscription.getId().toString();
-            Order razorpayOrder = razorpayService.createOrder(plan.getPrice(), "INR", receipt);
-
-            // Create payment record
-            Payment payment = Payment.builder()
-                    .user(user)
-                    .subscription(subscription)
-                    .amount(plan.getPrice())
-                    .currency("INR")
-                    .status(Payment.PaymentStatus.PENDING)
-                    .razorpayOrderId(razorpayOrder.get("id"))
-                    .build();
-            paymentRepository.save(payment);
-
-            log.info("Razorpay order created for subscription: {}", subscription.getId());
-
-            return RazorpayOrderResponseDTO.builder()
-                    .orderId(razorpayOrder.get("id"))
-                    .amount(razorpayOrder.get("amount").toString())
-                    .currency(razorpayOrder.get("currency"))
-                    .key(razorpayService.getKeyId())
-                    .name("Sevika Task Management")
-                    .description(plan.getName() + " - " + plan.getBillingCycle())
-                    .prefillName(user.getFirstName() + " " + user.getLastName())
-                    .prefillEmail(user.getEmail())
-                    .subscriptionId(subscription.getId())
-                    .build();
-
-        } catch (RazorpayException e) {
-            log.error("Error creating Razorpay order: {}", e.getMessage());
-            throw new RuntimeException("Failed to create payment order: " + e.getMessage());
-        }
     }
 
     @Override
@@ -126,7 +117,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found for order: " + request.getRazorpayOrderId()));
 
         // Verify signature
-        boolean isValidSignature = razorpayService.verifyPaymentSignature(
+        boolean isValidSignature = paymentGateway.verifyPaymentSignature(
                 request.getRazorpayOrderId(),
                 request.getRazorpayPaymentId(),
                 request.getRazorpaySignature()
@@ -149,6 +140,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         // Activate subscription
         subscription.setStatus(Subscription.SubscriptionStatus.ACTIVE);
         subscription = subscriptionRepository.save(subscription);
+        entitlementService.evict(subscription.getUser().getId());
 
         log.info("Subscription activated successfully: {}", subscription.getId());
         return subscriptionMapper.toResponse(subscription);
@@ -159,14 +151,18 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     public SubscriptionResponseDTO getActiveSubscription(UUID userId) {
         log.info("Fetching active subscription for user: {}", userId);
 
-        Subscription subscription = subscriptionRepository.findActiveSubscriptionByUserId(userId)
-                .orElse(null);
-
-        if (subscription == null) {
+        Optional<ActiveSubscriptionCache.ActiveSubscription> active = activeSubscriptionCache.get(userId);
+        if (active.isEmpty()) {
             return null;
         }
 
-        return subscriptionMapper.toResponse(subscription);
+        // The response carries the full subscription, so it is read by ID rather than from the snapshot
+        Optional<Subscription> current = findIfActive(active.get());
+        if (current.isEmpty()) {
+            // Changed on another instance since it was cached; a newer subscription may have taken over
+            current = activeSubscriptionCache.reload(userId).flatMap(this::findIfActive);
+        }
+        return current.map(subscriptionMapper::toResponse).orElse(null);
     }
 
     @Override
@@ -191,9 +187,13 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             throw new UnauthorizedException("You don't have permission to cancel this subscription");
         }
 
+        Subscription.SubscriptionStatus previousStatus = subscription.getStatus();
         subscription.setStatus(Subscription.SubscriptionStatus.CANCELLED);
         subscription.setAutoRenew(false);
         subscriptionRepository.save(subscription);
+        entitlementService.evict(userId);
+        auditLogService.recordActivity(EntityType.SUBSCRIPTION, subscriptionId.toString(), AuditAction.STATUS_CHANGED,
+                previousStatus.name(), Subscription.SubscriptionStatus.CANCELLED.name(), "Subscription cancelled");
 
         log.info("Subscription cancelled successfully: {}", subscriptionId);
     }
@@ -220,20 +220,98 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     }
 
     @Override
-    @Transactional
-    @Scheduled(cron = "0 0 * * * *") // Run every hour
-    public void updateExpiredSubscriptions() {
+    public int updateExpiredSubscriptions() {
         log.info("Running scheduled task to update expired subscriptions");
 
-        List<Subscription> expiredSubscriptions = subscriptionRepository.findExpiredActiveSubscriptions(LocalDateTime.now());
-        
-        for (Subscription subscription : expiredSubscriptions) {
-            subscription.setStatus(Subscription.SubscriptionStatus.EXPIRED);
-            subscriptionRepository.save(subscription);
-            log.info("Subscription expired: {}", subscription.getId());
+        LocalDateTime now = LocalDateTime.now();
+        Timer batchTimer = meterRegistry.timer("subscriptions.expiry.batch");
+        Counter expiredCounter = meterRegistry.counter("subscriptions.expired");
+        int total = 0;
+        int batches = 0;
+        int expired;
+        do {
+            // Each batch commits on its own, so locks are short and a failure keeps earlier batches
+            Timer.Sample sample = Timer.start(meterRegistry);
+            expired = transactionTemplate.execute(status -> expireBatch(now));
+            sample.stop(batchTimer);
+            expiredCounter.increment(expired);
+            total += expired;
+            batches++;
+        } while (expired == expiryBatchSize);
+
+        log.info("Updated {} expired subscriptions in {} batches", total, batches);
+        return total;
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<ExpiredSubscriptionView> expired = subscriptionRepository.expireLapsedBatch(now, expiryBatchSize);
+        for (ExpiredSubscriptionView subscription : expired) {
+            // Published in the batch transaction, so an entry exists exactly when the expiry commits
+            auditLogService.recordActivity(EntityType.SUBSCRIPTION, subscription.getId().toString(),
+                    AuditAction.STATUS_CHANGED, Subscription.SubscriptionStatus.ACTIVE.name(),
+                    Subscription.SubscriptionStatus.EXPIRED.name(), "Subscription expired");
+            entitlementService.evict(subscription.getUserId());
+        }
+        return expired.size();
+    }
+
+    private Payment reservePayment(SubscriptionRequestDTO request, UUID userId) {
+        User user = userCache.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+
+        SubscriptionPlan plan = subscriptionPlanRepository.findById(request.getPlanId())
+                .orElseThrow(() -> new ResourceNotFoundException("Subscription plan not found with ID: " + request.getPlanId()));
+
+        if (!plan.getActive()) {
+            throw new IllegalArgumentException("This subscription plan is no longer available");
         }
 
-        log.info("Updated {} expired subscriptions", expiredSubscriptions.size());
+        // Calculate subscription period
+        LocalDateTime startDate = LocalDateTime.now();
+        LocalDateTime endDate = calculateEndDate(startDate, plan.getBillingCycle());
+
+        // Create subscription in pending state
+        Subscription subscription = Subscription.builder()
+                .user(user)
+                .plan(plan)
+                .status(Subscription.SubscriptionStatus.TRIAL)
+                .startDate(startDate)
+                .endDate(endDate)
+                .autoRenew(request.getAutoRenew())
+                .build();
+        subscription = subscriptionRepository.save(subscription);
+        entitlementService.evict(userId);
+        auditLogService.recordActivity(EntityType.SUBSCRIPTION, subscription.getId().toString(), AuditAction.CREATED,
+                null, subscriptionMapper.toResponse(subscription), "Subscription created");
+
+        // The gateway order ID is attached once the order exists
+        Payment payment = Payment.builder()
+                .user(user)
+                .subscription(subscription)
+                .amount(plan.getPrice())
+                .currency("INR")
+                .status(Payment.PaymentStatus.PENDING)
+                .build();
+        return paymentRepository.save(payment);
+    }
+
+    private void releasePayment(UUID paymentId, RuntimeException cause) {
+        paymentRepository.findById(paymentId).ifPresent(payment -> {
+            payment.setStatus(Payment.PaymentStatus.FAILED);
+            payment.setFailureReason("Payment order could not be created");
+            paymentRepository.save(payment);
+
+            Subscription subscription = payment.getSubscription();
+            subscription.setStatus(Subscription.SubscriptionStatus.CANCELLED);
+            subscription.setAutoRenew(false);
+            subscriptionRepository.save(subscription);
+            entitlementService.evict(payment.getUser().getId());
+            log.warn("Cancelled subscription {} after payment order failure: {}", subscription.getId(), cause.getMessage());
+        });
+    }
+
+    private Optional<Subscription> findIfActive(ActiveSubscriptionCache.ActiveSubscription snapshot) {
+        return subscriptionRepository.findById(snapshot.subscriptionId()).filter(Subscription::isActive);
     }
 
     private LocalDateTime calculateEndDate(LocalDateTime startDate, SubscriptionPlan.BillingCycle billingCycle) {
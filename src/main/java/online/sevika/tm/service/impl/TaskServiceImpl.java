@@ -1,26 +1,53 @@
 package online.sevika.tm.service.impl;
+import online.sevika.tm.dto.TaskBoardColumnDTO;
+import online.sevika.tm.dto.TaskBoardDTO;
+import online.sevika.tm.dto.TaskDueBucketsDTO;
 import online.sevika.tm.dto.TaskRequestDTO;
 import online.sevika.tm.dto.TaskResponseDTO;
+import online.sevika.tm.dto.TaskSummaryDTO;
 import online.sevika.tm.dto.TaskUpdateRequestDTO;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.cache.TaskDueDateIndex;
+import online.sevika.tm.cache.UserCache;
 import online.sevika.tm.entity.Project;
 import online.sevika.tm.entity.Task;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.entity.enums.AuditAction;
+import online.sevika.tm.entity.enums.EntityType;
+import online.sevika.tm.exception.PreconditionFailedException;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.exception.UnauthorizedException;
 import online.sevika.tm.mapper.TaskMapper;
 import online.sevika.tm.repository.ProjectRepository;
 import online.sevika.tm.repository.TaskRepository;
-import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.repository.projection.TaskBoardCardView;
+import online.sevika.tm.repository.projection.TaskStatusUpdateView;
+import online.sevika.tm.repository.projection.TaskVersionView;
+import online.sevika.tm.service.AuditLogService;
+import online.sevika.tm.service.EntitlementService;
 import online.sevika.tm.service.TaskService;
+import online.sevika.tm.util.ETags;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -32,10 +59,22 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class TaskServiceImpl implements TaskService {
 
+    private static final Pattern SEARCH_TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_SEARCH_TERMS = 8;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_BOARD_COLUMN_SIZE = 100;
+    private static final LocalDate BOARD_NO_DUE_DATE = LocalDate.of(9999, 12, 31);
+    private static final int MAX_DUE_SOON_DAYS = 90;
+    private static final int MAX_DUE_LIST_SIZE = 500;
+    private static final int DETAILS_BATCH_SIZE = 500;
+
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final TaskMapper taskMapper;
+    private final TaskDueDateIndex taskDueDateIndex;
+    private final EntitlementService entitlementService;
+    private final AuditLogService auditLogService;
 
     @Override
     @Transactional
@@ -45,23 +84,29 @@ public class TaskServiceImpl implements TaskService {
         Project project = projectRepository.findById(request.getProjectId())
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + request.getProjectId()));
 
-        User createdBy = userRepository.findById(createdById)
+        User createdBy = userCache.findById(createdById)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + createdById));
 
+        entitlementService.acquireTask(project.getId(), project.getOwner().getId());
+
         Task task = taskMapper.toEntity(request);
         task.setProject(project);
         task.setCreatedBy(createdBy);
 
         if (request.getAssignedToId() != null) {
-            User assignedTo = userRepository.findById(request.getAssignedToId())
+            User assignedTo = userCache.findById(request.getAssignedToId())
                     .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + request.getAssignedToId()));
             task.setAssignedTo(assignedTo);
         }
 
         Task savedTask = taskRepository.save(task);
+        taskDueDateIndex.onTaskSaved(savedTask);
         log.info("Task created successfully with ID: {}", savedTask.getId());
 
-        return taskMapper.toResponse(savedTask);
+        TaskResponseDTO response = taskMapper.toResponse(savedTask);
+        auditLogService.recordActivity(EntityType.TASK, savedTask.getId().toString(), AuditAction.CREATED,
+                null, response, "Task created: " + savedTask.getTitle());
+        return response;
     }
 
     @Override
@@ -72,6 +117,18 @@ public class TaskServiceImpl implements TaskService {
         return taskMapper.toResponse(task);
     }
 
+    @Override
+    public String getTaskETag(UUID id) {
+        return taskRepository.findVersionById(id)
+                .map(ETags::forTask)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
+    }
+
+    @Override
+    public String getTasksByProjectETag(UUID projectId) {
+        return ETags.forCollection(taskRepository.findCollectionVersionByProjectId(projectId));
+    }
+
     @Override
     public List<TaskResponseDTO> getAllTasks(UUID projectId, UUID assignedToId, 
                                                Task.TaskStatus status, Task.TaskPriority priority) {
@@ -81,6 +138,37 @@ public class TaskServiceImpl implements TaskService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<TaskResponseDTO> searchTasks(String query, UUID projectId, UUID assignedToId,
+                                             Task.TaskStatus status, Task.TaskPriority priority,
+                                             UUID userId, int page, int size) {
+        log.debug("Searching tasks for user ID: {} with query: {}", userId, query);
+
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return List.of();
+        }
+
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        int offset = Math.max(0, page) * limit;
+
+        List<UUID> rankedIds = taskRepository.searchTaskIds(
+                tsQuery,
+                projectId != null ? projectId.toString() : null,
+                assignedToId != null ? assignedToId.toString() : null,
+                status != null ? status.name() : null,
+                priority != null ? priority.name() : null,
+                userId,
+                limit,
+                offset);
+
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        return findTasksInOrder(rankedIds);
+    }
+
     @Override
     public List<TaskResponseDTO> getTasksByProject(UUID projectId) {
         log.debug("Fetching tasks for project ID: {}", projectId);
@@ -89,6 +177,51 @@ public class TaskServiceImpl implements TaskService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public TaskBoardDTO getTaskBoard(UUID projectId, int limit) {
+        log.debug("Fetching board for project ID: {}", projectId);
+
+        if (!projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Project not found with ID: " + projectId);
+        }
+
+        int columnSize = clampBoardColumnSize(limit);
+        Map<String, List<TaskBoardCardView>> cardsByStatus = taskRepository.findBoardCards(projectId, columnSize).stream()
+                .collect(Collectors.groupingBy(TaskBoardCardView::getStatus));
+
+        // Every status gets a column, even when it has no tasks
+        List<TaskBoardColumnDTO> columns = new ArrayList<>();
+        for (Task.TaskStatus status : Task.TaskStatus.values()) {
+            List<TaskBoardCardView> cards = cardsByStatus.getOrDefault(status.name(), List.of());
+            long totalCount = cards.isEmpty() ? 0 : cards.get(0).getColumnCount();
+            columns.add(toBoardColumn(status, totalCount, cards, totalCount > cards.size()));
+        }
+
+        return TaskBoardDTO.builder()
+                .projectId(projectId)
+                .columns(columns)
+                .build();
+    }
+
+    @Override
+    public TaskBoardColumnDTO getTaskBoardColumn(UUID projectId, Task.TaskStatus status, String cursor, int limit) {
+        log.debug("Fetching board column {} for project ID: {}", status, projectId);
+
+        if (!projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Project not found with ID: " + projectId);
+        }
+
+        BoardCursor after = decodeBoardCursor(cursor);
+        int columnSize = clampBoardColumnSize(limit);
+
+        // Fetch one extra card to know whether another page exists
+        List<TaskBoardCardView> cards = taskRepository.findBoardCardsAfter(
+                projectId, status.name(), after.priorityRank(), after.dueDate(), after.id(), columnSize + 1);
+        boolean hasMore = cards.size() > columnSize;
+
+        return toBoardColumn(status, null, hasMore ? cards.subList(0, columnSize) : cards, hasMore);
+    }
+
     @Override
     public List<TaskResponseDTO> getTasksAssignedToUser(UUID userId) {
         log.debug("Fetching tasks assigned to user ID: {}", userId);
@@ -100,12 +233,22 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional
     public TaskResponseDTO updateTask(UUID id, TaskUpdateRequestDTO updateRequest, UUID userId) {
+        return updateTask(id, updateRequest, userId, null);
+    }
+
+    @Override
+    @Transactional
+    public TaskResponseDTO updateTask(UUID id, TaskUpdateRequestDTO updateRequest, UUID userId, Long expectedVersion) {
         log.info("Updating task with ID: {}", id);
 
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
 
-        User user = userRepository.findById(userId)
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new PreconditionFailedException("Task has been modified since version " + expectedVersion);
+        }
+
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
         validateTaskAccess(task, user);
@@ -113,36 +256,45 @@ public class TaskServiceImpl implements TaskService {
         taskMapper.updateEntityFromDto(updateRequest, task);
 
         if (updateRequest.getAssignedToId() != null) {
-            User assignedTo = userRepository.findById(updateRequest.getAssignedToId())
+            User assignedTo = userCache.findById(updateRequest.getAssignedToId())
                     .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + updateRequest.getAssignedToId()));
             task.setAssignedTo(assignedTo);
         }
 
+        // Flush so the response carries the incremented version and update time
         Task updatedTask = taskRepository.save(task);
+        taskRepository.flush();
+        taskDueDateIndex.onTaskSaved(updatedTask);
         log.info("Task updated successfully with ID: {}", updatedTask.getId());
 
-        return taskMapper.toResponse(updatedTask);
+        TaskResponseDTO response = taskMapper.toResponse(updatedTask);
+        auditLogService.recordActivity(EntityType.TASK, id.toString(), AuditAction.UPDATED,
+                updateRequest, response, "Task updated: " + updatedTask.getTitle());
+        return response;
     }
 
     @Override
     @Transactional
     public TaskResponseDTO updateTaskStatus(UUID id, Task.TaskStatus status, UUID userId) {
-        log.info("Updating task status for task ID: {} to {}", id, status);
-
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        return updateTaskStatus(id, status, userId, null);
+    }
 
-        validateTaskAccess(task, user);
+    @Override
+    @Transactional
+    public TaskResponseDTO updateTaskStatus(UUID id, Task.TaskStatus status, UUID userId, Long expectedVersion) {
+        log.info("Updating task status for task ID: {} to {}", id, status);
 
-        task.setStatus(status);
+        // Access check, version guard, update and reload happen in a single statement
+        TaskStatusUpdateView updated = taskRepository.updateStatusIfPermitted(
+                        id, status.name(), LocalDateTime.now(), userId, expectedVersion != null ? expectedVersion : -1L)
+                .orElseThrow(() -> statusUpdateRejection(id, expectedVersion));
 
-        Task updatedTask = taskRepository.save(task);
+        taskDueDateIndex.onTaskSaved(id, updated.getProjectId(), updated.getAssignedToId(), updated.getDueDate(), status);
+        auditLogService.recordActivity(EntityType.TASK, id.toString(), AuditAction.STATUS_CHANGED,
+                null, status.name(), "Task status changed to: " + status.name());
         log.info("Task status updated successfully");
 
-        return taskMapper.toResponse(updatedTask);
+        return taskMapper.toResponse(updated);
     }
 
     @Override
@@ -153,23 +305,177 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
 
-        User user = userRepository.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
         validateTaskAccess(task, user);
 
         taskRepository.deleteById(id);
+        taskDueDateIndex.onTaskDeleted(id);
+        entitlementService.releaseTask(task.getProject().getId());
+        auditLogService.recordActivity(EntityType.TASK, id.toString(), AuditAction.DELETED,
+                null, null, "Task deleted");
         log.info("Task deleted successfully with ID: {}", id);
     }
 
     @Override
-    public List<TaskResponseDTO> getOverdueTasks() {
-        log.debug("Fetching overdue tasks");
-        return taskRepository.findOverdueTasks(LocalDate.now()).stream()
+    public List<TaskResponseDTO> getOverdueTasks(int limit) {
+        log.debug("Fetching up to {} overdue tasks", limit);
+        return findTasksInOrder(taskDueDateIndex.overdue(LocalDate.now(), clampDueListSize(limit)));
+    }
+
+    @Override
+    public List<TaskResponseDTO> getTasksDueSoon(int days, int limit) {
+        log.debug("Fetching up to {} tasks due within {} days", limit, days);
+        int window = Math.max(0, Math.min(days, MAX_DUE_SOON_DAYS));
+        return findTasksInOrder(taskDueDateIndex.dueWithin(LocalDate.now(), window, clampDueListSize(limit)));
+    }
+
+    @Override
+    public TaskDueBucketsDTO getDueTasksForUser(UUID userId) {
+        log.debug("Fetching due tasks for user ID: {}", userId);
+        return toDueBuckets(taskDueDateIndex.bucketsForAssignee(userId, LocalDate.now()));
+    }
+
+    @Override
+    public TaskDueBucketsDTO getDueTasksForProject(UUID projectId) {
+        log.debug("Fetching due tasks for project ID: {}", projectId);
+
+        if (!projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Project not found with ID: " + projectId);
+        }
+
+        return toDueBuckets(taskDueDateIndex.bucketsForProject(projectId, LocalDate.now()));
+    }
+
+    private TaskDueBucketsDTO toDueBuckets(TaskDueDateIndex.DueBuckets buckets) {
+        List<UUID> ids = new ArrayList<>(buckets.overdue());
+        ids.addAll(buckets.dueToday());
+        ids.addAll(buckets.dueThisWeek());
+        Map<UUID, TaskResponseDTO> tasksById = findTasksInOrder(ids).stream()
+                .collect(Collectors.toMap(TaskResponseDTO::getId, Function.identity()));
+
+        return TaskDueBucketsDTO.builder()
+                .overdue(pick(buckets.overdue(), tasksById))
+                .dueToday(pick(buckets.dueToday(), tasksById))
+                .dueThisWeek(pick(buckets.dueThisWeek(), tasksById))
+                .build();
+    }
+
+    private static List<TaskResponseDTO> pick(List<UUID> ids, Map<UUID, TaskResponseDTO> tasksById) {
+        return ids.stream()
+                .map(tasksById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Load tasks in fixed-size batches and return them in the order of the given IDs
+     */
+    private List<TaskResponseDTO> findTasksInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Each ID is a bind parameter, so batches keep statements well below the driver's limit
+        Map<UUID, Task> tasksById = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += DETAILS_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + DETAILS_BATCH_SIZE, ids.size()));
+            taskRepository.findAllWithDetailsByIdIn(batch).forEach(task -> tasksById.put(task.getId(), task));
+        }
+
+        return ids.stream()
+                .map(tasksById::get)
+                .filter(Objects::nonNull)
                 .map(taskMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Build a prefix-matching tsquery from free text, e.g. "fix log" becomes "fix:* & log:*"
+     */
+    static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return Arrays.stream(SEARCH_TERM_SEPARATOR.split(query.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private TaskBoardColumnDTO toBoardColumn(Task.TaskStatus status, Long totalCount,
+                                             List<TaskBoardCardView> cards, boolean hasMore) {
+        String nextCursor = hasMore && !cards.isEmpty() ? encodeBoardCursor(cards.get(cards.size() - 1)) : null;
+        return TaskBoardColumnDTO.builder()
+                .status(status)
+                .totalCount(totalCount)
+                .cards(cards.stream().map(this::toBoardCard).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private TaskSummaryDTO toBoardCard(TaskBoardCardView card) {
+        return TaskSummaryDTO.builder()
+                .id(card.getId())
+                .title(card.getTitle())
+                .status(Task.TaskStatus.valueOf(card.getStatus()))
+                .priority(Task.TaskPriority.valueOf(card.getPriority()))
+                .dueDate(card.getDueDate())
+                .build();
+    }
+
+    private static int clampDueListSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_DUE_LIST_SIZE));
+    }
+
+    private static int clampBoardColumnSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_BOARD_COLUMN_SIZE));
+    }
+
+    /**
+     * Opaque keyset cursor of the last card on a page: "priorityRank|dueDate|id", base64url encoded
+     */
+    static String encodeBoardCursor(TaskBoardCardView card) {
+        LocalDate dueDate = card.getDueDate() != null ? card.getDueDate() : BOARD_NO_DUE_DATE;
+        String raw = card.getPriorityRank() + "|" + dueDate + "|" + card.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static BoardCursor decodeBoardCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            throw new IllegalArgumentException("Board cursor is required");
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid board cursor");
+            }
+            return new BoardCursor(Integer.parseInt(parts[0]), LocalDate.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid board cursor");
+        }
+    }
+
+    record BoardCursor(int priorityRank, LocalDate dueDate, UUID id) {
+    }
+
+    /**
+     * Explain why the status update matched no row: missing task, stale version or no access
+     */
+    private RuntimeException statusUpdateRejection(UUID id, Long expectedVersion) {
+        Optional<TaskVersionView> current = taskRepository.findVersionById(id);
+        if (current.isEmpty()) {
+            return new ResourceNotFoundException("Task not found with ID: " + id);
+        }
+        if (expectedVersion != null && !expectedVersion.equals(current.get().getVersion())) {
+            return new PreconditionFailedException("Task has been modified since version " + expectedVersion);
+        }
+        return new UnauthorizedException("You don't have permission to modify this task");
+    }
+
     /**
      * Validate if user has access to modify the task
      */
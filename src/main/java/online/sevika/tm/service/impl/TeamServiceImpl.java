@@ -1,4 +1,6 @@
 package online.sevika.tm.service.impl;
+import online.sevika.tm.dto.TeamMemberBulkRequestDTO;
+import online.sevika.tm.dto.TeamMemberBulkResultDTO;
 import online.sevika.tm.dto.TeamMemberRequestDTO;
 import online.sevika.tm.dto.TeamMemberResponseDTO;
 import online.sevika.tm.dto.TeamRequestDTO;
@@ -6,23 +8,31 @@ import online.sevika.tm.dto.TeamResponseDTO;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.cache.TeamMembershipIndex;
+import online.sevika.tm.cache.UserCache;
 import online.sevika.tm.entity.Team;
 import online.sevika.tm.entity.TeamMember;
 import online.sevika.tm.entity.User;
 import online.sevika.tm.entity.enums.TeamRole;
+import online.sevika.tm.exception.QuotaExceededException;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.exception.UnauthorizedException;
 import online.sevika.tm.mapper.TeamMapper;
 import online.sevika.tm.mapper.TeamMemberMapper;
 import online.sevika.tm.repository.TeamMemberRepository;
 import online.sevika.tm.repository.TeamRepository;
-import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.service.EntitlementService;
 import online.sevika.tm.service.TeamService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -37,9 +47,11 @@ public class TeamServiceImpl implements TeamService {
 
     private final TeamRepository teamRepository;
     private final TeamMemberRepository teamMemberRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final TeamMembershipIndex membershipIndex;
     private final TeamMapper teamMapper;
     private final TeamMemberMapper teamMemberMapper;
+    private final EntitlementService entitlementService;
 
     @Override
     public TeamResponseDTO createTeam(TeamRequestDTO request, UUID ownerId) {
@@ -51,13 +63,14 @@ public class TeamServiceImpl implements TeamService {
         }
 
         // Verify owner exists
-        User owner = userRepository.findById(ownerId)
+        User owner = userCache.findById(ownerId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + ownerId));
 
         // Create team
         Team team = teamMapper.toEntity(request);
         team.setId(UUID.randomUUID());
         team.setOwnerId(ownerId);
+        team.setMemberCount(1);
         team.setCreatedAt(LocalDateTime.now());
         team.setUpdatedAt(LocalDateTime.now());
         team = teamRepository.save(team);
@@ -70,8 +83,9 @@ public class TeamServiceImpl implements TeamService {
         ownerMember.setRole(TeamRole.OWNER);
         ownerMember.setJoinedAt(LocalDateTime.now());
         teamMemberRepository.save(ownerMember);
+        membershipIndex.invalidateMembership(team.getId(), ownerId);
 
-        return toResponseWithDetails(team);
+        return toResponseWithDetails(team, owner);
     }
 
     @Override
@@ -119,6 +133,7 @@ public class TeamServiceImpl implements TeamService {
             throw new UnauthorizedException("Only team owner can delete the team");
         }
 
+        membershipIndex.invalidateTeam(teamId);
         teamRepository.delete(team);
     }
 
@@ -126,18 +141,14 @@ public class TeamServiceImpl implements TeamService {
     @Transactional(readOnly = true)
     public List<TeamResponseDTO> getTeamsOwnedByUser(UUID userId) {
         log.info("Fetching teams owned by user: {}", userId);
-        return teamRepository.findByOwnerId(userId).stream()
-                .map(this::toResponseWithDetails)
-                .collect(Collectors.toList());
+        return toResponsesWithDetails(teamRepository.findByOwnerId(userId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TeamResponseDTO> getTeamsForUser(UUID userId) {
         log.info("Fetching teams for user: {}", userId);
-        return teamRepository.findTeamsByUserId(userId).stream()
-                .map(this::toResponseWithDetails)
-                .collect(Collectors.toList());
+        return toResponsesWithDetails(teamRepository.findTeamsByUserId(userId));
     }
 
     @Override
@@ -152,15 +163,25 @@ public class TeamServiceImpl implements TeamService {
             throw new UnauthorizedException("Only team owner or admin can add members");
         }
 
+        // Reject a full team from the stored count and the owner's cached plan limit before any more queries
+        int memberLimit = memberLimit(team);
+        if (team.getMemberCount() >= memberLimit) {
+            throw new QuotaExceededException("Team has reached the member limit of its owner's plan");
+        }
+
         // Check if member already exists
         if (teamMemberRepository.existsByTeamIdAndUserId(teamId, request.getUserId())) {
             throw new IllegalArgumentException("User is already a member of this team");
         }
 
         // Verify user exists
-        User user = userRepository.findById(request.getUserId())
+        User user = userCache.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + request.getUserId()));
 
+        // Count the member and enforce the owner's plan limit in one statement
+        teamRepository.incrementMemberCount(teamId, memberLimit)
+                .orElseThrow(() -> new QuotaExceededException("Team has reached the member limit of its owner's plan"));
+
         // Create team member
         TeamMember teamMember = new TeamMember();
         teamMember.setId(UUID.randomUUID());
@@ -169,8 +190,65 @@ public class TeamServiceImpl implements TeamService {
         teamMember.setRole(request.getRole());
         teamMember.setJoinedAt(LocalDateTime.now());
         teamMember = teamMemberRepository.save(teamMember);
+        membershipIndex.invalidateMembership(teamId, request.getUserId());
+
+        return toMemberResponseWithDetails(teamMember, team, user);
+    }
+
+    @Override
+    public TeamMemberBulkResultDTO addTeamMembers(UUID teamId, TeamMemberBulkRequestDTO request, UUID addedBy) {
+        Set<UUID> requested = new LinkedHashSet<>(request.getUserIds());
+        log.info("Adding {} members to team: {} by user: {}", requested.size(), teamId, addedBy);
+
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + teamId));
+
+        // Check if user is team admin or owner
+        if (!isTeamAdminOrOwner(teamId, addedBy)) {
+            throw new UnauthorizedException("Only team owner or admin can add members");
+        }
+
+        // Validate all users, and find the existing members, with one query each
+        Set<UUID> existingUsers = userCache.getUsersByIds(requested).keySet();
+        Set<UUID> existingMembers = new HashSet<>(teamMemberRepository.findMemberUserIds(teamId, requested));
+
+        List<UUID> notFound = new ArrayList<>();
+        List<UUID> alreadyMembers = new ArrayList<>();
+        List<TeamMember> toInsert = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (UUID userId : requested) {
+            if (!existingUsers.contains(userId)) {
+                notFound.add(userId);
+            } else if (existingMembers.contains(userId)) {
+                alreadyMembers.add(userId);
+            } else {
+                toInsert.add(TeamMember.builder()
+                        .id(UUID.randomUUID())
+                        .teamId(teamId)
+                        .userId(userId)
+                        .role(request.getRole())
+                        .joinedAt(now)
+                        .build());
+            }
+        }
 
-        return toMemberResponseWithDetails(teamMember);
+        // Rows added concurrently since the check are skipped, so count what was actually inserted
+        int added = toInsert.isEmpty() ? 0 : teamMemberRepository.insertAllIgnoringExisting(toInsert);
+        if (added > 0) {
+            // Count the new members and enforce the owner's plan limit; on failure the inserts roll back
+            teamRepository.addToMemberCount(teamId, added, memberLimit(team))
+                    .orElseThrow(() -> new QuotaExceededException(
+                            "Adding these members would exceed the member limit of the team owner's plan"));
+            membershipIndex.invalidateMembers(teamId, toInsert.stream().map(TeamMember::getUserId).toList());
+        }
+
+        return TeamMemberBulkResultDTO.builder()
+                .teamId(teamId)
+                .requested(requested.size())
+                .added(added)
+                .alreadyMembers(alreadyMembers)
+                .notFound(notFound)
+                .build();
     }
 
     @Override
@@ -194,6 +272,8 @@ public class TeamServiceImpl implements TeamService {
                 .orElseThrow(() -> new ResourceNotFoundException("Team member not found"));
 
         teamMemberRepository.delete(teamMember);
+        teamRepository.decrementMemberCount(teamId);
+        membershipIndex.invalidateMembership(teamId, userId);
     }
 
     @Override
@@ -218,8 +298,9 @@ public class TeamServiceImpl implements TeamService {
 
         teamMember.setRole(role);
         teamMember = teamMemberRepository.save(teamMember);
+        membershipIndex.invalidateMembership(teamId, userId);
 
-        return toMemberResponseWithDetails(teamMember);
+        return toMemberResponseWithDetails(teamMember, team, userCache.findById(userId).orElse(null));
     }
 
     @Override
@@ -227,19 +308,36 @@ public class TeamServiceImpl implements TeamService {
     public List<TeamMemberResponseDTO> getTeamMembers(UUID teamId) {
         log.info("Fetching members for team: {}", teamId);
 
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + teamId));
+        if (!teamRepository.existsById(teamId)) {
+            throw new ResourceNotFoundException("Team not found with id: " + teamId);
+        }
 
-        return teamMemberRepository.findByTeamId(teamId).stream()
-                .map(this::toMemberResponseWithDetails)
+        // Team name and user details come with the members in one query
+        return teamMemberRepository.findDetailsByTeamId(teamId).stream()
+                .map(teamMemberMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public int reconcileMemberCounts() {
+        List<UUID> drifted = teamRepository.findIdsWithMemberCountDrift();
+        for (UUID teamId : drifted) {
+            // With the row locked no add/remove is in flight, so the recount sees every committed member
+            teamRepository.lockById(teamId);
+            teamRepository.recountMembers(teamId);
+        }
+        if (drifted.isEmpty()) {
+            log.info("Team member counts are consistent");
+        } else {
+            log.warn("Corrected drifted member counts of {} teams", drifted.size());
+        }
+        return drifted.size();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public boolean isTeamOwner(UUID teamId, UUID userId) {
-        Team team = teamRepository.findById(teamId).orElse(null);
-        return team != null && team.getOwnerId().equals(userId);
+        return membershipIndex.isOwner(teamId, userId);
     }
 
     @Override
@@ -249,38 +347,49 @@ public class TeamServiceImpl implements TeamService {
             return true;
         }
 
-        return teamMemberRepository.findByTeamIdAndUserId(teamId, userId)
-                .map(member -> member.getRole() == TeamRole.ADMIN || member.getRole() == TeamRole.OWNER)
+        return membershipIndex.roleOf(teamId, userId)
+                .map(role -> role == TeamRole.ADMIN || role == TeamRole.OWNER)
                 .orElse(false);
     }
 
+    private int memberLimit(Team team) {
+        int limit = entitlementService.getEntitlements(team.getOwnerId()).maxTeamMembers();
+        return limit < 0 ? Integer.MAX_VALUE : limit;
+    }
+
+    private List<TeamResponseDTO> toResponsesWithDetails(List<Team> teams) {
+        // Look up all owners at once; member counts are stored on the teams
+        Map<UUID, User> owners = userCache.getUsersByIds(teams.stream().map(Team::getOwnerId).toList());
+        return teams.stream()
+                .map(team -> toResponseWithDetails(team, owners.get(team.getOwnerId())))
+                .collect(Collectors.toList());
+    }
+
     private TeamResponseDTO toResponseWithDetails(Team team) {
+        return toResponseWithDetails(team, userCache.findById(team.getOwnerId()).orElse(null));
+    }
+
+    private TeamResponseDTO toResponseWithDetails(Team team, User owner) {
         TeamResponseDTO response = teamMapper.toResponse(team);
         
         // Get owner name
-        userRepository.findById(team.getOwnerId()).ifPresent(owner -> 
-            response.setOwnerName(owner.getUsername())
-        );
-        
-        // Get member count
-        response.setMemberCount((int) teamMemberRepository.countByTeamId(team.getId()));
+        if (owner != null) {
+            response.setOwnerName(owner.getUsername());
+        }
         
         return response;
     }
 
-    private TeamMemberResponseDTO toMemberResponseWithDetails(TeamMember teamMember) {
+    private TeamMemberResponseDTO toMemberResponseWithDetails(TeamMember teamMember, Team team, User user) {
         TeamMemberResponseDTO response = teamMemberMapper.toResponse(teamMember);
         
-        // Get team name
-        teamRepository.findById(teamMember.getTeamId()).ifPresent(team -> 
-            response.setTeamName(team.getName())
-        );
+        response.setTeamName(team.getName());
         
         // Get user details
-        userRepository.findById(teamMember.getUserId()).ifPresent(user -> {
+        if (user != null) {
             response.setUsername(user.getUsername());
             response.setEmail(user.getEmail());
-        });
+        }
         
         return response;
     }
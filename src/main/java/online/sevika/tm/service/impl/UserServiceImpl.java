@@ -1,21 +1,30 @@
 package online.sevika.tm.service.impl;
+import online.sevika.tm.dto.UserDirectoryDTO;
 import online.sevika.tm.dto.UserRequestDTO;
 import online.sevika.tm.dto.UserResponseDTO;
 import online.sevika.tm.dto.UserUpdateRequestDTO;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import online.sevika.tm.cache.TeamMembershipIndex;
+import online.sevika.tm.cache.UserCache;
 import online.sevika.tm.entity.User;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.exception.DuplicateResourceException;
 import online.sevika.tm.mapper.UserMapper;
 import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.repository.projection.UserSummaryView;
+import online.sevika.tm.security.TokenVersionRegistry;
+import online.sevika.tm.service.RefreshTokenService;
 import online.sevika.tm.service.UserService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,9 +43,15 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final TeamMembershipIndex membershipIndex;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     @Transactional
@@ -65,7 +80,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserResponseDTO getUserById(UUID id) {
         log.debug("Fetching user by ID: {}", id);
-        User user = userRepository.findById(id)
+        User user = userCache.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
         return userMapper.toResponse(user);
     }
@@ -78,6 +93,27 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public UserDirectoryDTO getUserDirectory(String query, String cursor, int limit) {
+        log.debug("Fetching user directory page for query: {}", query);
+
+        String after = decodeDirectoryCursor(cursor);
+        String prefix = toLikePrefix(query);
+        int pageSize = Math.max(1, Math.min(limit, MAX_DIRECTORY_PAGE_SIZE));
+
+        // Fetch one extra entry to know whether another page exists
+        List<UserSummaryView> users = prefix.isEmpty()
+                ? userRepository.findDirectoryPage(after, pageSize + 1)
+                : userRepository.searchDirectoryPage(prefix, after, pageSize + 1);
+        boolean hasMore = users.size() > pageSize;
+        List<UserSummaryView> page = hasMore ? users.subList(0, pageSize) : users;
+
+        return UserDirectoryDTO.builder()
+                .users(page.stream().map(userMapper::toSummary).collect(Collectors.toList()))
+                .nextCursor(hasMore ? encodeDirectoryCursor(page.get(page.size() - 1).getUsername()) : null)
+                .build();
+    }
+
     @Override
     @Transactional
     public UserResponseDTO updateUser(UUID id, UserUpdateRequestDTO updateRequest) {
@@ -96,9 +132,14 @@ public class UserServiceImpl implements UserService {
 
         if (updateRequest.getPassword() != null) {
             user.setPassword(passwordEncoder.encode(updateRequest.getPassword()));
+            // Revoke every token issued before the password change
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            tokenVersionRegistry.evict(id);
+            refreshTokenService.revokeAllForUser(id);
         }
 
         User updatedUser = userRepository.save(user);
+        userCache.evict(id);
         log.info("User updated successfully with ID: {}", updatedUser.getId());
 
         return userMapper.toResponse(updatedUser);
@@ -113,14 +154,17 @@ public class UserServiceImpl implements UserService {
             throw new ResourceNotFoundException("User not found with ID: " + id);
         }
 
+        membershipIndex.invalidateUser(id);
         userRepository.deleteById(id);
+        tokenVersionRegistry.evict(id);
+        userCache.evict(id);
         log.info("User deleted successfully with ID: {}", id);
     }
 
     @Override
     public User getUserByUsername(String username) {
         log.debug("Fetching user by username: {}", username);
-        return userRepository.findByUsername(username)
+        return userCache.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
     }
 
@@ -133,4 +177,33 @@ public class UserServiceImpl implements UserService {
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
+
+    /**
+     * Lower-case LIKE prefix pattern for the query with its wildcards escaped; empty for no query
+     */
+    static String toLikePrefix(String query) {
+        if (query == null || query.isBlank()) {
+            return "";
+        }
+        String normalized = query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Opaque keyset cursor of the last user on a page: the username, base64url encoded
+     */
+    static String encodeDirectoryCursor(String username) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodeDirectoryCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid directory cursor");
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package online.sevika.tm.util;
+
+import online.sevika.tm.dto.ProjectResponseDTO;
+import online.sevika.tm.dto.TaskResponseDTO;
+import online.sevika.tm.exception.PreconditionFailedException;
+import online.sevika.tm.repository.projection.CollectionVersionView;
+import online.sevika.tm.repository.projection.ProjectVersionView;
+import online.sevika.tm.repository.projection.TaskVersionView;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Strong entity tags for task and project resources.
+ *
+ * A tag is the hex of its components: the entity version first, then the last update
+ * time and whatever embedded data the response depends on, such as the versions or
+ * update times of embedded project and user summaries. Tags computed from a
+ * version-only query and from the full response are identical, so a conditional GET
+ * can be answered without loading the entity.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String forTask(TaskResponseDTO task) {
+        Long projectVersion = task.getProject() != null ? task.getProject().getVersion() : null;
+        return of(task.getVersion(), millis(task.getUpdatedAt()), projectVersion,
+                millis(task.getAssignedTo() != null ? task.getAssignedTo().getUpdatedAt() : null),
+                millis(task.getCreatedBy() != null ? task.getCreatedBy().getUpdatedAt() : null));
+    }
+
+    public static String forTask(TaskVersionView view) {
+        return of(view.getVersion(), millis(view.getUpdatedAt()), view.getProjectVersion(),
+                millis(view.getAssignedToUpdatedAt()), millis(view.getCreatedByUpdatedAt()));
+    }
+
+    public static String forProject(ProjectResponseDTO project) {
+        return of(project.getVersion(), millis(project.getUpdatedAt()),
+                project.getTaskCount() != null ? project.getTaskCount().longValue() : null);
+    }
+
+    public static String forProject(ProjectVersionView view) {
+        return of(view.getVersion(), millis(view.getUpdatedAt()), view.getTaskCount());
+    }
+
+    /**
+     * Aggregate tag of a single project's tasks
+     */
+    public static String forTasks(Collection<TaskResponseDTO> tasks) {
+        Long projectVersion = tasks.stream()
+                .map(TaskResponseDTO::getProject)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(project -> project.getVersion())
+                .orElse(null);
+        return ofCollection(
+                tasks.size(),
+                tasks.stream().map(TaskResponseDTO::getUpdatedAt).filter(Objects::nonNull).max(LocalDateTime::compareTo).orElse(null),
+                tasks.stream().map(TaskResponseDTO::getVersion).filter(Objects::nonNull).mapToLong(Long::longValue).sum(),
+                projectVersion);
+    }
+
+    /**
+     * Aggregate tag of the project list
+     */
+    public static String forProjects(Collection<ProjectResponseDTO> projects) {
+        return ofCollection(
+                projects.size(),
+                projects.stream().map(ProjectResponseDTO::getUpdatedAt).filter(Objects::nonNull).max(LocalDateTime::compareTo).orElse(null),
+                projects.stream().map(ProjectResponseDTO::getVersion).filter(Objects::nonNull).mapToLong(Long::longValue).sum(),
+                projects.stream().map(ProjectResponseDTO::getTaskCount).filter(Objects::nonNull).mapToLong(Integer::longValue).sum());
+    }
+
+    public static String forCollection(CollectionVersionView view) {
+        return ofCollection(view.getItemCount(), view.getLastUpdatedAt(), view.getVersionSum(), view.getRelatedVersion());
+    }
+
+    /**
+     * Entity version expected by an If-Match header, or null when any version matches
+     *
+     * @throws PreconditionFailedException if the header is not a strong tag issued by this API
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a single strong entity tag");
+        }
+        String version = tag.substring(1, tag.length() - 1).split("-", 2)[0];
+        try {
+            return Long.parseUnsignedLong(version, 16);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match the current entity tag");
+        }
+    }
+
+    private static String ofCollection(long count, LocalDateTime lastUpdatedAt, Long versionSum, Long related) {
+        // An empty collection embeds nothing, so the related component must not vary
+        return of(count, millis(lastUpdatedAt), versionSum, count == 0 ? null : related);
+    }
+
+    private static String of(Long... components) {
+        return Arrays.stream(components)
+                .map(component -> Long.toHexString(component != null ? component : 0L))
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    private static Long millis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : null;
+    }
+}
@@ -0,0 +1,119 @@
+package online.sevika.tm.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Hex-encoded HMAC-SHA256 signatures under one secret, as used by Razorpay for payment
+ * and webhook signatures.
+ *
+ * Safe for concurrent use: each thread keeps its own initialized {@link Mac} and buffers,
+ * so a verification allocates little beyond the UTF-8 bytes of the data. The presented
+ * signature is decoded rather than the expected one encoded, and the digests are compared
+ * in constant time. Without a secret, every signature is rejected.
+ */
+public final class HmacSignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 32;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<State> state;
+
+    public HmacSignatureVerifier(String secret) {
+        this.key = secret == null || secret.isEmpty()
+                ? null
+                : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.state = ThreadLocal.withInitial(this::newState);
+    }
+
+    /**
+     * Whether signature is the hex HMAC of data; malformed or missing signatures are rejected
+     */
+    public boolean verify(String data, String signature) {
+        if (key == null || data == null || signature == null || signature.length() != SIGNATURE_BYTES * 2) {
+            return false;
+        }
+        State current = state.get();
+        if (!decodeHex(signature, current.presented)) {
+            return false;
+        }
+        current.digest(data);
+        return MessageDigest.isEqual(current.expected, current.presented);
+    }
+
+    /**
+     * Lowercase hex HMAC of data
+     */
+    public String sign(String data) {
+        if (key == null) {
+            throw new IllegalStateException("No HMAC secret configured");
+        }
+        State current = state.get();
+        current.digest(data);
+        return HexFormat.of().formatHex(current.expected);
+    }
+
+    private State newState() {
+        if (key == null) {
+            return null;
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return new State(mac);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+
+    private static boolean decodeHex(String hex, byte[] out) {
+        for (int i = 0; i < out.length; i++) {
+            int high = hexValue(hex.charAt(2 * i));
+            int low = hexValue(hex.charAt(2 * i + 1));
+            if (high < 0 || low < 0) {
+                return false;
+            }
+            out[i] = (byte) ((high << 4) | low);
+        }
+        return true;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static final class State {
+
+        private final Mac mac;
+        private final byte[] expected = new byte[SIGNATURE_BYTES];
+        private final byte[] presented = new byte[SIGNATURE_BYTES];
+
+        private State(Mac mac) {
+            this.mac = mac;
+        }
+
+        private void digest(String data) {
+            mac.update(data.getBytes(StandardCharsets.UTF_8));
+            try {
+                mac.doFinal(expected, 0);
+            } catch (GeneralSecurityException e) {
+                // Only thrown for a short output buffer
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package online.sevika.tm.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exact per-key event counts over a sliding window, for a bounded number of keys.
+ *
+ * Each key keeps its count for the current fixed window and the previous one; the
+ * sliding count is the current window plus the previous one weighted by how much of it
+ * still overlaps. Keys idle for two windows expire. When more keys are active than
+ * {@code maxKeys}, Caffeine's frequency-aware eviction drops rarely seen keys first, so
+ * a flood of one-off keys forgets its own counts rather than those of repeat offenders.
+ * Counts are never shared between keys, so no volume of other keys can push an
+ * unrelated key over a limit.
+ */
+public class SlidingWindowCounter {
+
+    private final long windowMillis;
+    private final Clock clock;
+    private final Cache<String, KeyWindows> countsByKey;
+
+    public SlidingWindowCounter(Duration window, long maxKeys, Clock clock) {
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.countsByKey = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(window.multipliedBy(2))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+    }
+
+    /**
+     * Count one event for the key and return the sliding count including it
+     */
+    public int increment(String key) {
+        long now = clock.millis();
+        long index = windowIndex(now);
+        // Computing counts as a write, so a key stays cached while it keeps seeing events
+        KeyWindows counts = countsByKey.asMap().compute(key, (k, existing) -> {
+            KeyWindows updated = existing == null ? new KeyWindows() : existing;
+            updated.increment(index);
+            return updated;
+        });
+        return counts.slidingCount(index, overlap(now));
+    }
+
+    /**
+     * Sliding count of events for the key
+     */
+    public int estimate(String key) {
+        KeyWindows counts = countsByKey.getIfPresent(key);
+        if (counts == null) {
+            return 0;
+        }
+        long now = clock.millis();
+        return counts.slidingCount(windowIndex(now), overlap(now));
+    }
+
+    /**
+     * Time until the current window rotates and older events start to fall out
+     */
+    public Duration untilNextWindow() {
+        long now = clock.millis();
+        return Duration.ofMillis(windowMillis - Math.floorMod(now, windowMillis));
+    }
+
+    private double overlap(long now) {
+        return 1.0 - (double) Math.floorMod(now, windowMillis) / windowMillis;
+    }
+
+    private long windowIndex(long now) {
+        return Math.floorDiv(now, windowMillis);
+    }
+
+    private static final class KeyWindows {
+
+        private long index;
+        private int current;
+        private int previous;
+
+        private synchronized void increment(long now) {
+            if (now != index) {
+                // An idle gap longer than one window leaves nothing worth carrying over
+                previous = now == index + 1 ? current : 0;
+                current = 0;
+                index = now;
+            }
+            current++;
+        }
+
+        private synchronized int slidingCount(long now, double overlap) {
+            int inCurrent = index == now ? current : 0;
+            int inPrevious = index == now ? previous : index == now - 1 ? current : 0;
+            return inCurrent + (int) Math.ceil(inPrevious * overlap);
+        }
+    }
+}
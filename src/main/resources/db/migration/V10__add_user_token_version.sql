@@ -0,0 +1,3 @@
+-- V10: Token version per user; bumping it revokes all issued access tokens
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+-- V11: Refresh tokens, stored only as SHA-256 digests and rotated on every use.
+-- Tokens issued from one login share a family; replaying a rotated token revokes the family.
+
+CREATE TABLE refresh_tokens (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL,
+    family_id UUID NOT NULL,
+    token_hash BYTEA NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    rotated_at TIMESTAMP,
+    revoked_at TIMESTAMP,
+    CONSTRAINT uk_refresh_token_hash UNIQUE (token_hash),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_refresh_token_family ON refresh_tokens(family_id);
+CREATE INDEX idx_refresh_token_user ON refresh_tokens(user_id);
+CREATE INDEX idx_refresh_token_expires ON refresh_tokens(expires_at);
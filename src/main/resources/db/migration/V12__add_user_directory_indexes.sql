@@ -0,0 +1,14 @@
+-- V12: Prefix-search indexes for the user directory (LIKE 'prefix%' on lower-cased values)
+
+CREATE INDEX IF NOT EXISTS idx_user_username_prefix
+    ON users (lower(username) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_user_email_prefix
+    ON users (lower(email) text_pattern_ops);
+
+-- Full name also answers first-name prefixes
+CREATE INDEX IF NOT EXISTS idx_user_full_name_prefix
+    ON users (lower(first_name || ' ' || last_name) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_user_last_name_prefix
+    ON users (lower(last_name) text_pattern_ops);
@@ -0,0 +1,8 @@
+-- V13: Denormalized member count per team, maintained by atomic updates on add/remove
+
+ALTER TABLE teams ADD COLUMN IF NOT EXISTS member_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE teams t
+SET member_count = (SELECT COUNT(*) FROM team_members tm WHERE tm.team_id = t.id);
+
+ALTER TABLE teams ADD CONSTRAINT chk_team_member_count CHECK (member_count >= 0);
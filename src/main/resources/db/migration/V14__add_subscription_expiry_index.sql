@@ -0,0 +1,2 @@
+-- Lets the expiry job pick the next batch of lapsed active subscriptions without scanning the table
+CREATE INDEX idx_subscription_active_end_date ON subscriptions(end_date) WHERE status = 'ACTIVE';
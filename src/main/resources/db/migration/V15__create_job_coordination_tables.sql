@@ -0,0 +1,24 @@
+-- V15: Coordination of scheduled jobs across instances.
+-- A job runs only on the instance holding its lease; the holder heartbeats while it works,
+-- so a crashed instance's lease simply times out. Every run that acquired the lease is recorded.
+
+CREATE TABLE job_leases (
+    job_name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    acquired_at TIMESTAMP NOT NULL,
+    heartbeat_at TIMESTAMP NOT NULL,
+    lease_until TIMESTAMP NOT NULL
+);
+
+CREATE TABLE job_runs (
+    id UUID PRIMARY KEY,
+    job_name VARCHAR(100) NOT NULL,
+    owner VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'SUCCEEDED', 'FAILED')),
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    items INTEGER,
+    error TEXT
+);
+
+CREATE INDEX idx_job_run_job_started ON job_runs(job_name, started_at);
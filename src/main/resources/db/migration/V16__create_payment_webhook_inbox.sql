@@ -0,0 +1,20 @@
+-- V16: Inbox of payment gateway webhook events.
+-- Events are stored as received and acknowledged at once; workers apply them later.
+-- The gateway's event id is unique, so redelivered events are dropped on insert.
+
+CREATE TABLE payment_webhook_events (
+    id UUID PRIMARY KEY,
+    event_id VARCHAR(100) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    order_id VARCHAR(100),
+    payload TEXT NOT NULL,
+    received_at TIMESTAMP NOT NULL,
+    available_at TIMESTAMP NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    processed_at TIMESTAMP,
+    last_error TEXT,
+    CONSTRAINT uk_payment_webhook_event_id UNIQUE (event_id)
+);
+
+-- Workers only ever look for unprocessed events that are due
+CREATE INDEX idx_payment_webhook_pending ON payment_webhook_events(available_at) WHERE processed_at IS NULL;
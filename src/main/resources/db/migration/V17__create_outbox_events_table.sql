@@ -0,0 +1,21 @@
+-- V17: Transactional outbox.
+-- Side effects of a write (audit entries, for now) are appended here in the same
+-- transaction as the write, and a relay applies them after commit. Applied events
+-- are deleted; events that keep failing are kept as DEAD with their last error.
+
+CREATE TABLE outbox_events (
+    id UUID PRIMARY KEY,
+    event_type VARCHAR(100) NOT NULL,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    available_at TIMESTAMP NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    last_error TEXT,
+    CONSTRAINT chk_outbox_status CHECK (status IN ('PENDING', 'DEAD'))
+);
+
+-- The relay only ever looks for pending events that are due
+CREATE INDEX idx_outbox_pending ON outbox_events(available_at) WHERE status = 'PENDING';
@@ -0,0 +1,12 @@
+-- V6: Full-text search over task titles and descriptions
+
+-- Generated search document; title terms rank above description terms
+ALTER TABLE tasks
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+            setweight(to_tsvector('english', coalesce(description, '')), 'B')
+        ) STORED;
+
+-- GIN index backing @@ matches against the search document
+CREATE INDEX IF NOT EXISTS idx_task_search_vector ON tasks USING GIN (search_vector);
@@ -0,0 +1,3 @@
+-- V7: Support per-status board columns within a project
+
+CREATE INDEX IF NOT EXISTS idx_task_project_status ON tasks(project_id, status);
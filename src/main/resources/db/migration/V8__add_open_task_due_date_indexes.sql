@@ -0,0 +1,9 @@
+-- V8: Partial indexes over open tasks with a due date (overdue / due-soon lookups)
+
+CREATE INDEX IF NOT EXISTS idx_task_open_due_date
+    ON tasks(due_date)
+    WHERE status <> 'DONE' AND due_date IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_task_open_assigned_due_date
+    ON tasks(assigned_to, due_date)
+    WHERE status <> 'DONE' AND due_date IS NOT NULL;
@@ -0,0 +1,4 @@
+-- V9: Optimistic locking versions for tasks and projects (also used for ETags)
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
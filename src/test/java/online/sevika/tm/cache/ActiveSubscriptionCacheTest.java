@@ -0,0 +1,188 @@
+package online.sevika.tm.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import online.sevika.tm.entity.Subscription;
+import online.sevika.tm.repository.SubscriptionRepository;
+import online.sevika.tm.repository.projection.ActiveSubscriptionView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ActiveSubscriptionCache.
+ */
+@ExtendWith(MockitoExtension.class)
+class ActiveSubscriptionCacheTest {
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    private MutableClock clock;
+    private ActiveSubscriptionCache cache;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        cache = new ActiveSubscriptionCache(subscriptionRepository, new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(5), clock);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void get_SecondLookup_HitsCache() {
+        // Arrange
+        ActiveSubscriptionView view = view(LocalDateTime.now(clock).plusMonths(1));
+        when(subscriptionRepository.findCurrentSubscriptionViews(eq(userId), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(view));
+
+        // Act
+        cache.get(userId);
+        Optional<ActiveSubscriptionCache.ActiveSubscription> result = cache.get(userId);
+
+        // Assert
+        ActiveSubscriptionCache.ActiveSubscription active = result.orElseThrow();
+        assertEquals(view.getId(), active.subscriptionId());
+        assertEquals(view.getPlanId(), active.planId());
+        assertEquals(Subscription.SubscriptionStatus.ACTIVE, active.status());
+        verify(subscriptionRepository, times(1)).findCurrentSubscriptionViews(eq(userId), any(LocalDateTime.class), any());
+    }
+
+    @Test
+    void get_NoSubscription_CachesAbsence() {
+        // Arrange
+        when(subscriptionRepository.findCurrentSubscriptionViews(eq(userId), any(LocalDateTime.class), any()))
+                .thenReturn(List.of());
+
+        // Act
+        cache.get(userId);
+        Optional<ActiveSubscriptionCache.ActiveSubscription> result = cache.get(userId);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(subscriptionRepository, times(1)).findCurrentSubscriptionViews(eq(userId), any(LocalDateTime.class), any());
+    }
+
+    @Test
+    void get_AfterEndDate_Reloads() {
+        // Arrange
+        when(subscriptionRepository.findCurrentSubscriptionViews(eq(userId), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(view(LocalDateTime.now(clock).plusMinutes(1))))
+                .thenReturn(List.of());
+
+        // Act: the end date comes well before the TTL
+        assertTrue(cache.get(userId).isPresent());
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(cache.get(userId).isPresent());
+        clock.advance(Duration.ofSeconds(31));
+        Optional<ActiveSubscriptionCache.ActiveSubscription> result = cache.get(userId);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(subscriptionRepository, times(2)).findCurrentSubscriptionViews(eq(userId), any(LocalDateTime.class), any());
+    }
+
+    @Test
+    void evict_OutsideTransaction_DropsEntryImmediately() {
+        // Arrange
+        when(subscriptionRepository.findCurrentSubscriptionViews(eq(userId), any(LocalDateTime.class), any()))
+                .thenReturn(List.of());
+        cache.get(userId);
+
+        // Act
+        cache.evict(userId);
+        cache.get(userId);
+
+        // Assert
+        verify(subscriptionRepository, times(2)).findCurrentSubscriptionViews(eq(userId), any(LocalDateTime.class), any());
+    }
+
+    @Test
+    void reload_DropsEntryAndLoadsAgain() {
+        // Arrange
+        ActiveSubscriptionView newer = view(LocalDateTime.now(clock).plusMonths(1));
+        when(subscriptionRepository.findCurrentSubscriptionViews(eq(userId), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(view(LocalDateTime.now(clock).plusMonths(1))))
+                .thenReturn(List.of(newer));
+        cache.get(userId);
+
+        // Act
+        Optional<ActiveSubscriptionCache.ActiveSubscription> result = cache.reload(userId);
+
+        // Assert
+        assertEquals(newer.getId(), result.orElseThrow().subscriptionId());
+        assertEquals(newer.getId(), cache.get(userId).orElseThrow().subscriptionId());
+        verify(subscriptionRepository, times(2)).findCurrentSubscriptionViews(eq(userId), any(LocalDateTime.class), any());
+    }
+
+    private static ActiveSubscriptionView view(LocalDateTime endDate) {
+        UUID id = UUID.randomUUID();
+        UUID planId = UUID.randomUUID();
+        return new ActiveSubscriptionView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public UUID getPlanId() {
+                return planId;
+            }
+
+            @Override
+            public Subscription.SubscriptionStatus getStatus() {
+                return Subscription.SubscriptionStatus.ACTIVE;
+            }
+
+            @Override
+            public LocalDateTime getEndDate() {
+                return endDate;
+            }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
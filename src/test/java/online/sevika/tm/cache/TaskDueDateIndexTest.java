@@ -0,0 +1,125 @@
+package online.sevika.tm.cache;
+
+import online.sevika.tm.entity.Project;
+import online.sevika.tm.entity.Task;
+import online.sevika.tm.entity.User;
+import online.sevika.tm.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TaskDueDateIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskDueDateIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 10);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @InjectMocks
+    private TaskDueDateIndex index;
+
+    private Project project;
+    private User assignee;
+
+    @BeforeEach
+    void setUp() {
+        project = Project.builder().id(UUID.randomUUID()).build();
+        assignee = User.builder().id(UUID.randomUUID()).build();
+    }
+
+    @Test
+    void buckets_SplitOpenTasksByDueDate() {
+        // Arrange
+        Task overdue = task(TODAY.minusDays(3), Task.TaskStatus.TODO);
+        Task today = task(TODAY, Task.TaskStatus.IN_PROGRESS);
+        Task thisWeek = task(TODAY.plusDays(6), Task.TaskStatus.TODO);
+        Task later = task(TODAY.plusDays(7), Task.TaskStatus.TODO);
+        index.onTaskSaved(later);
+        index.onTaskSaved(thisWeek);
+        index.onTaskSaved(today);
+        index.onTaskSaved(overdue);
+
+        // Act
+        TaskDueDateIndex.DueBuckets buckets = index.bucketsForAssignee(assignee.getId(), TODAY);
+
+        // Assert
+        assertThat(buckets.overdue()).containsExactly(overdue.getId());
+        assertThat(buckets.dueToday()).containsExactly(today.getId());
+        assertThat(buckets.dueThisWeek()).containsExactly(thisWeek.getId());
+        assertThat(index.bucketsForProject(project.getId(), TODAY)).isEqualTo(buckets);
+        assertThat(index.dueWithin(TODAY, 7, 10)).containsExactly(today.getId(), thisWeek.getId(), later.getId());
+    }
+
+    @Test
+    void overdue_ReturnsEarliestUpToLimit() {
+        // Arrange
+        Task oldest = task(TODAY.minusDays(3), Task.TaskStatus.TODO);
+        Task older = task(TODAY.minusDays(2), Task.TaskStatus.TODO);
+        Task old = task(TODAY.minusDays(1), Task.TaskStatus.TODO);
+        index.onTaskSaved(old);
+        index.onTaskSaved(oldest);
+        index.onTaskSaved(older);
+
+        // Act & Assert
+        assertThat(index.overdue(TODAY, 2)).containsExactly(oldest.getId(), older.getId());
+    }
+
+    @Test
+    void onTaskSaved_MovesRescheduledTaskAndDropsDoneTask() {
+        // Arrange
+        Task task = task(TODAY.minusDays(1), Task.TaskStatus.TODO);
+        index.onTaskSaved(task);
+
+        // Act
+        task.setDueDate(TODAY.plusDays(1));
+        index.onTaskSaved(task);
+
+        // Assert
+        assertThat(index.overdue(TODAY, 10)).isEmpty();
+        assertThat(index.dueWithin(TODAY, 1, 10)).containsExactly(task.getId());
+
+        // Act
+        task.setStatus(Task.TaskStatus.DONE);
+        index.onTaskSaved(task);
+
+        // Assert
+        assertThat(index.dueWithin(TODAY, 1, 10)).isEmpty();
+        assertThat(index.bucketsForAssignee(assignee.getId(), TODAY).dueThisWeek()).isEmpty();
+    }
+
+    @Test
+    void onProjectDeleted_RemovesProjectTasks() {
+        // Arrange
+        Task task = task(TODAY.minusDays(1), Task.TaskStatus.TODO);
+        index.onTaskSaved(task);
+
+        // Act
+        index.onProjectDeleted(project.getId());
+
+        // Assert
+        assertThat(index.overdue(TODAY, 10)).isEmpty();
+        assertThat(index.bucketsForAssignee(assignee.getId(), TODAY).overdue()).isEmpty();
+    }
+
+    private Task task(LocalDate dueDate, Task.TaskStatus status) {
+        return Task.builder()
+                .id(UUID.randomUUID())
+                .project(project)
+                .assignedTo(assignee)
+                .status(status)
+                .dueDate(dueDate)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package online.sevika.tm.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import online.sevika.tm.entity.Team;
+import online.sevika.tm.entity.TeamMember;
+import online.sevika.tm.entity.enums.TeamRole;
+import online.sevika.tm.repository.TeamMemberRepository;
+import online.sevika.tm.repository.TeamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TeamMembershipIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+class TeamMembershipIndexTest {
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private TeamMemberRepository teamMemberRepository;
+
+    private TeamMembershipIndex membershipIndex;
+    private UUID teamId;
+    private UUID ownerId;
+    private UUID adminId;
+
+    @BeforeEach
+    void setUp() {
+        membershipIndex = new TeamMembershipIndex(teamRepository, teamMemberRepository,
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        teamId = UUID.randomUUID();
+        ownerId = UUID.randomUUID();
+        adminId = UUID.randomUUID();
+    }
+
+    @Test
+    void isOwnerAndRoleOf_LoadTeamOnce() {
+        // Arrange
+        stubTeam(member(teamId, ownerId, TeamRole.OWNER), member(teamId, adminId, TeamRole.ADMIN));
+
+        // Act & Assert
+        assertTrue(membershipIndex.isOwner(teamId, ownerId));
+        assertFalse(membershipIndex.isOwner(teamId, adminId));
+        assertEquals(Optional.of(TeamRole.ADMIN), membershipIndex.roleOf(teamId, adminId));
+        assertEquals(Optional.empty(), membershipIndex.roleOf(teamId, UUID.randomUUID()));
+        verify(teamRepository, times(1)).findById(teamId);
+        verify(teamMemberRepository, times(1)).findByTeamId(teamId);
+    }
+
+    @Test
+    void isOwner_UnknownTeam_ReturnsFalse() {
+        // Arrange
+        when(teamRepository.findById(teamId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertFalse(membershipIndex.isOwner(teamId, ownerId));
+        assertEquals(Optional.empty(), membershipIndex.roleOf(teamId, ownerId));
+        verify(teamMemberRepository, never()).findByTeamId(teamId);
+    }
+
+    @Test
+    void teamsOf_SecondLookup_HitsCache() {
+        // Arrange
+        UUID otherTeamId = UUID.randomUUID();
+        when(teamMemberRepository.findByUserId(adminId)).thenReturn(List.of(
+                member(teamId, adminId, TeamRole.ADMIN), member(otherTeamId, adminId, TeamRole.MEMBER)));
+
+        // Act
+        membershipIndex.teamsOf(adminId);
+        Map<UUID, TeamRole> teams = membershipIndex.teamsOf(adminId);
+
+        // Assert
+        assertEquals(Map.of(teamId, TeamRole.ADMIN, otherTeamId, TeamRole.MEMBER), teams);
+        verify(teamMemberRepository, times(1)).findByUserId(adminId);
+    }
+
+    @Test
+    void invalidateMembership_ReloadsTeamAndUser() {
+        // Arrange
+        stubTeam(member(teamId, ownerId, TeamRole.OWNER));
+        when(teamMemberRepository.findByUserId(adminId)).thenReturn(List.of());
+        membershipIndex.roleOf(teamId, adminId);
+        membershipIndex.teamsOf(adminId);
+        when(teamMemberRepository.findByTeamId(teamId)).thenReturn(List.of(
+                member(teamId, ownerId, TeamRole.OWNER), member(teamId, adminId, TeamRole.ADMIN)));
+        when(teamMemberRepository.findByUserId(adminId)).thenReturn(List.of(member(teamId, adminId, TeamRole.ADMIN)));
+
+        // Act
+        membershipIndex.invalidateMembership(teamId, adminId);
+
+        // Assert
+        assertEquals(Optional.of(TeamRole.ADMIN), membershipIndex.roleOf(teamId, adminId));
+        assertEquals(Map.of(teamId, TeamRole.ADMIN), membershipIndex.teamsOf(adminId));
+    }
+
+    @Test
+    void invalidateTeam_DropsMembershipsOfItsMembers() {
+        // Arrange
+        stubTeam(member(teamId, ownerId, TeamRole.OWNER), member(teamId, adminId, TeamRole.ADMIN));
+        when(teamMemberRepository.findByUserId(adminId)).thenReturn(List.of(member(teamId, adminId, TeamRole.ADMIN)));
+        membershipIndex.teamsOf(adminId);
+        when(teamMemberRepository.findByUserId(adminId)).thenReturn(List.of());
+
+        // Act
+        membershipIndex.invalidateTeam(teamId);
+
+        // Assert
+        assertTrue(membershipIndex.teamsOf(adminId).isEmpty());
+        verify(teamMemberRepository, times(2)).findByUserId(adminId);
+    }
+
+    private void stubTeam(TeamMember... members) {
+        Team team = Team.builder().id(teamId).name("Test Team").ownerId(ownerId).build();
+        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(teamMemberRepository.findByTeamId(teamId)).thenReturn(List.of(members));
+    }
+
+    private static TeamMember member(UUID teamId, UUID userId, TeamRole role) {
+        return TeamMember.builder().id(UUID.randomUUID()).teamId(teamId).userId(userId).role(role).build();
+    }
+}
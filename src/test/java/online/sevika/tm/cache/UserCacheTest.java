@@ -0,0 +1,152 @@
+package online.sevika.tm.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import online.sevika.tm.entity.User;
+import online.sevika.tm.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserCache.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserCache userCache;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        alice = User.builder().id(UUID.randomUUID()).username("alice").password("hash").build();
+        bob = User.builder().id(UUID.randomUUID()).username("bob").build();
+    }
+
+    @Test
+    void findById_SecondLookup_HitsCache() {
+        // Arrange
+        when(userRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+
+        // Act
+        userCache.findById(alice.getId());
+        Optional<User> result = userCache.findById(alice.getId());
+
+        // Assert
+        assertEquals(alice.getId(), result.orElseThrow().getId());
+        verify(userRepository, times(1)).findById(alice.getId());
+    }
+
+    @Test
+    void findById_ReturnsIndependentCopiesWithoutPassword() {
+        // Arrange
+        when(userRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+
+        // Act
+        User first = userCache.findById(alice.getId()).orElseThrow();
+        first.setUsername("mallory");
+        User second = userCache.findById(alice.getId()).orElseThrow();
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals("alice", second.getUsername());
+        assertNull(second.getPassword());
+    }
+
+    @Test
+    void findById_UnknownUser_ReturnsEmpty() {
+        // Arrange
+        UUID unknownId = UUID.randomUUID();
+        when(userRepository.findById(unknownId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertTrue(userCache.findById(unknownId).isEmpty());
+    }
+
+    @Test
+    void findByUsername_SecondLookup_HitsCache() {
+        // Arrange
+        when(userRepository.findIdByUsername("alice")).thenReturn(Optional.of(alice.getId()));
+        when(userRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+
+        // Act
+        userCache.findByUsername("alice");
+        Optional<User> result = userCache.findByUsername("alice");
+
+        // Assert
+        assertEquals(alice.getId(), result.orElseThrow().getId());
+        verify(userRepository, times(1)).findIdByUsername("alice");
+        verify(userRepository, times(1)).findById(alice.getId());
+    }
+
+    @Test
+    void findByUsername_RenamedAfterIdResolved_ResolvesAgain() {
+        // Arrange: alice is renamed and bob takes the name between the two reads
+        User renamed = User.builder().id(alice.getId()).username("alicia").build();
+        User bobAsAlice = User.builder().id(bob.getId()).username("alice").build();
+        when(userRepository.findIdByUsername("alice"))
+                .thenReturn(Optional.of(alice.getId()))
+                .thenReturn(Optional.of(bob.getId()));
+        when(userRepository.findById(alice.getId())).thenReturn(Optional.of(renamed));
+        when(userRepository.findById(bob.getId())).thenReturn(Optional.of(bobAsAlice));
+
+        // Act
+        Optional<User> result = userCache.findByUsername("alice");
+
+        // Assert
+        assertEquals(bob.getId(), result.orElseThrow().getId());
+        verify(userRepository, times(2)).findIdByUsername("alice");
+    }
+
+    @Test
+    void getUsersByIds_LoadsOnlyMissesInOneQuery() {
+        // Arrange
+        UUID unknownId = UUID.randomUUID();
+        when(userRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+        when(userRepository.findAllById(Set.of(bob.getId(), unknownId))).thenReturn(List.of(bob));
+        userCache.findById(alice.getId());
+
+        // Act
+        Map<UUID, User> users = userCache.getUsersByIds(List.of(alice.getId(), bob.getId(), unknownId, bob.getId()));
+
+        // Assert
+        assertEquals(Set.of(alice.getId(), bob.getId()), users.keySet());
+        assertEquals("bob", users.get(bob.getId()).getUsername());
+        verify(userRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void evict_NextLookupReloads() {
+        // Arrange
+        when(userRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+        when(userRepository.findIdByUsername("alice")).thenReturn(Optional.of(alice.getId()));
+        userCache.findById(alice.getId());
+        userCache.findByUsername("alice");
+
+        // Act
+        userCache.evict(alice.getId());
+        userCache.findById(alice.getId());
+        userCache.findByUsername("alice");
+
+        // Assert
+        verify(userRepository, times(2)).findById(alice.getId());
+        verify(userRepository, times(2)).findIdByUsername("alice");
+    }
+}
@@ -5,6 +5,7 @@ import online.sevika.tm.dto.AuditLogFilterDTO;
 import online.sevika.tm.entity.User;
 import online.sevika.tm.entity.enums.AuditAction;
 import online.sevika.tm.entity.enums.EntityType;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.AuditLogService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -71,7 +72,7 @@ class AuditLogControllerTest {
                     Arrays.asList(new SimpleGrantedAuthority("ROLE_" + customUser.role()));
 
             Authentication auth = new UsernamePasswordAuthenticationToken(
-                    user.getId().toString(), null, authorities);
+                    AuthenticatedUser.of(user), null, authorities);
             context.setAuthentication(auth);
 
             return context;
@@ -131,7 +131,7 @@ class AuthControllerTest {
                 .user(userResponse)
                 .build();
 
-        when(authService.login(any(LoginRequestDTO.class))).thenReturn(authResponse);
+        when(authService.login(any(LoginRequestDTO.class), any())).thenReturn(authResponse);
 
         // Act & Assert
         mockMvc.perform(post("/api/auth/login")
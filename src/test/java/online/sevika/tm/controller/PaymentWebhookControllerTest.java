@@ -0,0 +1,59 @@
+package online.sevika.tm.controller;
+
+import online.sevika.tm.service.PaymentWebhookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PaymentWebhookControllerTest {
+
+    private static final String PAYLOAD = "{\"event\":\"payment.captured\",\"payload\":{}}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PaymentWebhookService paymentWebhookService;
+
+    @Test
+    void receiveRazorpayEvent_WithoutAuthentication_Acknowledges() throws Exception {
+        // Arrange
+        when(paymentWebhookService.receive(PAYLOAD, "sig", "evt_1")).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/webhooks/razorpay")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Razorpay-Signature", "sig")
+                        .header("X-Razorpay-Event-Id", "evt_1")
+                        .content(PAYLOAD))
+                .andExpect(status().isOk());
+        verify(paymentWebhookService).receive(PAYLOAD, "sig", "evt_1");
+    }
+
+    @Test
+    void receiveRazorpayEvent_InvalidSignature_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(paymentWebhookService.receive(PAYLOAD, "forged", null))
+                .thenThrow(new IllegalArgumentException("Invalid webhook signature"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/webhooks/razorpay")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Razorpay-Signature", "forged")
+                        .content(PAYLOAD))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -9,6 +9,7 @@ import online.sevika.tm.dto.TaskSummaryDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import online.sevika.tm.entity.User;
 import online.sevika.tm.entity.enums.PermissionType;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.PermissionService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -89,7 +90,7 @@ class PermissionControllerTest {
             user.setEnabled(true);
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userId.toString(),
+                    AuthenticatedUser.of(user),
                     null,
                     Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + customUser.role()))
             );
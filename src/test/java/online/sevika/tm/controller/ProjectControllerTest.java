@@ -8,6 +8,7 @@ import online.sevika.tm.dto.ProjectUpdateRequestDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import online.sevika.tm.entity.Project;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.ProjectService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +35,7 @@ import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -68,7 +70,7 @@ class ProjectControllerTest {
             user.setCreatedAt(LocalDateTime.now());
             
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                user, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + customUser.role()))
+                AuthenticatedUser.of(user), null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + customUser.role()))
             );
             context.setAuthentication(authentication);
             return context;
@@ -196,7 +198,7 @@ class ProjectControllerTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(projectService.updateProject(eq(projectId), any(ProjectUpdateRequestDTO.class), any(UUID.class)))
+        when(projectService.updateProject(eq(projectId), any(ProjectUpdateRequestDTO.class), any(UUID.class), isNull()))
                 .thenReturn(response);
 
         mockMvc.perform(put("/api/projects/{id}", projectId)
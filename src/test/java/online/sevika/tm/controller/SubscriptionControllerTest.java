@@ -11,6 +11,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import online.sevika.tm.entity.Payment;
 import online.sevika.tm.entity.Subscription;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.SubscriptionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -80,7 +81,7 @@ class SubscriptionControllerTest {
             user.setRole(User.Role.valueOf(customUser.role()));
 
             Authentication auth = new UsernamePasswordAuthenticationToken(
-                    userId.toString(),
+                    AuthenticatedUser.of(user),
                     null,
                     Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + customUser.role()))
             );
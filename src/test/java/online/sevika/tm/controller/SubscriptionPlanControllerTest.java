@@ -5,6 +5,7 @@ import online.sevika.tm.dto.SubscriptionPlanResponseDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import online.sevika.tm.entity.SubscriptionPlan;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.SubscriptionPlanService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -75,7 +76,7 @@ class SubscriptionPlanControllerTest {
                     Arrays.asList(new SimpleGrantedAuthority("ROLE_" + customUser.role()));
 
             Authentication auth = new UsernamePasswordAuthenticationToken(
-                    user.getId().toString(), null, authorities);
+                    AuthenticatedUser.of(user), null, authorities);
             context.setAuthentication(auth);
 
             return context;
@@ -7,6 +7,7 @@ import online.sevika.tm.dto.TaskUpdateRequestDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import online.sevika.tm.entity.Task;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.TaskService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +35,7 @@ import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -68,7 +70,7 @@ class TaskControllerTest {
             user.setCreatedAt(LocalDateTime.now());
             
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                user, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + customUser.role()))
+                AuthenticatedUser.of(user), null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + customUser.role()))
             );
             context.setAuthentication(authentication);
             return context;
@@ -207,7 +209,7 @@ class TaskControllerTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(taskService.updateTask(eq(taskId), any(TaskUpdateRequestDTO.class), any(UUID.class)))
+        when(taskService.updateTask(eq(taskId), any(TaskUpdateRequestDTO.class), any(UUID.class), isNull()))
                 .thenReturn(response);
 
         mockMvc.perform(put("/api/tasks/{id}", taskId)
@@ -236,7 +238,7 @@ class TaskControllerTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(taskService.updateTaskStatus(eq(taskId), any(Task.TaskStatus.class), any(UUID.class)))
+        when(taskService.updateTaskStatus(eq(taskId), any(Task.TaskStatus.class), any(UUID.class), isNull()))
                 .thenReturn(response);
 
         mockMvc.perform(patch("/api/tasks/{id}/status", taskId)
@@ -1,5 +1,7 @@
 package online.sevika.tm.controller;
 
+import online.sevika.tm.dto.TeamMemberBulkRequestDTO;
+import online.sevika.tm.dto.TeamMemberBulkResultDTO;
 import online.sevika.tm.dto.TeamMemberRequestDTO;
 import online.sevika.tm.dto.TeamRequestDTO;
 import online.sevika.tm.dto.TeamMemberResponseDTO;
@@ -9,6 +11,7 @@ import online.sevika.tm.dto.UserSummaryDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import online.sevika.tm.entity.User;
 import online.sevika.tm.entity.enums.TeamRole;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.TeamService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -90,7 +93,7 @@ class TeamControllerTest {
             user.setEnabled(true);
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userId.toString(),
+                    AuthenticatedUser.of(user),
                     null,
                     Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + customUser.role()))
             );
@@ -331,6 +334,51 @@ class TeamControllerTest {
                 .andExpect(jsonPath("$.role").value("MEMBER"));
     }
 
+    @Test
+    @WithMockCustomUser
+    @DisplayName("Bulk add team members - Success")
+    void addTeamMembers_Success() throws Exception {
+        // Arrange
+        UUID teamId = UUID.randomUUID();
+        UUID newMemberId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        TeamMemberBulkRequestDTO request = new TeamMemberBulkRequestDTO(List.of(newMemberId, unknownId), TeamRole.MEMBER);
+        TeamMemberBulkResultDTO result = TeamMemberBulkResultDTO.builder()
+                .teamId(teamId)
+                .requested(2)
+                .added(1)
+                .alreadyMembers(List.of())
+                .notFound(List.of(unknownId))
+                .build();
+
+        when(teamService.addTeamMembers(eq(teamId), any(TeamMemberBulkRequestDTO.class), any(UUID.class)))
+                .thenReturn(result);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/teams/{teamId}/members/bulk", teamId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.added").value(1))
+                .andExpect(jsonPath("$.notFound[0]").value(unknownId.toString()));
+    }
+
+    @Test
+    @WithMockCustomUser
+    @DisplayName("Bulk add team members - Empty list rejected")
+    void addTeamMembers_EmptyList_ReturnsBadRequest() throws Exception {
+        // Arrange
+        TeamMemberBulkRequestDTO request = new TeamMemberBulkRequestDTO(List.of(), TeamRole.MEMBER);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/teams/{teamId}/members/bulk", UUID.randomUUID())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockCustomUser
     @DisplayName("Remove team member - Success")
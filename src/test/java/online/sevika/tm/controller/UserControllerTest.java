@@ -1,10 +1,13 @@
 package online.sevika.tm.controller;
 
+import online.sevika.tm.dto.UserDirectoryDTO;
 import online.sevika.tm.dto.UserRequestDTO;
+import online.sevika.tm.dto.UserSummaryDTO;
 import online.sevika.tm.dto.UserResponseDTO;
 import online.sevika.tm.dto.UserUpdateRequestDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.security.AuthenticatedUser;
 import online.sevika.tm.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -74,7 +77,7 @@ class UserControllerTest {
             user.setCreatedAt(LocalDateTime.now());
             
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                user, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + customUser.role()))
+                AuthenticatedUser.of(user), null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + customUser.role()))
             );
             context.setAuthentication(authentication);
             return context;
@@ -241,6 +244,31 @@ class UserControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @WithMockCustomUser
+    void getUserDirectory_AsUser_Success() throws Exception {
+        // Arrange
+        UserDirectoryDTO directory = UserDirectoryDTO.builder()
+                .users(List.of(UserSummaryDTO.builder()
+                        .id(UUID.randomUUID())
+                        .username("jdoe")
+                        .firstName("John")
+                        .lastName("Doe")
+                        .build()))
+                .nextCursor("amRvZQ")
+                .build();
+
+        when(userService.getUserDirectory("jo", null, 20)).thenReturn(directory);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/directory").param("q", "jo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users[0].username").value("jdoe"))
+                .andExpect(jsonPath("$.users[0].email").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("amRvZQ"));
+    }
+
     @Test
     @WithMockCustomUser
     void getUserById_Success() throws Exception {
@@ -201,15 +201,15 @@ class ProjectPermissionRepositoryTest {
     }
 
     @Test
-    void shouldFindUserPermissionsOnProject() {
+    void shouldFindPermissionsOnProjectForUserAndTeams() {
         ProjectPermission directPerm = createUserPermission(project.getId(), user.getId(), PermissionType.READ);
         ProjectPermission teamPerm = createTeamPermission(project.getId(), team.getId(), PermissionType.WRITE);
         entityManager.persist(directPerm);
         entityManager.persist(teamPerm);
         entityManager.flush();
 
-        List<ProjectPermission> permissions = projectPermissionRepository.findUserPermissionsOnProject(
-                project.getId(), user.getId());
+        List<ProjectPermission> permissions = projectPermissionRepository.findPermissionsOnProject(
+                project.getId(), user.getId(), List.of(team.getId()));
 
         assertThat(permissions).hasSize(2);
     }
@@ -3,17 +3,19 @@ package online.sevika.tm.repository;
 import online.sevika.tm.entity.Subscription;
 import online.sevika.tm.entity.SubscriptionPlan;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.repository.projection.ActiveSubscriptionView;
+import online.sevika.tm.repository.projection.ExpiredSubscriptionView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -64,7 +66,7 @@ class SubscriptionRepositoryTest {
     }
 
     @Test
-    void findActiveSubscriptionByUserId_ReturnsActiveSubscription() {
+    void findCurrentSubscriptionViews_ReturnsActiveSubscription() {
         // Arrange
         Subscription activeSubscription = Subscription.builder()
                 .user(user)
@@ -78,16 +80,18 @@ class SubscriptionRepositoryTest {
         entityManager.flush();
 
         // Act
-        Optional<Subscription> result = subscriptionRepository.findActiveSubscriptionByUserId(user.getId());
+        List<ActiveSubscriptionView> result = subscriptionRepository.findCurrentSubscriptionViews(
+                user.getId(), LocalDateTime.now(), PageRequest.of(0, 1));
 
         // Assert
-        assertThat(result).isPresent();
-        assertThat(result.get().getId()).isEqualTo(activeSubscription.getId());
-        assertThat(result.get().getStatus()).isEqualTo(Subscription.SubscriptionStatus.ACTIVE);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getId()).isEqualTo(activeSubscription.getId());
+        assertThat(result.get(0).getPlanId()).isEqualTo(plan.getId());
+        assertThat(result.get(0).getStatus()).isEqualTo(Subscription.SubscriptionStatus.ACTIVE);
     }
 
     @Test
-    void findActiveSubscriptionByUserId_ReturnsTrialSubscription() {
+    void findCurrentSubscriptionViews_ReturnsTrialSubscription() {
         // Arrange
         Subscription trialSubscription = Subscription.builder()
                 .user(user)
@@ -101,17 +105,19 @@ class SubscriptionRepositoryTest {
         entityManager.flush();
 
         // Act
-        Optional<Subscription> result = subscriptionRepository.findActiveSubscriptionByUserId(user.getId());
+        List<ActiveSubscriptionView> result = subscriptionRepository.findCurrentSubscriptionViews(
+                user.getId(), LocalDateTime.now(), PageRequest.of(0, 1));
 
         // Assert
-        assertThat(result).isPresent();
-        assertThat(result.get().getStatus()).isEqualTo(Subscription.SubscriptionStatus.TRIAL);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getStatus()).isEqualTo(Subscription.SubscriptionStatus.TRIAL);
     }
 
     @Test
-    void findActiveSubscriptionByUserId_NotFound() {
+    void findCurrentSubscriptionViews_NotFound() {
         // Act
-        Optional<Subscription> result = subscriptionRepository.findActiveSubscriptionByUserId(UUID.randomUUID());
+        List<ActiveSubscriptionView> result = subscriptionRepository.findCurrentSubscriptionViews(
+                UUID.randomUUID(), LocalDateTime.now(), PageRequest.of(0, 1));
 
         // Assert
         assertThat(result).isEmpty();
@@ -198,7 +204,7 @@ class SubscriptionRepositoryTest {
     }
 
     @Test
-    void findExpiredActiveSubscriptions_ReturnsExpiredSubscriptions() {
+    void expireLapsedBatch_ExpiresLapsedSubscriptions() {
         // Arrange
         Subscription expiredSubscription = Subscription.builder()
                 .user(user)
@@ -212,10 +218,13 @@ class SubscriptionRepositoryTest {
         entityManager.flush();
 
         // Act
-        List<Subscription> expiredSubscriptions = subscriptionRepository.findExpiredActiveSubscriptions(LocalDateTime.now());
+        List<ExpiredSubscriptionView> expiredSubscriptions = subscriptionRepository.expireLapsedBatch(LocalDateTime.now(), 100);
+        entityManager.clear();
 
         // Assert
-        assertThat(expiredSubscriptions).hasSizeGreaterThanOrEqualTo(1);
-        assertThat(expiredSubscriptions).anyMatch(s -> s.getId().equals(expiredSubscription.getId()));
+        assertThat(expiredSubscriptions).anyMatch(s -> s.getId().equals(expiredSubscription.getId())
+                && s.getUserId().equals(user.getId()));
+        assertThat(entityManager.find(Subscription.class, expiredSubscription.getId()).getStatus())
+                .isEqualTo(Subscription.SubscriptionStatus.EXPIRED);
     }
 }
@@ -210,14 +210,15 @@ class TaskPermissionRepositoryTest {
     }
 
     @Test
-    void shouldFindUserPermissionsOnTask() {
+    void shouldFindPermissionsOnTaskForUserAndTeams() {
         TaskPermission directPerm = createUserPermission(task.getId(), user.getId(), PermissionType.READ);
         TaskPermission teamPerm = createTeamPermission(task.getId(), team.getId(), PermissionType.WRITE);
         entityManager.persist(directPerm);
         entityManager.persist(teamPerm);
         entityManager.flush();
 
-        List<TaskPermission> permissions = taskPermissionRepository.findUserPermissionsOnTask(task.getId(), user.getId());
+        List<TaskPermission> permissions = taskPermissionRepository.findPermissionsOnTask(
+                task.getId(), user.getId(), List.of(team.getId()));
 
         assertThat(permissions).hasSize(2);
     }
@@ -10,7 +10,6 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -218,74 +217,6 @@ class TaskRepositoryTest {
         assertThat(tasks.get(0).getTitle()).isEqualTo("Specific Task");
     }
 
-    @Test
-    void findOverdueTasks_ReturnsTasks() {
-        // Arrange
-        Task overdueTask = Task.builder()
-                .title("Overdue Task")
-                .project(project)
-                .createdBy(owner)
-                .status(Task.TaskStatus.TODO)
-                .priority(Task.TaskPriority.HIGH)
-                .dueDate(LocalDate.now().minusDays(1))
-                .build();
-        entityManager.persist(overdueTask);
-
-        Task futureTask = Task.builder()
-                .title("Future Task")
-                .project(project)
-                .createdBy(owner)
-                .status(Task.TaskStatus.TODO)
-                .priority(Task.TaskPriority.MEDIUM)
-                .dueDate(LocalDate.now().plusDays(7))
-                .build();
-        entityManager.persist(futureTask);
-        entityManager.flush();
-
-        // Act
-        List<Task> tasks = taskRepository.findOverdueTasks(LocalDate.now());
-
-        // Assert - Check that our overdue task is in the results
-        assertThat(tasks).isNotEmpty();
-        assertThat(tasks).anyMatch(task -> task.getTitle().equals("Overdue Task"));
-        assertThat(tasks).noneMatch(task -> task.getTitle().equals("Future Task"));
-    }
-
-    @Test
-    void findTasksDueSoon_ReturnsTasks() {
-        // Arrange
-        LocalDate specificDueDate = LocalDate.now().plusDays(15);
-        Task dueSoonTask = Task.builder()
-                .title("Due Soon Task " + UUID.randomUUID())
-                .project(project)
-                .createdBy(owner)
-                .status(Task.TaskStatus.TODO)
-                .priority(Task.TaskPriority.HIGH)
-                .dueDate(specificDueDate)
-                .build();
-        entityManager.persist(dueSoonTask);
-
-        Task farFutureTask = Task.builder()
-                .title("Far Future Task " + UUID.randomUUID())
-                .project(project)
-                .createdBy(owner)
-                .status(Task.TaskStatus.TODO)
-                .priority(Task.TaskPriority.MEDIUM)
-                .dueDate(LocalDate.now().plusDays(30))
-                .build();
-        entityManager.persist(farFutureTask);
-        entityManager.flush();
-
-        // Act
-        LocalDate startDate = specificDueDate.minusDays(1);
-        LocalDate endDate = specificDueDate.plusDays(1);
-        List<Task> tasks = taskRepository.findTasksDueSoon(startDate, endDate);
-
-        // Assert
-        assertThat(tasks).hasSizeGreaterThanOrEqualTo(1);
-        assertThat(tasks).anyMatch(t -> t.getId().equals(dueSoonTask.getId()));
-    }
-
     @Test
     void findTasksWithFilters_AllFilters_ReturnsTasks() {
         // Arrange
@@ -0,0 +1,146 @@
+package online.sevika.tm.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import online.sevika.tm.entity.JobRun;
+import online.sevika.tm.repository.JobLeaseRepository;
+import online.sevika.tm.repository.JobRunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JobCoordinator.
+ */
+@ExtendWith(MockitoExtension.class)
+class JobCoordinatorTest {
+
+    private static final String JOB = "test-job";
+    private static final String INSTANCE = "node-1";
+
+    @Mock
+    private JobLeaseRepository leaseRepository;
+
+    @Mock
+    private JobRunRepository runRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JobCoordinator jobCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jobCoordinator = coordinator(Duration.ofMinutes(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobCoordinator.destroy();
+    }
+
+    @Test
+    void runExclusively_LeaseHeldElsewhere_SkipsJob() {
+        // Arrange
+        when(leaseRepository.tryAcquire(JOB, INSTANCE, 120)).thenReturn(0);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // Act
+        boolean result = jobCoordinator.runExclusively(JOB, () -> {
+            ran.set(true);
+            return 0;
+        });
+
+        // Assert
+        assertFalse(result);
+        assertFalse(ran.get());
+        verifyNoInteractions(runRepository);
+        verify(leaseRepository, never()).release(any(), any(), anyLong());
+        assertEquals(1.0, meterRegistry.counter("jobs.skipped", "job", JOB).count());
+    }
+
+    @Test
+    void runExclusively_LeaseWon_RecordsRunAndReleasesWithMinimumHold() {
+        // Arrange
+        when(leaseRepository.tryAcquire(JOB, INSTANCE, 120)).thenReturn(1);
+        when(runRepository.save(any(JobRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        boolean result = jobCoordinator.runExclusively(JOB, () -> 7);
+
+        // Assert
+        assertTrue(result);
+        JobRun run = lastSavedRun();
+        assertEquals(JobRun.JobRunStatus.SUCCEEDED, run.getStatus());
+        assertEquals(7, run.getItems());
+        assertEquals(INSTANCE, run.getOwner());
+        assertNotNull(run.getFinishedAt());
+        verify(leaseRepository).release(JOB, INSTANCE, 60);
+        verify(runRepository).deleteByJobNameStartedBefore(eq(JOB), any(LocalDateTime.class));
+    }
+
+    @Test
+    void runExclusively_JobFails_RecordsFailureReleasesAndRethrows() {
+        // Arrange
+        when(leaseRepository.tryAcquire(JOB, INSTANCE, 120)).thenReturn(1);
+        when(runRepository.save(any(JobRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> jobCoordinator.runExclusively(JOB, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        JobRun run = lastSavedRun();
+        assertEquals(JobRun.JobRunStatus.FAILED, run.getStatus());
+        assertTrue(run.getError().contains("boom"));
+        verify(leaseRepository).release(JOB, INSTANCE, 60);
+    }
+
+    @Test
+    void runExclusively_LongJob_HeartbeatsLease() {
+        // Arrange
+        jobCoordinator.destroy();
+        jobCoordinator = coordinator(Duration.ofMillis(30));
+        when(leaseRepository.tryAcquire(JOB, INSTANCE, 0)).thenReturn(1);
+        when(runRepository.save(any(JobRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(leaseRepository.renew(JOB, INSTANCE, 0)).thenReturn(1);
+
+        // Act
+        jobCoordinator.runExclusively(JOB, () -> {
+            verify(leaseRepository, timeout(TimeUnit.SECONDS.toMillis(5)).atLeast(2)).renew(JOB, INSTANCE, 0);
+            return 0;
+        });
+
+        // Assert
+        verify(leaseRepository, atLeast(2)).renew(JOB, INSTANCE, 0);
+    }
+
+    private JobCoordinator coordinator(Duration leaseTtl) {
+        return new JobCoordinator(leaseRepository, runRepository, transactionManager, meterRegistry,
+                INSTANCE, leaseTtl, Duration.ofMinutes(1), Duration.ZERO, Duration.ofDays(30));
+    }
+
+    private JobRun lastSavedRun() {
+        ArgumentCaptor<JobRun> captor = ArgumentCaptor.forClass(JobRun.class);
+        verify(runRepository, times(2)).save(captor.capture());
+        List<JobRun> saved = captor.getAllValues();
+        return saved.get(saved.size() - 1);
+    }
+}
@@ -0,0 +1,95 @@
+package online.sevika.tm.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import online.sevika.tm.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BoundedHashingPasswordEncoder.
+ */
+class BoundedHashingPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedHashingPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    void encodeAndMatches_DelegateToBCrypt() {
+        // Arrange
+        encoder = new BoundedHashingPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, meterRegistry);
+
+        // Act
+        String encoded = encoder.encode("Password123!");
+
+        // Assert
+        assertTrue(encoded.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("Password123!", encoded));
+        assertFalse(encoder.matches("wrong", encoded));
+    }
+
+    @Test
+    void upgradeEncoding_LowerCostHash_ReturnsTrue() {
+        // Arrange
+        String weakHash = new BCryptPasswordEncoder(4).encode("Password123!");
+        encoder = new BoundedHashingPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1, meterRegistry);
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(weakHash));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("Password123!")));
+    }
+
+    @Test
+    void encode_PoolSaturated_RejectsImmediately() throws Exception {
+        // Arrange: one running and one queued hash block on the latch
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedHashingPasswordEncoder(new BlockingEncoder(started, release), 1, 1, meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // Act & Assert
+        ServiceBusyException exception = assertThrows(ServiceBusyException.class, () -> encoder.encode("c"));
+        assertEquals(1, exception.getRetryAfter().toSeconds());
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
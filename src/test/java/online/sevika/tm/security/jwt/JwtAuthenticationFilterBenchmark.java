@@ -0,0 +1,143 @@
+package online.sevika.tm.security.jwt;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import online.sevika.tm.entity.User;
+import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.repository.projection.UserTokenStateView;
+import online.sevika.tm.security.TokenVersionRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the JWT filter path for valid (cached and uncached), expired and tampered tokens.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=online.sevika.tm.security.jwt.JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String validToken;
+    private MockHttpServletRequest validRequest;
+    private MockHttpServletRequest expiredRequest;
+    private MockHttpServletRequest tamperedRequest;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        // Measure verification, not console logging of every rejected token
+        ((Logger) LoggerFactory.getLogger("online.sevika.tm")).setLevel(Level.INFO);
+
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("benchmark")
+                .role(User.Role.USER)
+                .enabled(true)
+                .build();
+
+        UserTokenStateView state = Mockito.mock(UserTokenStateView.class);
+        Mockito.when(state.getTokenVersion()).thenReturn(user.getTokenVersion());
+        Mockito.when(state.getEnabled()).thenReturn(true);
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findTokenStateById(user.getId())).thenReturn(Optional.of(state));
+
+        // Long TTL so the measured path is the cached-state hit, as in steady-state traffic
+        TokenVersionRegistry registry = new TokenVersionRegistry(userRepository);
+        ReflectionTestUtils.setField(registry, "ttl", Duration.ofHours(1));
+
+        jwtUtil = new JwtUtil(SECRET, Duration.ofMinutes(15).toMillis());
+        filter = new JwtAuthenticationFilter(new VerifiedTokenCache(jwtUtil, new SimpleMeterRegistry(), 10_000), registry);
+
+        validToken = jwtUtil.generateToken(user);
+        String expiredToken = new JwtUtil(SECRET, -Duration.ofMinutes(1).toMillis()).generateToken(user);
+        char last = validToken.charAt(validToken.length() - 1);
+        String tamperedToken = validToken.substring(0, validToken.length() - 1) + (last == 'A' ? 'B' : 'A');
+
+        validRequest = request(validToken);
+        expiredRequest = request(expiredToken);
+        tamperedRequest = request(tamperedToken);
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public void validToken(Blackhole blackhole) throws Exception {
+        authenticate(validRequest, blackhole);
+    }
+
+    /**
+     * Full verification without the cache, i.e. the cost of a token's first request
+     */
+    @Benchmark
+    public void validTokenUncached(Blackhole blackhole) {
+        blackhole.consume(jwtUtil.verify(validToken));
+    }
+
+    @Benchmark
+    public void expiredToken(Blackhole blackhole) throws Exception {
+        authenticate(expiredRequest, blackhole);
+    }
+
+    @Benchmark
+    public void tamperedToken(Blackhole blackhole) throws Exception {
+        authenticate(tamperedRequest, blackhole);
+    }
+
+    private void authenticate(MockHttpServletRequest request, Blackhole blackhole) throws Exception {
+        try {
+            filter.doFilter(request, response, chain);
+            blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
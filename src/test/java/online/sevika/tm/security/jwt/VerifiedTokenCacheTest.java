@@ -0,0 +1,81 @@
+package online.sevika.tm.security.jwt;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import online.sevika.tm.entity.User;
+import online.sevika.tm.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for VerifiedTokenCache.
+ */
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+    private AuthenticatedUser principal;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(jwtUtil, meterRegistry, 100);
+        principal = new AuthenticatedUser(UUID.randomUUID(), "testuser", User.Role.USER);
+    }
+
+    @Test
+    void verify_RepeatedToken_VerifiesOnce() {
+        // Arrange
+        VerifiedToken verified = new VerifiedToken(principal, 0, Instant.now().plusSeconds(300));
+        when(jwtUtil.verify("token")).thenReturn(verified);
+
+        // Act
+        VerifiedToken first = cache.verify("token");
+        VerifiedToken second = cache.verify("token");
+
+        // Assert
+        assertSame(verified, first);
+        assertSame(verified, second);
+        verify(jwtUtil, times(1)).verify("token");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt.verified.tokens").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void verify_ExpiredEntry_VerifiesAgain() {
+        // Arrange
+        VerifiedToken verified = new VerifiedToken(principal, 0, Instant.now().minusSeconds(1));
+        when(jwtUtil.verify("token")).thenReturn(verified);
+
+        // Act
+        cache.verify("token");
+        cache.verify("token");
+
+        // Assert
+        verify(jwtUtil, times(2)).verify("token");
+    }
+
+    @Test
+    void verify_InvalidToken_IsNotCached() {
+        // Arrange
+        when(jwtUtil.verify("forged")).thenThrow(new JwtException("bad signature"));
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> cache.verify("forged"));
+        assertThrows(JwtException.class, () -> cache.verify("forged"));
+        verify(jwtUtil, times(2)).verify("forged");
+        assertEquals(2.0, meterRegistry.get("jwt.tokens.rejected").counter().count());
+    }
+}
@@ -0,0 +1,70 @@
+package online.sevika.tm.service;
+
+import online.sevika.tm.config.RazorpayConfig;
+import online.sevika.tm.exception.PaymentGatewayException;
+import online.sevika.tm.service.PaymentGateway.GatewayOrder;
+import online.sevika.tm.util.HmacSignatureVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SimulatedPaymentGateway.
+ */
+class SimulatedPaymentGatewayTest {
+
+    private RazorpayConfig razorpayConfig;
+
+    @BeforeEach
+    void setUp() {
+        razorpayConfig = new RazorpayConfig();
+        razorpayConfig.setKeyId("rzp_test_key");
+        razorpayConfig.setKeySecret("key-secret");
+        razorpayConfig.setWebhookSecret("webhook-secret");
+    }
+
+    @Test
+    void createOrder_NoFailures_ReturnsOrderInSmallestUnit() {
+        // Arrange
+        SimulatedPaymentGateway gateway = gateway(0.0);
+
+        // Act
+        GatewayOrder order = gateway.createOrder(new BigDecimal("999.50"), "INR", "SUB_1");
+
+        // Assert
+        assertTrue(order.id().startsWith("order_sim_"));
+        assertEquals(99950, order.amount());
+        assertEquals("INR", order.currency());
+    }
+
+    @Test
+    void createOrder_AlwaysFailing_ThrowsException() {
+        // Arrange
+        SimulatedPaymentGateway gateway = gateway(1.0);
+
+        // Act & Assert
+        assertThrows(PaymentGatewayException.class, () -> gateway.createOrder(BigDecimal.TEN, "INR", "SUB_1"));
+    }
+
+    @Test
+    void verifySignatures_AcceptRazorpayStyleSignaturesOnly() {
+        // Arrange
+        SimulatedPaymentGateway gateway = gateway(0.0);
+        String paymentSignature = new HmacSignatureVerifier("key-secret").sign("order_1|pay_1");
+        String webhookSignature = new HmacSignatureVerifier("webhook-secret").sign("{}");
+
+        // Act & Assert
+        assertTrue(gateway.verifyPaymentSignature("order_1", "pay_1", paymentSignature));
+        assertFalse(gateway.verifyPaymentSignature("order_1", "pay_2", paymentSignature));
+        assertTrue(gateway.verifyWebhookSignature("{}", webhookSignature));
+        assertFalse(gateway.verifyWebhookSignature("{}", null));
+    }
+
+    private SimulatedPaymentGateway gateway(double failureRate) {
+        return new SimulatedPaymentGateway(razorpayConfig, Duration.ZERO, Duration.ZERO, 0.0, Duration.ZERO, failureRate);
+    }
+}
@@ -1,26 +1,38 @@
 package online.sevika.tm.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import online.sevika.tm.dto.AuditLogDTO;
 import online.sevika.tm.dto.AuditLogFilterDTO;
 import online.sevika.tm.entity.AuditLog;
 import online.sevika.tm.entity.enums.AuditAction;
 import online.sevika.tm.entity.enums.EntityType;
 import online.sevika.tm.mapper.AuditLogMapper;
+import online.sevika.tm.entity.User;
 import online.sevika.tm.repository.AuditLogRepository;
+import online.sevika.tm.security.AuthenticatedUser;
+import online.sevika.tm.service.AuditActivityHandler;
+import online.sevika.tm.service.AuditLogService;
+import online.sevika.tm.service.OutboxService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -40,6 +52,12 @@ class AuditLogServiceImplTest {
     @Mock
     private AuditLogMapper auditLogMapper;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private AuditLogServiceImpl auditLogService;
 
@@ -76,24 +94,38 @@ class AuditLogServiceImplTest {
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
-    void testLogActivity() {
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(testAuditLog);
-
-        auditLogService.logActivity(
-                EntityType.PROJECT,
-                testEntityId,
-                AuditAction.CREATED,
-                testUserId,
-                "testuser",
-                null,
-                "newValue",
-                "Project created",
-                "127.0.0.1",
-                "Mozilla/5.0"
-        );
+    void testRecordActivity_PublishesToOutboxAsCurrentUser() {
+        AuthenticatedUser principal = new AuthenticatedUser(testUserId, "testuser", User.Role.USER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        auditLogService.recordActivity(EntityType.PROJECT, testEntityId, AuditAction.UPDATED,
+                "{\"name\":\"Old\"}", Map.of("name", "New"), "Project updated: New");
+
+        ArgumentCaptor<AuditLogService.Activity> activity = ArgumentCaptor.forClass(AuditLogService.Activity.class);
+        verify(outboxService).publish(eq(AuditActivityHandler.EVENT_TYPE), eq("PROJECT"), eq(testEntityId), activity.capture());
+        assertThat(activity.getValue().userId()).isEqualTo(testUserId);
+        assertThat(activity.getValue().username()).isEqualTo("testuser");
+        assertThat(activity.getValue().oldValue()).isEqualTo("{\"name\":\"Old\"}");
+        assertThat(activity.getValue().newValue()).isEqualTo("{\"name\":\"New\"}");
+        verifyNoInteractions(auditLogRepository);
+    }
 
-        verify(auditLogRepository, times(1)).save(any(AuditLog.class));
+    @Test
+    void testRecordActivity_WithoutAuthentication_AttributesToSystem() {
+        auditLogService.recordActivity(EntityType.TASK, testEntityId, AuditAction.DELETED, null, null, "Task deleted");
+
+        ArgumentCaptor<AuditLogService.Activity> activity = ArgumentCaptor.forClass(AuditLogService.Activity.class);
+        verify(outboxService).publish(eq(AuditActivityHandler.EVENT_TYPE), eq("TASK"), eq(testEntityId), activity.capture());
+        assertThat(activity.getValue().userId()).isNull();
+        assertThat(activity.getValue().username()).isEqualTo("system");
+        assertThat(activity.getValue().ipAddress()).isNull();
     }
 
     @Test
@@ -4,11 +4,16 @@ import online.sevika.tm.dto.LoginRequestDTO;
 import online.sevika.tm.dto.UserResponseDTO;
 import online.sevika.tm.dto.RegisterRequestDTO;
 import online.sevika.tm.dto.AuthResponseDTO;
+import online.sevika.tm.dto.RefreshTokenRequestDTO;
 import online.sevika.tm.entity.User;
 import online.sevika.tm.exception.DuplicateResourceException;
+import online.sevika.tm.exception.InvalidTokenException;
+import online.sevika.tm.exception.RateLimitExceededException;
 import online.sevika.tm.mapper.UserMapper;
 import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.security.LoginAttemptLimiter;
 import online.sevika.tm.security.jwt.JwtUtil;
+import online.sevika.tm.service.RefreshTokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,6 +27,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,6 +40,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class AuthServiceImplTest {
 
+    private static final String CLIENT_IP = "203.0.113.7";
+
     @Mock
     private UserRepository userRepository;
 
@@ -49,6 +57,12 @@ class AuthServiceImplTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private LoginAttemptLimiter loginAttemptLimiter;
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -93,6 +107,8 @@ class AuthServiceImplTest {
                 .role(User.Role.USER)
                 .enabled(true)
                 .build();
+
+        lenient().when(jwtUtil.getAccessTokenLifetime()).thenReturn(Duration.ofMinutes(5));
     }
 
     @Test
@@ -103,6 +119,7 @@ class AuthServiceImplTest {
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(user);
         when(jwtUtil.generateToken(any(User.class))).thenReturn("jwt-token");
+        when(refreshTokenService.issue(user.getId())).thenReturn("refresh-token");
         when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
 
         // Act
@@ -112,6 +129,8 @@ class AuthServiceImplTest {
         assertNotNull(response);
         assertEquals("jwt-token", response.getToken());
         assertEquals("Bearer", response.getType());
+        assertEquals("refresh-token", response.getRefreshToken());
+        assertEquals(300L, response.getExpiresIn());
         assertEquals(userResponse, response.getUser());
 
         verify(userRepository).existsByUsername("testuser");
@@ -193,12 +212,12 @@ class AuthServiceImplTest {
 
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
-        when(jwtUtil.generateToken(any(UserDetails.class))).thenReturn("jwt-token");
+        when(jwtUtil.generateToken(any(User.class))).thenReturn("jwt-token");
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
         when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
 
         // Act
-        AuthResponseDTO response = authService.login(loginRequest);
+        AuthResponseDTO response = authService.login(loginRequest, CLIENT_IP);
 
         // Assert
         assertNotNull(response);
@@ -207,11 +226,30 @@ class AuthServiceImplTest {
         assertEquals(userResponse, response.getUser());
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtUtil).generateToken(userDetails);
+        verify(jwtUtil).generateToken(user);
         verify(userRepository).findByUsername("testuser");
         verify(userMapper).toResponse(user);
     }
 
+    @Test
+    void login_EntityPrincipal_SkipsUserReload() {
+        // Arrange
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(user);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(authentication);
+        when(jwtUtil.generateToken(any(User.class))).thenReturn("jwt-token");
+        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
+
+        // Act
+        AuthResponseDTO response = authService.login(loginRequest, CLIENT_IP);
+
+        // Assert
+        assertEquals("jwt-token", response.getToken());
+        verify(jwtUtil).generateToken(user);
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
     @Test
     void login_InvalidCredentials_ThrowsException() {
         // Arrange
@@ -219,13 +257,28 @@ class AuthServiceImplTest {
                 .thenThrow(new BadCredentialsException("Invalid credentials"));
 
         // Act & Assert
-        assertThrows(BadCredentialsException.class, () -> authService.login(loginRequest));
+        assertThrows(BadCredentialsException.class, () -> authService.login(loginRequest, CLIENT_IP));
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtUtil, never()).generateToken(any(UserDetails.class));
+        verify(loginAttemptLimiter).acquire("testuser", CLIENT_IP);
+        verify(loginAttemptLimiter).recordFailure("testuser");
+        verify(jwtUtil, never()).generateToken(any(User.class));
         verify(userRepository, never()).findByUsername(anyString());
     }
 
+    @Test
+    void login_Throttled_SkipsPasswordCheck() {
+        // Arrange
+        doThrow(new RateLimitExceededException("Too many login attempts", Duration.ofMinutes(1)))
+                .when(loginAttemptLimiter).acquire("testuser", CLIENT_IP);
+
+        // Act & Assert
+        assertThrows(RateLimitExceededException.class, () -> authService.login(loginRequest, CLIENT_IP));
+
+        verify(authenticationManager, never()).authenticate(any());
+        verify(loginAttemptLimiter, never()).recordFailure(anyString());
+    }
+
     @Test
     void login_UserNotFound_ThrowsException() {
         // Arrange
@@ -240,13 +293,12 @@ class AuthServiceImplTest {
 
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
-        when(jwtUtil.generateToken(any(UserDetails.class))).thenReturn("jwt-token");
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(
                 RuntimeException.class,
-                () -> authService.login(loginRequest)
+                () -> authService.login(loginRequest, CLIENT_IP)
         );
 
         assertEquals("User not found", exception.getMessage());
@@ -268,12 +320,12 @@ class AuthServiceImplTest {
 
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
-        when(jwtUtil.generateToken(any(UserDetails.class))).thenReturn("jwt-token");
+        when(jwtUtil.generateToken(any(User.class))).thenReturn("jwt-token");
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
         when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
 
         // Act
-        authService.login(loginRequest);
+        authService.login(loginRequest, CLIENT_IP);
 
         // Assert - verify correct authentication token was created
         verify(authenticationManager).authenticate(argThat(token ->
@@ -282,4 +334,46 @@ class AuthServiceImplTest {
                 token.getCredentials().equals("password123")
         ));
     }
+
+    @Test
+    void refresh_Success() {
+        // Arrange
+        RefreshTokenRequestDTO request = new RefreshTokenRequestDTO("old-refresh-token");
+        when(refreshTokenService.rotate("old-refresh-token"))
+                .thenReturn(new RefreshTokenService.Rotation(user.getId(), "new-refresh-token"));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(jwtUtil.generateToken(user)).thenReturn("jwt-token");
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        // Act
+        AuthResponseDTO response = authService.refresh(request);
+
+        // Assert
+        assertEquals("jwt-token", response.getToken());
+        assertEquals("new-refresh-token", response.getRefreshToken());
+        assertEquals(userResponse, response.getUser());
+    }
+
+    @Test
+    void refresh_DisabledUser_ThrowsException() {
+        // Arrange
+        user.setEnabled(false);
+        RefreshTokenRequestDTO request = new RefreshTokenRequestDTO("old-refresh-token");
+        when(refreshTokenService.rotate("old-refresh-token"))
+                .thenReturn(new RefreshTokenService.Rotation(user.getId(), "new-refresh-token"));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> authService.refresh(request));
+        verify(jwtUtil, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void logout_RevokesRefreshToken() {
+        // Act
+        authService.logout(new RefreshTokenRequestDTO("refresh-token"));
+
+        // Assert
+        verify(refreshTokenService).revoke("refresh-token");
+    }
 }
@@ -0,0 +1,162 @@
+package online.sevika.tm.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import online.sevika.tm.cache.ActiveSubscriptionCache;
+import online.sevika.tm.entity.SubscriptionPlan;
+import online.sevika.tm.exception.QuotaExceededException;
+import online.sevika.tm.repository.ProjectRepository;
+import online.sevika.tm.repository.SubscriptionRepository;
+import online.sevika.tm.repository.TaskRepository;
+import online.sevika.tm.service.EntitlementService.Entitlements;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntitlementServiceImplTest {
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ActiveSubscriptionCache activeSubscriptionCache;
+
+    private EntitlementServiceImpl entitlementService;
+    private UUID userId;
+    private UUID projectId;
+
+    @BeforeEach
+    void setUp() {
+        entitlementService = new EntitlementServiceImpl(subscriptionRepository, projectRepository, taskRepository,
+                activeSubscriptionCache, new SimpleMeterRegistry(), 2, -1, -1, 100, Duration.ofMinutes(5));
+        userId = UUID.randomUUID();
+        projectId = UUID.randomUUID();
+    }
+
+    @Test
+    void getEntitlements_NoSubscription_ReturnsDefaultsAndCaches() {
+        // Arrange
+        when(subscriptionRepository.findCurrentPlansByUserId(eq(userId), any(LocalDateTime.class))).thenReturn(List.of());
+
+        // Act
+        entitlementService.getEntitlements(userId);
+        Entitlements entitlements = entitlementService.getEntitlements(userId);
+
+        // Assert
+        assertEquals(2, entitlements.maxProjects());
+        assertEquals(-1, entitlements.maxTasksPerProject());
+        assertFalse(entitlements.apiAccess());
+        verify(subscriptionRepository, times(1)).findCurrentPlansByUserId(eq(userId), any(LocalDateTime.class));
+    }
+
+    @Test
+    void evict_ReloadsEntitlementsAndEvictsActiveSubscription() {
+        // Arrange
+        when(subscriptionRepository.findCurrentPlansByUserId(eq(userId), any(LocalDateTime.class))).thenReturn(List.of());
+        entitlementService.getEntitlements(userId);
+
+        // Act
+        entitlementService.evict(userId);
+        entitlementService.getEntitlements(userId);
+
+        // Assert
+        verify(subscriptionRepository, times(2)).findCurrentPlansByUserId(eq(userId), any(LocalDateTime.class));
+        verify(activeSubscriptionCache).evict(userId);
+    }
+
+    @Test
+    void getEntitlements_OverlappingPlans_GrantsMostGenerous() {
+        // Arrange
+        SubscriptionPlan basic = plan(5, 100, 10, false);
+        SubscriptionPlan pro = plan(20, -1, 5, true);
+        when(subscriptionRepository.findCurrentPlansByUserId(eq(userId), any(LocalDateTime.class)))
+                .thenReturn(List.of(basic, pro));
+
+        // Act
+        Entitlements entitlements = entitlementService.getEntitlements(userId);
+
+        // Assert
+        assertEquals(new Entitlements(20, -1, 10, false, false, false, true), entitlements);
+    }
+
+    @Test
+    void acquireProject_CountsOnceThenChecksInMemory() {
+        // Arrange
+        when(subscriptionRepository.findCurrentPlansByUserId(eq(userId), any(LocalDateTime.class))).thenReturn(List.of());
+        when(projectRepository.countByOwnerId(userId)).thenReturn(1L);
+
+        // Act & Assert
+        entitlementService.acquireProject(userId);
+        assertThrows(QuotaExceededException.class, () -> entitlementService.acquireProject(userId));
+        verify(projectRepository, times(1)).countByOwnerId(userId);
+    }
+
+    @Test
+    void releaseProject_FreesSlot() {
+        // Arrange
+        when(subscriptionRepository.findCurrentPlansByUserId(eq(userId), any(LocalDateTime.class))).thenReturn(List.of());
+        when(projectRepository.countByOwnerId(userId)).thenReturn(2L);
+        assertThrows(QuotaExceededException.class, () -> entitlementService.acquireProject(userId));
+
+        // Act
+        entitlementService.releaseProject(userId, projectId);
+
+        // Assert
+        assertDoesNotThrow(() -> entitlementService.acquireProject(userId));
+    }
+
+    @Test
+    void acquireTask_UnlimitedPlan_NeverCounts() {
+        // Arrange
+        when(subscriptionRepository.findCurrentPlansByUserId(eq(userId), any(LocalDateTime.class))).thenReturn(List.of());
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            entitlementService.acquireTask(projectId, userId);
+        }
+
+        // Assert
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void acquireTask_ProjectFull_ThrowsException() {
+        // Arrange
+        when(subscriptionRepository.findCurrentPlansByUserId(eq(userId), any(LocalDateTime.class)))
+                .thenReturn(List.of(plan(5, 3, 10, false)));
+        when(taskRepository.countByProjectId(projectId)).thenReturn(3L);
+
+        // Act & Assert
+        assertThrows(QuotaExceededException.class, () -> entitlementService.acquireTask(projectId, userId));
+    }
+
+    private static SubscriptionPlan plan(int maxProjects, int maxTasksPerProject, int maxTeamMembers, boolean apiAccess) {
+        return SubscriptionPlan.builder()
+                .maxProjects(maxProjects)
+                .maxTasksPerProject(maxTasksPerProject)
+                .maxTeamMembers(maxTeamMembers)
+                .fileAttachments(false)
+                .advancedReporting(false)
+                .prioritySupport(false)
+                .apiAccess(apiAccess)
+                .build();
+    }
+}
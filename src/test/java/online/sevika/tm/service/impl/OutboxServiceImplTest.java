@@ -0,0 +1,156 @@
+package online.sevika.tm.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import online.sevika.tm.entity.OutboxEvent;
+import online.sevika.tm.repository.OutboxEventRepository;
+import online.sevika.tm.service.OutboxHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceImplTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private OutboxHandler handler;
+
+    private OutboxServiceImpl outboxService;
+
+    private UUID eventId;
+    private OutboxEvent event;
+
+    @BeforeEach
+    void setUp() {
+        when(handler.eventType()).thenReturn("audit.activity");
+        outboxService = new OutboxServiceImpl(outboxRepository, new ObjectMapper(), List.of(handler));
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "claimTimeout", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(outboxService, "retryDelay", Duration.ofSeconds(10));
+        eventId = UUID.randomUUID();
+        event = OutboxEvent.builder()
+                .id(eventId)
+                .eventType("audit.activity")
+                .aggregateType("TASK")
+                .aggregateId("task-1")
+                .payload("{}")
+                .attempts(1)
+                .status(OutboxEvent.OutboxStatus.PENDING)
+                .build();
+    }
+
+    @Test
+    void publish_StoresPendingEventWithJsonPayload() {
+        // Act
+        outboxService.publish("audit.activity", "TASK", "task-1", Map.of("action", "DELETED"));
+
+        // Assert
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(saved.capture());
+        assertEquals("{\"action\":\"DELETED\"}", saved.getValue().getPayload());
+        assertEquals(OutboxEvent.OutboxStatus.PENDING, saved.getValue().getStatus());
+        assertEquals(0, saved.getValue().getAttempts());
+        assertEquals(saved.getValue().getCreatedAt(), saved.getValue().getAvailableAt());
+    }
+
+    @Test
+    void dispatch_AppliesAndDeletesEvent() {
+        // Arrange
+        when(outboxRepository.findById(eventId)).thenReturn(Optional.of(event));
+
+        // Act
+        outboxService.dispatch(eventId);
+
+        // Assert
+        verify(handler).handle(event);
+        verify(outboxRepository).delete(event);
+    }
+
+    @Test
+    void dispatch_HandlerFails_KeepsEvent() {
+        // Arrange
+        when(outboxRepository.findById(eventId)).thenReturn(Optional.of(event));
+        doThrow(new IllegalStateException("database down")).when(handler).handle(event);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> outboxService.dispatch(eventId));
+        verify(outboxRepository, never()).delete(any());
+    }
+
+    @Test
+    void dispatch_UnknownEventType_ThrowsException() {
+        // Arrange
+        event.setEventType("project.archived");
+        when(outboxRepository.findById(eventId)).thenReturn(Optional.of(event));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> outboxService.dispatch(eventId));
+        verify(handler, never()).handle(any());
+    }
+
+    @Test
+    void dispatch_DeadEvent_IsSkipped() {
+        // Arrange
+        event.setStatus(OutboxEvent.OutboxStatus.DEAD);
+        when(outboxRepository.findById(eventId)).thenReturn(Optional.of(event));
+
+        // Act
+        outboxService.dispatch(eventId);
+
+        // Assert
+        verify(handler, never()).handle(any());
+        verify(outboxRepository, never()).delete(any());
+    }
+
+    @Test
+    void recordFailure_BacksOffExponentially() {
+        // Arrange
+        event.setAttempts(2);
+        when(outboxRepository.findById(eventId)).thenReturn(Optional.of(event));
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        boolean dead = outboxService.recordFailure(eventId, new IllegalStateException("database down"));
+
+        // Assert
+        assertFalse(dead);
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).markFailed(eq(eventId), retryAt.capture(), eq("java.lang.IllegalStateException: database down"));
+        assertFalse(retryAt.getValue().isBefore(before.plusSeconds(20)));
+        verify(outboxRepository, never()).markDead(any(), anyString());
+    }
+
+    @Test
+    void recordFailure_LastAttempt_DeadLettersEvent() {
+        // Arrange
+        event.setAttempts(3);
+        when(outboxRepository.findById(eventId)).thenReturn(Optional.of(event));
+
+        // Act
+        boolean dead = outboxService.recordFailure(eventId, new IllegalStateException("database down"));
+
+        // Assert
+        assertTrue(dead);
+        verify(outboxRepository).markDead(eventId, "java.lang.IllegalStateException: database down");
+        verify(outboxRepository, never()).markFailed(any(), any(), anyString());
+    }
+}
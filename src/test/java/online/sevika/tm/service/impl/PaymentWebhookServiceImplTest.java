@@ -0,0 +1,227 @@
+package online.sevika.tm.service.impl;
+
+import online.sevika.tm.entity.Payment;
+import online.sevika.tm.entity.PaymentWebhookEvent;
+import online.sevika.tm.entity.Subscription;
+import online.sevika.tm.entity.User;
+import online.sevika.tm.repository.PaymentRepository;
+import online.sevika.tm.repository.PaymentWebhookEventRepository;
+import online.sevika.tm.repository.SubscriptionRepository;
+import online.sevika.tm.service.EntitlementService;
+import online.sevika.tm.service.PaymentGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentWebhookServiceImplTest {
+
+    private static final String CAPTURED = "{\"event\":\"payment.captured\",\"payload\":{\"payment\":{\"entity\":"
+            + "{\"id\":\"pay_1\",\"order_id\":\"order_1\",\"method\":\"upi\"}}}}";
+    private static final String FAILED = "{\"event\":\"payment.failed\",\"payload\":{\"payment\":{\"entity\":"
+            + "{\"id\":\"pay_1\",\"order_id\":\"order_1\",\"error_description\":\"Card declined\"}}}}";
+
+    @Mock
+    private PaymentWebhookEventRepository eventRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private EntitlementService entitlementService;
+
+    @InjectMocks
+    private PaymentWebhookServiceImpl webhookService;
+
+    private UUID inboxId;
+    private User user;
+    private Subscription subscription;
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(webhookService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(webhookService, "claimTimeout", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(webhookService, "retryDelay", Duration.ofSeconds(30));
+        inboxId = UUID.randomUUID();
+        user = User.builder().id(UUID.randomUUID()).username("testuser").build();
+        subscription = Subscription.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .status(Subscription.SubscriptionStatus.TRIAL)
+                .build();
+        payment = Payment.builder()
+                .id(UUID.randomUUID())
+                .subscription(subscription)
+                .status(Payment.PaymentStatus.PENDING)
+                .razorpayOrderId("order_1")
+                .build();
+    }
+
+    @Test
+    void receive_ValidSignature_QueuesEventWithOrderId() {
+        // Arrange
+        when(paymentGateway.verifyWebhookSignature(CAPTURED, "sig")).thenReturn(true);
+        when(eventRepository.insertIfAbsent(any(UUID.class), eq("evt_1"), eq("payment.captured"), eq("order_1"),
+                eq(CAPTURED), any(LocalDateTime.class))).thenReturn(1);
+
+        // Act
+        boolean stored = webhookService.receive(CAPTURED, "sig", "evt_1");
+
+        // Assert
+        assertTrue(stored);
+        verifyNoInteractions(paymentRepository, subscriptionRepository);
+    }
+
+    @Test
+    void receive_Redelivery_ReturnsFalse() {
+        // Arrange
+        when(paymentGateway.verifyWebhookSignature(CAPTURED, "sig")).thenReturn(true);
+        when(eventRepository.insertIfAbsent(any(UUID.class), eq("evt_1"), anyString(), anyString(), anyString(),
+                any(LocalDateTime.class))).thenReturn(0);
+
+        // Act & Assert
+        assertFalse(webhookService.receive(CAPTURED, "sig", "evt_1"));
+    }
+
+    @Test
+    void receive_InvalidSignature_ThrowsException() {
+        // Arrange
+        when(paymentGateway.verifyWebhookSignature(CAPTURED, "forged")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> webhookService.receive(CAPTURED, "forged", "evt_1"));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void process_Captured_MarksPaymentPaidAndActivatesSubscription() {
+        // Arrange
+        stubEvent("payment.captured", CAPTURED);
+        when(paymentRepository.findByRazorpayOrderIdForUpdate("order_1")).thenReturn(Optional.of(payment));
+
+        // Act
+        webhookService.process(inboxId);
+
+        // Assert
+        assertEquals(Payment.PaymentStatus.SUCCESS, payment.getStatus());
+        assertEquals("pay_1", payment.getRazorpayPaymentId());
+        assertEquals("upi", payment.getPaymentMethod());
+        assertNotNull(payment.getPaidAt());
+        assertEquals(Subscription.SubscriptionStatus.ACTIVE, subscription.getStatus());
+        verify(entitlementService).evict(user.getId());
+        verify(eventRepository).markProcessed(eq(inboxId), any(LocalDateTime.class));
+    }
+
+    @Test
+    void process_CapturedTwice_AppliesOnce() {
+        // Arrange
+        payment.setStatus(Payment.PaymentStatus.SUCCESS);
+        subscription.setStatus(Subscription.SubscriptionStatus.ACTIVE);
+        stubEvent("payment.captured", CAPTURED);
+        when(paymentRepository.findByRazorpayOrderIdForUpdate("order_1")).thenReturn(Optional.of(payment));
+
+        // Act
+        webhookService.process(inboxId);
+
+        // Assert
+        verify(paymentRepository, never()).save(any());
+        verify(subscriptionRepository, never()).save(any());
+        verify(eventRepository).markProcessed(eq(inboxId), any(LocalDateTime.class));
+    }
+
+    @Test
+    void process_FailedAfterCapture_KeepsPaymentSuccessful() {
+        // Arrange
+        payment.setStatus(Payment.PaymentStatus.SUCCESS);
+        stubEvent("payment.failed", FAILED);
+        when(paymentRepository.findByRazorpayOrderIdForUpdate("order_1")).thenReturn(Optional.of(payment));
+
+        // Act
+        webhookService.process(inboxId);
+
+        // Assert
+        assertEquals(Payment.PaymentStatus.SUCCESS, payment.getStatus());
+        verify(paymentRepository, never()).save(any());
+    }
+
+    @Test
+    void process_Failed_RecordsReason() {
+        // Arrange
+        stubEvent("payment.failed", FAILED);
+        when(paymentRepository.findByRazorpayOrderIdForUpdate("order_1")).thenReturn(Optional.of(payment));
+
+        // Act
+        webhookService.process(inboxId);
+
+        // Assert
+        assertEquals(Payment.PaymentStatus.FAILED, payment.getStatus());
+        assertEquals("Card declined", payment.getFailureReason());
+        assertEquals(Subscription.SubscriptionStatus.TRIAL, subscription.getStatus());
+    }
+
+    @Test
+    void process_UnknownOrder_MarksProcessed() {
+        // Arrange
+        stubEvent("payment.captured", CAPTURED);
+        when(paymentRepository.findByRazorpayOrderIdForUpdate("order_1")).thenReturn(Optional.empty());
+
+        // Act
+        webhookService.process(inboxId);
+
+        // Assert
+        verify(eventRepository).markProcessed(eq(inboxId), any(LocalDateTime.class));
+        verifyNoInteractions(subscriptionRepository, entitlementService);
+    }
+
+    @Test
+    void recordFailure_BacksOffExponentially() {
+        // Arrange
+        PaymentWebhookEvent event = stubEvent("payment.captured", CAPTURED);
+        event.setAttempts(3);
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        webhookService.recordFailure(inboxId, new IllegalStateException("database down"));
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(eventRepository).markFailed(eq(inboxId), retryAt.capture(), eq("java.lang.IllegalStateException: database down"));
+        assertFalse(retryAt.getValue().isBefore(before.plusMinutes(2)));
+    }
+
+    private PaymentWebhookEvent stubEvent(String eventType, String payload) {
+        PaymentWebhookEvent event = PaymentWebhookEvent.builder()
+                .id(inboxId)
+                .eventId("evt_1")
+                .eventType(eventType)
+                .orderId("order_1")
+                .payload(payload)
+                .attempts(1)
+                .build();
+        when(eventRepository.findById(inboxId)).thenReturn(Optional.of(event));
+        return event;
+    }
+}
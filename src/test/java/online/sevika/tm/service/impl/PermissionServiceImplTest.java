@@ -1,10 +1,13 @@
 package online.sevika.tm.service.impl;
 
+import online.sevika.tm.cache.TeamMembershipIndex;
+import online.sevika.tm.cache.UserCache;
 import online.sevika.tm.dto.PermissionGrantRequestDTO;
 import online.sevika.tm.dto.TaskPermissionResponseDTO;
 import online.sevika.tm.dto.ProjectPermissionResponseDTO;
 import online.sevika.tm.entity.*;
 import online.sevika.tm.entity.enums.PermissionType;
+import online.sevika.tm.entity.enums.TeamRole;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.exception.UnauthorizedException;
 import online.sevika.tm.mapper.PermissionMapper;
@@ -22,6 +25,7 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,7 +47,10 @@ class PermissionServiceImplTest {
     private TeamRepository teamRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
+
+    @Mock
+    private TeamMembershipIndex membershipIndex;
 
     @Mock
     private PermissionMapper permissionMapper;
@@ -130,7 +137,7 @@ class PermissionServiceImplTest {
     void grantProjectPermission_Success() {
         // Arrange
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCache.findById(userId)).thenReturn(Optional.of(user));
         when(projectPermissionRepository.findByProjectIdAndUserId(projectId, userId))
                 .thenReturn(Optional.empty());
         when(projectPermissionRepository.save(any(ProjectPermission.class))).thenReturn(projectPermission);
@@ -144,7 +151,8 @@ class PermissionServiceImplTest {
         // Assert
         assertNotNull(response);
         verify(projectRepository, times(3)).findById(projectId);
-        verify(userRepository, times(2)).findById(userId);
+        verify(userCache).findById(userId);
+        verify(userCache).getUsersByIds(anyCollection());
         verify(projectPermissionRepository).save(any(ProjectPermission.class));
     }
 
@@ -191,8 +199,8 @@ class PermissionServiceImplTest {
         // Arrange
         UUID unauthorizedUserId = UUID.randomUUID();
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(projectPermissionRepository.findUserPermissionsOnProject(projectId, unauthorizedUserId))
-                .thenReturn(Collections.emptyList());
+        when(projectPermissionRepository.findByProjectIdAndUserId(projectId, unauthorizedUserId))
+                .thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(UnauthorizedException.class, () ->
@@ -203,7 +211,7 @@ class PermissionServiceImplTest {
     void grantProjectPermission_DuplicatePermission_ThrowsException() {
         // Arrange
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCache.findById(userId)).thenReturn(Optional.of(user));
         when(projectPermissionRepository.findByProjectIdAndUserId(projectId, userId))
                 .thenReturn(Optional.of(projectPermission));
 
@@ -283,7 +291,8 @@ class PermissionServiceImplTest {
         adminPermission.setPermission(PermissionType.ADMIN);
         
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(projectPermissionRepository.findUserPermissionsOnProject(projectId, userId))
+        when(membershipIndex.teamsOf(userId)).thenReturn(Map.of(teamId, TeamRole.MEMBER));
+        when(projectPermissionRepository.findPermissionsOnProject(projectId, userId, Set.of(teamId)))
                 .thenReturn(Collections.singletonList(adminPermission));
 
         // Act
@@ -297,22 +306,26 @@ class PermissionServiceImplTest {
     void hasProjectPermission_UserWithoutPermission() {
         // Arrange
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(projectPermissionRepository.findUserPermissionsOnProject(projectId, userId))
-                .thenReturn(Collections.emptyList());
+        when(membershipIndex.teamsOf(userId)).thenReturn(Collections.emptyMap());
+        when(projectPermissionRepository.findByProjectIdAndUserId(projectId, userId))
+                .thenReturn(Optional.empty());
 
         // Act
         boolean hasPermission = permissionService.hasProjectPermission(projectId, userId, PermissionType.WRITE);
 
         // Assert
         assertFalse(hasPermission);
+        verify(projectPermissionRepository, never()).findPermissionsOnProject(any(), any(), anyCollection());
     }
 
     @Test
     void grantTaskPermission_Success() {
         // Arrange
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCache.findById(userId)).thenReturn(Optional.of(user));
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+        when(taskPermissionRepository.findByTaskIdAndUserId(taskId, ownerId))
+                .thenReturn(Optional.empty());
         when(taskPermissionRepository.findByTaskIdAndUserId(taskId, userId))
                 .thenReturn(Optional.empty());
         when(taskPermissionRepository.save(any(TaskPermission.class))).thenReturn(taskPermission);
@@ -326,7 +339,8 @@ class PermissionServiceImplTest {
         // Assert
         assertNotNull(response);
         verify(taskRepository, times(3)).findById(taskId);
-        verify(userRepository, times(2)).findById(userId);
+        verify(userCache).findById(userId);
+        verify(userCache).getUsersByIds(anyCollection());
         verify(taskPermissionRepository).save(any(TaskPermission.class));
     }
 
@@ -380,8 +394,9 @@ class PermissionServiceImplTest {
         taskPerm.setPermission(PermissionType.WRITE);
         
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(taskPermissionRepository.findUserPermissionsOnTask(taskId, userId))
-                .thenReturn(Collections.singletonList(taskPerm));
+        when(membershipIndex.teamsOf(userId)).thenReturn(Collections.emptyMap());
+        when(taskPermissionRepository.findByTaskIdAndUserId(taskId, userId))
+                .thenReturn(Optional.of(taskPerm));
 
         // Act
         boolean hasPermission = permissionService.hasTaskPermission(taskId, userId, PermissionType.READ);
@@ -397,10 +412,11 @@ class PermissionServiceImplTest {
         projPerm.setPermission(PermissionType.ADMIN);
         
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(taskPermissionRepository.findUserPermissionsOnTask(taskId, userId))
+        when(membershipIndex.teamsOf(userId)).thenReturn(Map.of(teamId, TeamRole.MEMBER));
+        when(taskPermissionRepository.findPermissionsOnTask(taskId, userId, Set.of(teamId)))
                 .thenReturn(Collections.emptyList());
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(projectPermissionRepository.findUserPermissionsOnProject(projectId, userId))
+        when(projectPermissionRepository.findPermissionsOnProject(projectId, userId, Set.of(teamId)))
                 .thenReturn(Collections.singletonList(projPerm));
 
         // Act
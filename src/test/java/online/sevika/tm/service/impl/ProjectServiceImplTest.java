@@ -1,17 +1,22 @@
 package online.sevika.tm.service.impl;
 
+import online.sevika.tm.cache.TaskDueDateIndex;
+import online.sevika.tm.cache.UserCache;
 import online.sevika.tm.dto.ProjectRequestDTO;
 import online.sevika.tm.dto.ProjectResponseDTO;
 import online.sevika.tm.dto.ProjectSummaryDTO;
 import online.sevika.tm.dto.ProjectUpdateRequestDTO;
-
 import online.sevika.tm.entity.Project;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.entity.enums.AuditAction;
+import online.sevika.tm.entity.enums.EntityType;
+import online.sevika.tm.exception.PreconditionFailedException;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.exception.UnauthorizedException;
 import online.sevika.tm.mapper.ProjectMapper;
 import online.sevika.tm.repository.ProjectRepository;
-import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.service.AuditLogService;
+import online.sevika.tm.service.EntitlementService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,6 +32,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -39,11 +46,20 @@ class ProjectServiceImplTest {
     private ProjectRepository projectRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private ProjectMapper projectMapper;
 
+    @Mock
+    private TaskDueDateIndex taskDueDateIndex;
+
+    @Mock
+    private EntitlementService entitlementService;
+
+    @Mock
+    private AuditLogService auditLogService;
+
     @InjectMocks
     private ProjectServiceImpl projectService;
 
@@ -87,7 +103,7 @@ class ProjectServiceImplTest {
     @Test
     void createProject_Success() {
         // Arrange
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userCache.findById(owner.getId())).thenReturn(Optional.of(owner));
         when(projectMapper.toEntity(request)).thenReturn(project);
         when(projectRepository.save(any(Project.class))).thenReturn(project);
         when(projectMapper.toResponse(project)).thenReturn(response);
@@ -99,12 +115,15 @@ class ProjectServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.getName()).isEqualTo("Test Project");
         verify(projectRepository).save(any(Project.class));
+        verify(entitlementService).acquireProject(owner.getId());
+        verify(auditLogService).recordActivity(EntityType.PROJECT, project.getId().toString(), AuditAction.CREATED,
+                null, response, "Project created: Test Project");
     }
 
     @Test
     void createProject_UserNotFound_ThrowsException() {
         // Arrange
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.empty());
+        when(userCache.findById(owner.getId())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> projectService.createProject(request, owner.getId()))
@@ -178,7 +197,7 @@ class ProjectServiceImplTest {
                 .build();
 
         when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userCache.findById(owner.getId())).thenReturn(Optional.of(owner));
         when(projectRepository.save(project)).thenReturn(project);
         when(projectMapper.toResponse(project)).thenReturn(response);
 
@@ -191,6 +210,22 @@ class ProjectServiceImplTest {
         verify(projectRepository).save(project);
     }
 
+    @Test
+    void updateProject_StaleVersion_ThrowsPreconditionFailed() {
+        // Arrange
+        project.setVersion(3L);
+        ProjectUpdateRequestDTO updateRequest = ProjectUpdateRequestDTO.builder()
+                .name("Updated Project")
+                .build();
+
+        when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+
+        // Act & Assert
+        assertThatThrownBy(() -> projectService.updateProject(project.getId(), updateRequest, owner.getId(), 2L))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(projectRepository, never()).save(any());
+    }
+
     @Test
     void updateProject_NotOwner_ThrowsException() {
         // Arrange
@@ -205,7 +240,7 @@ class ProjectServiceImplTest {
                 .build();
 
         when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
-        when(userRepository.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
+        when(userCache.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
 
         // Act & Assert
         assertThatThrownBy(() -> projectService.updateProject(project.getId(), updateRequest, otherUser.getId()))
@@ -227,7 +262,7 @@ class ProjectServiceImplTest {
                 .build();
 
         when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
-        when(userRepository.findById(admin.getId())).thenReturn(Optional.of(admin));
+        when(userCache.findById(admin.getId())).thenReturn(Optional.of(admin));
         when(projectRepository.save(project)).thenReturn(project);
         when(projectMapper.toResponse(project)).thenReturn(response);
 
@@ -243,13 +278,16 @@ class ProjectServiceImplTest {
     void deleteProject_Success() {
         // Arrange
         when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userCache.findById(owner.getId())).thenReturn(Optional.of(owner));
 
         // Act
         projectService.deleteProject(project.getId(), owner.getId());
 
         // Assert
         verify(projectRepository).deleteById(project.getId());
+        verify(entitlementService).releaseProject(owner.getId(), project.getId());
+        verify(auditLogService).recordActivity(eq(EntityType.PROJECT), eq(project.getId().toString()),
+                eq(AuditAction.DELETED), isNull(), isNull(), any());
     }
 
     @Test
@@ -262,12 +300,13 @@ class ProjectServiceImplTest {
                 .build();
 
         when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
-        when(userRepository.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
+        when(userCache.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
 
         // Act & Assert
         assertThatThrownBy(() -> projectService.deleteProject(project.getId(), otherUser.getId()))
                 .isInstanceOf(UnauthorizedException.class)
                 .hasMessageContaining("don't have permission");
         verify(projectRepository, never()).deleteById(any());
+        verifyNoInteractions(auditLogService);
     }
 }
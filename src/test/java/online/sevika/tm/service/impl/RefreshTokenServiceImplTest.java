@@ -0,0 +1,117 @@
+package online.sevika.tm.service.impl;
+
+import online.sevika.tm.entity.RefreshToken;
+import online.sevika.tm.exception.InvalidTokenException;
+import online.sevika.tm.repository.RefreshTokenRepository;
+import online.sevika.tm.service.RefreshTokenService;
+import online.sevika.tm.util.TokenHashing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    private UUID userId;
+    private RefreshToken storedToken;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpiration", 604800000L);
+        userId = UUID.randomUUID();
+        storedToken = RefreshToken.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .familyId(UUID.randomUUID())
+                .tokenHash(TokenHashing.sha256("refresh-token"))
+                .createdAt(LocalDateTime.now().minusHours(1))
+                .expiresAt(LocalDateTime.now().plusDays(6))
+                .build();
+    }
+
+    @Test
+    void issue_StoresOnlyTheDigest() {
+        // Act
+        String token = refreshTokenService.issue(userId);
+
+        // Assert
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken saved = captor.getValue();
+        assertEquals(userId, saved.getUserId());
+        assertNotNull(saved.getFamilyId());
+        assertArrayEquals(TokenHashing.sha256(token), saved.getTokenHash());
+        assertTrue(saved.getExpiresAt().isAfter(LocalDateTime.now().plusDays(6)));
+    }
+
+    @Test
+    void rotate_Success_IssuesTokenInSameFamily() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(any(byte[].class))).thenReturn(Optional.of(storedToken));
+        when(refreshTokenRepository.markRotated(eq(storedToken.getId()), any(LocalDateTime.class))).thenReturn(1);
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("refresh-token");
+
+        // Assert
+        assertEquals(userId, rotation.userId());
+        assertNotEquals("refresh-token", rotation.refreshToken());
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(storedToken.getFamilyId(), captor.getValue().getFamilyId());
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void rotate_ReusedToken_RevokesFamily() {
+        // Arrange
+        storedToken.setRotatedAt(LocalDateTime.now().minusMinutes(5));
+        when(refreshTokenRepository.findByTokenHash(any(byte[].class))).thenReturn(Optional.of(storedToken));
+        when(refreshTokenRepository.markRotated(eq(storedToken.getId()), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("refresh-token"));
+        verify(refreshTokenRepository).revokeFamily(eq(storedToken.getFamilyId()), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_ExpiredToken_ThrowsException() {
+        // Arrange
+        storedToken.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(any(byte[].class))).thenReturn(Optional.of(storedToken));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("refresh-token"));
+        verify(refreshTokenRepository, never()).markRotated(any(), any());
+    }
+
+    @Test
+    void rotate_UnknownToken_ThrowsException() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(any(byte[].class))).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+}
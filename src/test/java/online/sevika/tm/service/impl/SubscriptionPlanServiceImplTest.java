@@ -6,6 +6,7 @@ import online.sevika.tm.entity.SubscriptionPlan;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.mapper.SubscriptionPlanMapper;
 import online.sevika.tm.repository.SubscriptionPlanRepository;
+import online.sevika.tm.service.EntitlementService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,6 +37,9 @@ class SubscriptionPlanServiceImplTest {
     @Mock
     private SubscriptionPlanMapper subscriptionPlanMapper;
 
+    @Mock
+    private EntitlementService entitlementService;
+
     @InjectMocks
     private SubscriptionPlanServiceImpl subscriptionPlanService;
 
@@ -188,6 +192,7 @@ class SubscriptionPlanServiceImplTest {
         assertThat(result).isNotNull();
         verify(subscriptionPlanMapper).updateEntityFromDto(updateRequest, plan);
         verify(subscriptionPlanRepository).save(plan);
+        verify(entitlementService).evictAll();
     }
 
     @Test
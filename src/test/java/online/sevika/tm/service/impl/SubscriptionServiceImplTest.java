@@ -1,16 +1,20 @@
 package online.sevika.tm.service.impl;
 
+import online.sevika.tm.cache.ActiveSubscriptionCache;
+import online.sevika.tm.cache.UserCache;
 import online.sevika.tm.dto.SubscriptionRequestDTO;
 import online.sevika.tm.dto.SubscriptionResponseDTO;
 import online.sevika.tm.dto.RazorpayOrderResponseDTO;
 import online.sevika.tm.dto.PaymentVerificationRequestDTO;
 import online.sevika.tm.dto.PaymentResponseDTO;
-import com.razorpay.Order;
-import com.razorpay.RazorpayException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import online.sevika.tm.entity.Payment;
 import online.sevika.tm.entity.Subscription;
 import online.sevika.tm.entity.SubscriptionPlan;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.entity.enums.AuditAction;
+import online.sevika.tm.entity.enums.EntityType;
+import online.sevika.tm.exception.PaymentGatewayException;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.exception.UnauthorizedException;
 import online.sevika.tm.mapper.PaymentMapper;
@@ -18,15 +22,22 @@ import online.sevika.tm.mapper.SubscriptionMapper;
 import online.sevika.tm.repository.PaymentRepository;
 import online.sevika.tm.repository.SubscriptionPlanRepository;
 import online.sevika.tm.repository.SubscriptionRepository;
-import online.sevika.tm.repository.UserRepository;
-import online.sevika.tm.service.RazorpayService;
-import org.json.JSONObject;
+import online.sevika.tm.repository.projection.ExpiredSubscriptionView;
+import online.sevika.tm.service.AuditLogService;
+import online.sevika.tm.service.EntitlementService;
+import online.sevika.tm.service.PaymentGateway;
+import online.sevika.tm.service.PaymentGateway.GatewayOrder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -35,6 +46,7 @@ import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,7 +59,7 @@ class SubscriptionServiceImplTest {
     private SubscriptionPlanRepository subscriptionPlanRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private PaymentRepository paymentRepository;
@@ -59,7 +71,22 @@ class SubscriptionServiceImplTest {
     private PaymentMapper paymentMapper;
 
     @Mock
-    private RazorpayService razorpayService;
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private EntitlementService entitlementService;
+
+    @Mock
+    private ActiveSubscriptionCache activeSubscriptionCache;
+
+    @Mock
+    private AuditLogService auditLogService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private SubscriptionServiceImpl subscriptionService;
@@ -73,10 +100,10 @@ class SubscriptionServiceImplTest {
     private Payment payment;
     private SubscriptionRequestDTO subscriptionRequest;
     private SubscriptionResponseDTO subscriptionResponse;
-    private Order razorpayOrder;
+    private GatewayOrder gatewayOrder;
 
     @BeforeEach
-    void setUp() throws RazorpayException {
+    void setUp() {
         userId = UUID.randomUUID();
         planId = UUID.randomUUID();
         subscriptionId = UUID.randomUUID();
@@ -127,23 +154,20 @@ class SubscriptionServiceImplTest {
                 .status(Subscription.SubscriptionStatus.ACTIVE)
                 .build();
 
-        // Mock Razorpay Order
-        JSONObject orderJson = new JSONObject();
-        orderJson.put("id", "order_123");
-        orderJson.put("amount", 99900);
-        orderJson.put("currency", "INR");
-        razorpayOrder = new Order(orderJson);
+        gatewayOrder = new GatewayOrder("order_123", 99900, "INR");
     }
 
     @Test
-    void createSubscription_Success() throws RazorpayException {
+    void createSubscription_Success() {
         // Arrange
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        runTransactionsInline();
+        doCallRealMethod().when(transactionTemplate).executeWithoutResult(any());
+        when(userCache.findById(userId)).thenReturn(Optional.of(user));
         when(subscriptionPlanRepository.findById(planId)).thenReturn(Optional.of(plan));
         when(subscriptionRepository.save(any(Subscription.class))).thenReturn(subscription);
-        when(razorpayService.createOrder(any(BigDecimal.class), anyString(), anyString()))
-                .thenReturn(razorpayOrder);
-        when(razorpayService.getKeyId()).thenReturn("rzp_test_key");
+        when(paymentGateway.createOrder(any(BigDecimal.class), anyString(), anyString()))
+                .thenReturn(gatewayOrder);
+        when(paymentGateway.getKeyId()).thenReturn("rzp_test_key");
         when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
 
         // Act
@@ -153,15 +177,24 @@ class SubscriptionServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals("order_123", response.getOrderId());
+        assertEquals("99900", response.getAmount());
         assertEquals("rzp_test_key", response.getKey());
         verify(subscriptionRepository).save(any(Subscription.class));
         verify(paymentRepository).save(any(Payment.class));
+        verify(paymentRepository).attachOrder(payment.getId(), "order_123");
+        // Gateway call happens between two separate transactions, never inside one
+        InOrder inOrder = inOrder(transactionTemplate, paymentGateway);
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(paymentGateway).createOrder(any(BigDecimal.class), anyString(), anyString());
+        inOrder.verify(transactionTemplate).executeWithoutResult(any());
+        verify(entitlementService).evict(userId);
     }
 
     @Test
     void createSubscription_UserNotFound_ThrowsException() {
         // Arrange
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        runTransactionsInline();
+        when(userCache.findById(userId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () ->
@@ -173,7 +206,8 @@ class SubscriptionServiceImplTest {
     @Test
     void createSubscription_PlanNotFound_ThrowsException() {
         // Arrange
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        runTransactionsInline();
+        when(userCache.findById(userId)).thenReturn(Optional.of(user));
         when(subscriptionPlanRepository.findById(planId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -186,8 +220,9 @@ class SubscriptionServiceImplTest {
     @Test
     void createSubscription_InactivePlan_ThrowsException() {
         // Arrange
+        runTransactionsInline();
         plan.setActive(false);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCache.findById(userId)).thenReturn(Optional.of(user));
         when(subscriptionPlanRepository.findById(planId)).thenReturn(Optional.of(plan));
 
         // Act & Assert
@@ -196,17 +231,25 @@ class SubscriptionServiceImplTest {
     }
 
     @Test
-    void createSubscription_RazorpayError_ThrowsException() throws RazorpayException {
+    void createSubscription_GatewayError_CancelsReservation() {
         // Arrange
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        runTransactionsInline();
+        doCallRealMethod().when(transactionTemplate).executeWithoutResult(any());
+        when(userCache.findById(userId)).thenReturn(Optional.of(user));
         when(subscriptionPlanRepository.findById(planId)).thenReturn(Optional.of(plan));
         when(subscriptionRepository.save(any(Subscription.class))).thenReturn(subscription);
-        when(razorpayService.createOrder(any(BigDecimal.class), anyString(), anyString()))
-                .thenThrow(new RazorpayException("Payment gateway error"));
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        when(paymentGateway.createOrder(any(BigDecimal.class), anyString(), anyString()))
+                .thenThrow(new PaymentGatewayException("Payment gateway error"));
+        when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () ->
+        assertThrows(PaymentGatewayException.class, () ->
                 subscriptionService.createSubscription(subscriptionRequest, userId));
+        assertEquals(Payment.PaymentStatus.FAILED, payment.getStatus());
+        assertEquals(Subscription.SubscriptionStatus.CANCELLED, subscription.getStatus());
+        verify(paymentRepository, never()).attachOrder(any(), any());
+        verify(entitlementService, times(2)).evict(userId);
     }
 
     @Test
@@ -222,7 +265,7 @@ class SubscriptionServiceImplTest {
 
         when(subscriptionRepository.findById(subscriptionId)).thenReturn(Optional.of(subscription));
         when(paymentRepository.findByRazorpayOrderId("order_123")).thenReturn(Optional.of(payment));
-        when(razorpayService.verifyPaymentSignature(anyString(), anyString(), anyString()))
+        when(paymentGateway.verifyPaymentSignature(anyString(), anyString(), anyString()))
                 .thenReturn(true);
         when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
         when(subscriptionRepository.save(any(Subscription.class))).thenReturn(subscription);
@@ -235,6 +278,7 @@ class SubscriptionServiceImplTest {
         assertNotNull(response);
         verify(paymentRepository).save(any(Payment.class));
         verify(subscriptionRepository).save(any(Subscription.class));
+        verify(entitlementService).evict(userId);
     }
 
     @Test
@@ -250,7 +294,7 @@ class SubscriptionServiceImplTest {
 
         when(subscriptionRepository.findById(subscriptionId)).thenReturn(Optional.of(subscription));
         when(paymentRepository.findByRazorpayOrderId("order_123")).thenReturn(Optional.of(payment));
-        when(razorpayService.verifyPaymentSignature(anyString(), anyString(), anyString()))
+        when(paymentGateway.verifyPaymentSignature(anyString(), anyString(), anyString()))
                 .thenReturn(false);
         when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
 
@@ -265,8 +309,8 @@ class SubscriptionServiceImplTest {
     void getActiveSubscription_Success() {
         // Arrange
         subscription.setStatus(Subscription.SubscriptionStatus.ACTIVE);
-        when(subscriptionRepository.findActiveSubscriptionByUserId(userId))
-                .thenReturn(Optional.of(subscription));
+        when(activeSubscriptionCache.get(userId)).thenReturn(Optional.of(activeSnapshot()));
+        when(subscriptionRepository.findById(subscriptionId)).thenReturn(Optional.of(subscription));
         when(subscriptionMapper.toResponse(any(Subscription.class))).thenReturn(subscriptionResponse);
 
         // Act
@@ -275,20 +319,65 @@ class SubscriptionServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals(subscriptionId, response.getId());
-        verify(subscriptionRepository).findActiveSubscriptionByUserId(userId);
+        verify(activeSubscriptionCache, never()).reload(any());
     }
 
     @Test
     void getActiveSubscription_NoActiveSubscription_ReturnsNull() {
         // Arrange
-        when(subscriptionRepository.findActiveSubscriptionByUserId(userId))
-                .thenReturn(Optional.empty());
+        when(activeSubscriptionCache.get(userId)).thenReturn(Optional.empty());
+
+        // Act
+        SubscriptionResponseDTO response = subscriptionService.getActiveSubscription(userId);
+
+        // Assert
+        assertNull(response);
+        verifyNoInteractions(subscriptionRepository);
+    }
+
+    @Test
+    void getActiveSubscription_CancelledSinceCached_ReturnsNull() {
+        // Arrange
+        subscription.setStatus(Subscription.SubscriptionStatus.CANCELLED);
+        when(activeSubscriptionCache.get(userId)).thenReturn(Optional.of(activeSnapshot()));
+        when(subscriptionRepository.findById(subscriptionId)).thenReturn(Optional.of(subscription));
+        when(activeSubscriptionCache.reload(userId)).thenReturn(Optional.empty());
 
         // Act
         SubscriptionResponseDTO response = subscriptionService.getActiveSubscription(userId);
 
         // Assert
         assertNull(response);
+        verify(activeSubscriptionCache).reload(userId);
+    }
+
+    @Test
+    void getActiveSubscription_CancelledSinceCachedAndNewerExists_ReturnsNewer() {
+        // Arrange
+        subscription.setStatus(Subscription.SubscriptionStatus.CANCELLED);
+        UUID newerId = UUID.randomUUID();
+        Subscription newer = Subscription.builder()
+                .id(newerId)
+                .user(user)
+                .plan(plan)
+                .status(Subscription.SubscriptionStatus.ACTIVE)
+                .startDate(LocalDateTime.now())
+                .endDate(LocalDateTime.now().plusYears(1))
+                .build();
+        SubscriptionResponseDTO newerResponse = SubscriptionResponseDTO.builder().id(newerId).build();
+        when(activeSubscriptionCache.get(userId)).thenReturn(Optional.of(activeSnapshot()));
+        when(subscriptionRepository.findById(subscriptionId)).thenReturn(Optional.of(subscription));
+        when(activeSubscriptionCache.reload(userId)).thenReturn(Optional.of(new ActiveSubscriptionCache.ActiveSubscription(
+                newerId, planId, Subscription.SubscriptionStatus.ACTIVE, newer.getEndDate())));
+        when(subscriptionRepository.findById(newerId)).thenReturn(Optional.of(newer));
+        when(subscriptionMapper.toResponse(newer)).thenReturn(newerResponse);
+
+        // Act
+        SubscriptionResponseDTO response = subscriptionService.getActiveSubscription(userId);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(newerId, response.getId());
     }
 
     @Test
@@ -321,6 +410,9 @@ class SubscriptionServiceImplTest {
                 sub.getStatus() == Subscription.SubscriptionStatus.CANCELLED &&
                 !sub.getAutoRenew()
         ));
+        verify(entitlementService).evict(userId);
+        verify(auditLogService).recordActivity(EntityType.SUBSCRIPTION, subscriptionId.toString(),
+                AuditAction.STATUS_CHANGED, "TRIAL", "CANCELLED", "Subscription cancelled");
     }
 
     @Test
@@ -379,32 +471,70 @@ class SubscriptionServiceImplTest {
     }
 
     @Test
-    void updateExpiredSubscriptions_Success() {
+    void updateExpiredSubscriptions_ExpiresInBatchesUntilShortBatch() {
         // Arrange
-        Subscription expiredSub1 = Subscription.builder()
-                .id(UUID.randomUUID())
-                .status(Subscription.SubscriptionStatus.ACTIVE)
-                .endDate(LocalDateTime.now().minusDays(1))
-                .build();
-        
-        Subscription expiredSub2 = Subscription.builder()
-                .id(UUID.randomUUID())
-                .status(Subscription.SubscriptionStatus.ACTIVE)
-                .endDate(LocalDateTime.now().minusDays(5))
-                .build();
+        ReflectionTestUtils.setField(subscriptionService, "expiryBatchSize", 2);
+        runTransactionsInline();
+        UUID otherUserId = UUID.randomUUID();
+        List<ExpiredSubscriptionView> fullBatch = List.of(expired(userId), expired(otherUserId));
+        List<ExpiredSubscriptionView> lastBatch = List.of(expired(userId));
+        when(subscriptionRepository.expireLapsedBatch(any(LocalDateTime.class), eq(2)))
+                .thenReturn(fullBatch, lastBatch);
 
-        when(subscriptionRepository.findExpiredActiveSubscriptions(any(LocalDateTime.class)))
-                .thenReturn(Arrays.asList(expiredSub1, expiredSub2));
-        when(subscriptionRepository.save(any(Subscription.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        // Act
+        int expired = subscriptionService.updateExpiredSubscriptions();
+
+        // Assert
+        assertEquals(3, expired);
+        verify(subscriptionRepository, times(2)).expireLapsedBatch(any(LocalDateTime.class), eq(2));
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(auditLogService, times(3)).recordActivity(eq(EntityType.SUBSCRIPTION), anyString(),
+                eq(AuditAction.STATUS_CHANGED), eq("ACTIVE"), eq("EXPIRED"), anyString());
+        verify(entitlementService, times(2)).evict(userId);
+        verify(entitlementService).evict(otherUserId);
+        verify(subscriptionRepository, never()).save(any());
+        assertEquals(3.0, meterRegistry.counter("subscriptions.expired").count());
+        assertEquals(2, meterRegistry.timer("subscriptions.expiry.batch").count());
+    }
+
+    @Test
+    void updateExpiredSubscriptions_NothingLapsed_RunsOneBatch() {
+        // Arrange
+        ReflectionTestUtils.setField(subscriptionService, "expiryBatchSize", 2);
+        runTransactionsInline();
+        when(subscriptionRepository.expireLapsedBatch(any(LocalDateTime.class), eq(2))).thenReturn(List.of());
 
         // Act
-        subscriptionService.updateExpiredSubscriptions();
+        int expired = subscriptionService.updateExpiredSubscriptions();
 
         // Assert
-        verify(subscriptionRepository).findExpiredActiveSubscriptions(any(LocalDateTime.class));
-        verify(subscriptionRepository, times(2)).save(argThat(sub ->
-                sub.getStatus() == Subscription.SubscriptionStatus.EXPIRED
-        ));
+        assertEquals(0, expired);
+        verify(subscriptionRepository, times(1)).expireLapsedBatch(any(LocalDateTime.class), eq(2));
+        verifyNoInteractions(auditLogService, entitlementService, activeSubscriptionCache);
+    }
+
+    private ActiveSubscriptionCache.ActiveSubscription activeSnapshot() {
+        return new ActiveSubscriptionCache.ActiveSubscription(subscriptionId, planId,
+                Subscription.SubscriptionStatus.ACTIVE, subscription.getEndDate());
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static ExpiredSubscriptionView expired(UUID userId) {
+        UUID id = UUID.randomUUID();
+        return new ExpiredSubscriptionView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+        };
     }
 }
@@ -1,17 +1,33 @@
 package online.sevika.tm.service.impl;
 
+import online.sevika.tm.dto.ProjectSummaryDTO;
+import online.sevika.tm.dto.TaskBoardColumnDTO;
+import online.sevika.tm.dto.TaskBoardDTO;
+import online.sevika.tm.dto.TaskDueBucketsDTO;
 import online.sevika.tm.dto.TaskResponseDTO;
+import online.sevika.tm.dto.TaskSummaryDTO;
 import online.sevika.tm.dto.TaskRequestDTO;
 import online.sevika.tm.dto.TaskUpdateRequestDTO;
+import online.sevika.tm.dto.UserSummaryDTO;
+import online.sevika.tm.cache.TaskDueDateIndex;
+import online.sevika.tm.cache.UserCache;
 import online.sevika.tm.entity.Project;
 import online.sevika.tm.entity.Task;
 import online.sevika.tm.entity.User;
+import online.sevika.tm.entity.enums.AuditAction;
+import online.sevika.tm.entity.enums.EntityType;
+import online.sevika.tm.exception.PreconditionFailedException;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.exception.UnauthorizedException;
 import online.sevika.tm.mapper.TaskMapper;
 import online.sevika.tm.repository.ProjectRepository;
 import online.sevika.tm.repository.TaskRepository;
-import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.repository.projection.TaskBoardCardView;
+import online.sevika.tm.repository.projection.TaskStatusUpdateView;
+import online.sevika.tm.repository.projection.TaskVersionView;
+import online.sevika.tm.service.AuditLogService;
+import online.sevika.tm.service.EntitlementService;
+import online.sevika.tm.util.ETags;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +36,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +46,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -43,11 +63,20 @@ class TaskServiceImplTest {
     private ProjectRepository projectRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private TaskDueDateIndex taskDueDateIndex;
+
+    @Mock
+    private EntitlementService entitlementService;
+
+    @Mock
+    private AuditLogService auditLogService;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -115,8 +144,8 @@ class TaskServiceImplTest {
     void createTask_Success() {
         // Arrange
         when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(userRepository.findById(assignee.getId())).thenReturn(Optional.of(assignee));
+        when(userCache.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userCache.findById(assignee.getId())).thenReturn(Optional.of(assignee));
         when(taskMapper.toEntity(request)).thenReturn(task);
         when(taskRepository.save(any(Task.class))).thenReturn(task);
         when(taskMapper.toResponse(task)).thenReturn(response);
@@ -128,6 +157,7 @@ class TaskServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.getTitle()).isEqualTo("Test Task");
         verify(taskRepository).save(any(Task.class));
+        verify(entitlementService).acquireTask(project.getId(), owner.getId());
     }
 
     @Test
@@ -151,7 +181,7 @@ class TaskServiceImplTest {
                 .build();
 
         when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userCache.findById(owner.getId())).thenReturn(Optional.of(owner));
         when(taskMapper.toEntity(requestWithoutAssignee)).thenReturn(task);
         when(taskRepository.save(any(Task.class))).thenReturn(task);
         when(taskMapper.toResponse(task)).thenReturn(response);
@@ -245,7 +275,7 @@ class TaskServiceImplTest {
                 .build();
 
         when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userCache.findById(owner.getId())).thenReturn(Optional.of(owner));
         when(taskRepository.save(task)).thenReturn(task);
         when(taskMapper.toResponse(task)).thenReturn(response);
 
@@ -266,7 +296,7 @@ class TaskServiceImplTest {
                 .build();
 
         when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
-        when(userRepository.findById(assignee.getId())).thenReturn(Optional.of(assignee));
+        when(userCache.findById(assignee.getId())).thenReturn(Optional.of(assignee));
         when(taskRepository.save(task)).thenReturn(task);
         when(taskMapper.toResponse(task)).thenReturn(response);
 
@@ -278,6 +308,54 @@ class TaskServiceImplTest {
         verify(taskRepository).save(task);
     }
 
+    @Test
+    void updateTask_StaleVersion_ThrowsPreconditionFailed() {
+        // Arrange
+        task.setVersion(5L);
+        TaskUpdateRequestDTO updateRequest = TaskUpdateRequestDTO.builder()
+                .title("Updated Task")
+                .build();
+
+        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
+
+        // Act & Assert
+        assertThatThrownBy(() -> taskService.updateTask(task.getId(), updateRequest, owner.getId(), 4L))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void getTaskETag_MatchesTagOfFullResponse() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+        TaskVersionView view = mock(TaskVersionView.class);
+        when(view.getVersion()).thenReturn(7L);
+        when(view.getUpdatedAt()).thenReturn(updatedAt);
+        when(view.getProjectVersion()).thenReturn(2L);
+        when(view.getAssignedToUpdatedAt()).thenReturn(updatedAt.minusDays(1));
+        when(view.getCreatedByUpdatedAt()).thenReturn(updatedAt.minusDays(2));
+        when(taskRepository.findVersionById(task.getId())).thenReturn(Optional.of(view));
+
+        TaskResponseDTO fullResponse = TaskResponseDTO.builder()
+                .id(task.getId())
+                .version(7L)
+                .updatedAt(updatedAt)
+                .project(ProjectSummaryDTO.builder().id(project.getId()).version(2L).build())
+                .assignedTo(UserSummaryDTO.builder().id(assignee.getId()).updatedAt(updatedAt.minusDays(1)).build())
+                .createdBy(UserSummaryDTO.builder().id(owner.getId()).updatedAt(updatedAt.minusDays(2)).build())
+                .build();
+
+        // Act
+        String etag = taskService.getTaskETag(task.getId());
+
+        // Assert
+        assertThat(etag).isEqualTo(ETags.forTask(fullResponse));
+        fullResponse.getAssignedTo().setUpdatedAt(updatedAt);
+        assertThat(etag).isNotEqualTo(ETags.forTask(fullResponse));
+        assertThat(ETags.expectedVersion(etag)).isEqualTo(7L);
+        verify(taskRepository, never()).findById(any());
+    }
+
     @Test
     void updateTask_Unauthorized_ThrowsException() {
         // Arrange
@@ -292,7 +370,7 @@ class TaskServiceImplTest {
                 .build();
 
         when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
-        when(userRepository.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
+        when(userCache.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
 
         // Act & Assert
         assertThatThrownBy(() -> taskService.updateTask(task.getId(), updateRequest, otherUser.getId()))
@@ -303,30 +381,80 @@ class TaskServiceImplTest {
     @Test
     void updateTaskStatus_Success() {
         // Arrange
-        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(taskRepository.save(task)).thenReturn(task);
-        when(taskMapper.toResponse(task)).thenReturn(response);
+        TaskStatusUpdateView updated = mock(TaskStatusUpdateView.class);
+        when(updated.getProjectId()).thenReturn(project.getId());
+        when(taskRepository.updateStatusIfPermitted(eq(task.getId()), eq("DONE"), any(LocalDateTime.class), eq(owner.getId()), eq(-1L)))
+                .thenReturn(Optional.of(updated));
+        when(taskMapper.toResponse(updated)).thenReturn(response);
 
         // Act
         TaskResponseDTO result = taskService.updateTaskStatus(task.getId(), Task.TaskStatus.DONE, owner.getId());
 
         // Assert
         assertThat(result).isNotNull();
-        verify(taskRepository).save(task);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any());
+        verifyNoInteractions(userCache);
+        verify(taskDueDateIndex).onTaskSaved(task.getId(), project.getId(), null, null, Task.TaskStatus.DONE);
+        verify(auditLogService).recordActivity(EntityType.TASK, task.getId().toString(), AuditAction.STATUS_CHANGED,
+                null, "DONE", "Task status changed to: DONE");
+    }
+
+    @Test
+    void updateTaskStatus_NoAccess_ThrowsUnauthorized() {
+        // Arrange
+        TaskVersionView current = mock(TaskVersionView.class);
+        when(taskRepository.updateStatusIfPermitted(eq(task.getId()), eq("DONE"), any(LocalDateTime.class), eq(assignee.getId()), eq(-1L)))
+                .thenReturn(Optional.empty());
+        when(taskRepository.findVersionById(task.getId())).thenReturn(Optional.of(current));
+
+        // Act & Assert
+        assertThatThrownBy(() -> taskService.updateTaskStatus(task.getId(), Task.TaskStatus.DONE, assignee.getId()))
+                .isInstanceOf(UnauthorizedException.class);
+        verifyNoInteractions(taskDueDateIndex, auditLogService);
+    }
+
+    @Test
+    void updateTaskStatus_StaleVersion_ThrowsPreconditionFailed() {
+        // Arrange
+        TaskVersionView current = mock(TaskVersionView.class);
+        when(current.getVersion()).thenReturn(4L);
+        when(taskRepository.updateStatusIfPermitted(eq(task.getId()), eq("DONE"), any(LocalDateTime.class), eq(owner.getId()), eq(3L)))
+                .thenReturn(Optional.empty());
+        when(taskRepository.findVersionById(task.getId())).thenReturn(Optional.of(current));
+
+        // Act & Assert
+        assertThatThrownBy(() -> taskService.updateTaskStatus(task.getId(), Task.TaskStatus.DONE, owner.getId(), 3L))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    @Test
+    void updateTaskStatus_TaskNotFound_ThrowsException() {
+        // Arrange
+        UUID missingId = UUID.randomUUID();
+        when(taskRepository.updateStatusIfPermitted(eq(missingId), eq("DONE"), any(LocalDateTime.class), eq(owner.getId()), eq(-1L)))
+                .thenReturn(Optional.empty());
+        when(taskRepository.findVersionById(missingId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> taskService.updateTaskStatus(missingId, Task.TaskStatus.DONE, owner.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
     }
 
     @Test
     void deleteTask_Success() {
         // Arrange
         when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userCache.findById(owner.getId())).thenReturn(Optional.of(owner));
 
         // Act
         taskService.deleteTask(task.getId(), owner.getId());
 
         // Assert
         verify(taskRepository).deleteById(task.getId());
+        verify(entitlementService).releaseTask(project.getId());
+        verify(auditLogService).recordActivity(EntityType.TASK, task.getId().toString(), AuditAction.DELETED,
+                null, null, "Task deleted");
     }
 
     @Test
@@ -339,7 +467,7 @@ class TaskServiceImplTest {
                 .build();
 
         when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
-        when(userRepository.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
+        when(userCache.findById(otherUser.getId())).thenReturn(Optional.of(otherUser));
 
         // Act & Assert
         assertThatThrownBy(() -> taskService.deleteTask(task.getId(), otherUser.getId()))
@@ -362,13 +490,180 @@ class TaskServiceImplTest {
                 .build();
 
         List<Task> tasks = Arrays.asList(overdueTask);
-        when(taskRepository.findOverdueTasks(any(LocalDate.class))).thenReturn(tasks);
+        when(taskDueDateIndex.overdue(any(LocalDate.class), eq(500))).thenReturn(List.of(overdueTask.getId()));
+        when(taskRepository.findAllWithDetailsByIdIn(List.of(overdueTask.getId()))).thenReturn(tasks);
         when(taskMapper.toResponse(overdueTask)).thenReturn(response);
 
         // Act
-        List<TaskResponseDTO> results = taskService.getOverdueTasks();
+        List<TaskResponseDTO> results = taskService.getOverdueTasks(10_000);
 
         // Assert
         assertThat(results).hasSize(1);
     }
+
+    @Test
+    void getDueTasksForProject_LoadsDetailsInBatches() {
+        // Arrange
+        List<UUID> overdueIds = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            overdueIds.add(UUID.randomUUID());
+        }
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(taskDueDateIndex.bucketsForProject(eq(project.getId()), any(LocalDate.class)))
+                .thenReturn(new TaskDueDateIndex.DueBuckets(overdueIds, List.of(), List.of()));
+        when(taskRepository.findAllWithDetailsByIdIn(anyCollection())).thenReturn(List.of());
+
+        // Act
+        taskService.getDueTasksForProject(project.getId());
+
+        // Assert
+        verify(taskRepository).findAllWithDetailsByIdIn(overdueIds.subList(0, 500));
+        verify(taskRepository).findAllWithDetailsByIdIn(overdueIds.subList(500, 1_000));
+        verify(taskRepository).findAllWithDetailsByIdIn(overdueIds.subList(1_000, 1_200));
+    }
+
+    @Test
+    void getDueTasksForUser_SplitsTasksIntoBuckets() {
+        // Arrange
+        Task overdueTask = Task.builder().id(UUID.randomUUID()).project(project).createdBy(owner).build();
+        Task todayTask = Task.builder().id(UUID.randomUUID()).project(project).createdBy(owner).build();
+        TaskResponseDTO overdueResponse = TaskResponseDTO.builder().id(overdueTask.getId()).build();
+        TaskResponseDTO todayResponse = TaskResponseDTO.builder().id(todayTask.getId()).build();
+        when(taskDueDateIndex.bucketsForAssignee(eq(assignee.getId()), any(LocalDate.class)))
+                .thenReturn(new TaskDueDateIndex.DueBuckets(List.of(overdueTask.getId()), List.of(todayTask.getId()), List.of()));
+        when(taskRepository.findAllWithDetailsByIdIn(List.of(overdueTask.getId(), todayTask.getId())))
+                .thenReturn(List.of(todayTask, overdueTask));
+        when(taskMapper.toResponse(overdueTask)).thenReturn(overdueResponse);
+        when(taskMapper.toResponse(todayTask)).thenReturn(todayResponse);
+
+        // Act
+        TaskDueBucketsDTO buckets = taskService.getDueTasksForUser(assignee.getId());
+
+        // Assert
+        assertThat(buckets.getOverdue()).containsExactly(overdueResponse);
+        assertThat(buckets.getDueToday()).containsExactly(todayResponse);
+        assertThat(buckets.getDueThisWeek()).isEmpty();
+    }
+
+    @Test
+    void searchTasks_ReturnsTasksInRankOrder() {
+        // Arrange
+        Task otherTask = Task.builder()
+                .id(UUID.randomUUID())
+                .title("Other Task")
+                .project(project)
+                .createdBy(owner)
+                .build();
+        TaskResponseDTO otherResponse = TaskResponseDTO.builder()
+                .id(otherTask.getId())
+                .title(otherTask.getTitle())
+                .build();
+
+        when(taskRepository.searchTaskIds("test:* & task:*", project.getId().toString(), null,
+                "TODO", null, owner.getId(), 20, 20))
+                .thenReturn(Arrays.asList(otherTask.getId(), task.getId()));
+        when(taskRepository.findAllWithDetailsByIdIn(Arrays.asList(otherTask.getId(), task.getId())))
+                .thenReturn(Arrays.asList(task, otherTask));
+        when(taskMapper.toResponse(task)).thenReturn(response);
+        when(taskMapper.toResponse(otherTask)).thenReturn(otherResponse);
+
+        // Act
+        List<TaskResponseDTO> results = taskService.searchTasks(
+                "Test, task!", project.getId(), null, Task.TaskStatus.TODO, null, owner.getId(), 1, 20);
+
+        // Assert
+        assertThat(results).extracting(TaskResponseDTO::getTitle).containsExactly("Other Task", "Test Task");
+    }
+
+    @Test
+    void searchTasks_BlankQuery_ReturnsEmptyWithoutQuerying() {
+        // Act
+        List<TaskResponseDTO> results = taskService.searchTasks(
+                "  --  ", null, null, null, null, owner.getId(), 0, 20);
+
+        // Assert
+        assertThat(results).isEmpty();
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getTaskBoard_GroupsCardsIntoEveryStatusColumn() {
+        // Arrange
+        TaskBoardCardView first = boardCard(UUID.randomUUID(), "TODO", "HIGH", 0, LocalDate.now(), 3L);
+        TaskBoardCardView second = boardCard(UUID.randomUUID(), "TODO", "LOW", 2, null, 3L);
+        TaskBoardCardView done = boardCard(UUID.randomUUID(), "DONE", "MEDIUM", 1, null, 1L);
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(taskRepository.findBoardCards(project.getId(), 2)).thenReturn(List.of(first, second, done));
+
+        // Act
+        TaskBoardDTO board = taskService.getTaskBoard(project.getId(), 2);
+
+        // Assert
+        assertThat(board.getColumns()).extracting(TaskBoardColumnDTO::getStatus)
+                .containsExactly(Task.TaskStatus.values());
+        TaskBoardColumnDTO todo = board.getColumns().get(0);
+        assertThat(todo.getTotalCount()).isEqualTo(3L);
+        assertThat(todo.getCards()).extracting(TaskSummaryDTO::getId).containsExactly(first.getId(), second.getId());
+        assertThat(todo.getNextCursor()).isNotNull();
+        TaskBoardColumnDTO inProgress = board.getColumns().get(1);
+        assertThat(inProgress.getTotalCount()).isZero();
+        assertThat(inProgress.getCards()).isEmpty();
+        assertThat(inProgress.getNextCursor()).isNull();
+        TaskBoardColumnDTO doneColumn = board.getColumns().get(Task.TaskStatus.DONE.ordinal());
+        assertThat(doneColumn.getTotalCount()).isEqualTo(1L);
+        assertThat(doneColumn.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTaskBoardColumn_ContinuesAfterCursor() {
+        // Arrange
+        UUID lastId = UUID.randomUUID();
+        String cursor = TaskServiceImpl.encodeBoardCursor(boardCard(lastId, "TODO", "LOW", 2, null, null));
+        TaskBoardCardView next = boardCard(UUID.randomUUID(), "TODO", "LOW", 2, null, null);
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(taskRepository.findBoardCardsAfter(project.getId(), "TODO", 2, LocalDate.of(9999, 12, 31), lastId, 3))
+                .thenReturn(List.of(next));
+
+        // Act
+        TaskBoardColumnDTO column = taskService.getTaskBoardColumn(project.getId(), Task.TaskStatus.TODO, cursor, 2);
+
+        // Assert
+        assertThat(column.getCards()).extracting(TaskSummaryDTO::getId).containsExactly(next.getId());
+        assertThat(column.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTaskBoardColumn_InvalidCursor_ThrowsException() {
+        // Arrange
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> taskService.getTaskBoardColumn(project.getId(), Task.TaskStatus.TODO, "not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid board cursor");
+    }
+
+    @Test
+    void getTaskBoard_ProjectNotFound_ThrowsException() {
+        // Arrange
+        when(projectRepository.existsById(project.getId())).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> taskService.getTaskBoard(project.getId(), 20))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(taskRepository);
+    }
+
+    private TaskBoardCardView boardCard(UUID id, String status, String priority, int priorityRank,
+                                        LocalDate dueDate, Long columnCount) {
+        return new TaskBoardCardView() {
+            public UUID getId() { return id; }
+            public String getTitle() { return "Card " + id; }
+            public String getStatus() { return status; }
+            public String getPriority() { return priority; }
+            public LocalDate getDueDate() { return dueDate; }
+            public Integer getPriorityRank() { return priorityRank; }
+            public Long getColumnCount() { return columnCount; }
+        };
+    }
 }
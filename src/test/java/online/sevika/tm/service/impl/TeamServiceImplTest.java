@@ -1,5 +1,9 @@
 package online.sevika.tm.service.impl;
 
+import online.sevika.tm.cache.TeamMembershipIndex;
+import online.sevika.tm.cache.UserCache;
+import online.sevika.tm.dto.TeamMemberBulkRequestDTO;
+import online.sevika.tm.dto.TeamMemberBulkResultDTO;
 import online.sevika.tm.dto.TeamMemberRequestDTO;
 import online.sevika.tm.dto.TeamRequestDTO;
 import online.sevika.tm.dto.TeamMemberResponseDTO;
@@ -8,16 +12,20 @@ import online.sevika.tm.entity.Team;
 import online.sevika.tm.entity.TeamMember;
 import online.sevika.tm.entity.User;
 import online.sevika.tm.entity.enums.TeamRole;
+import online.sevika.tm.exception.QuotaExceededException;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.exception.UnauthorizedException;
 import online.sevika.tm.mapper.TeamMapper;
 import online.sevika.tm.mapper.TeamMemberMapper;
 import online.sevika.tm.repository.TeamMemberRepository;
 import online.sevika.tm.repository.TeamRepository;
-import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.repository.projection.TeamMemberDetailsView;
+import online.sevika.tm.service.EntitlementService;
+import online.sevika.tm.service.EntitlementService.Entitlements;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -27,7 +35,11 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,7 +52,10 @@ class TeamServiceImplTest {
     private TeamMemberRepository teamMemberRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
+
+    @Mock
+    private TeamMembershipIndex membershipIndex;
 
     @Mock
     private TeamMapper teamMapper;
@@ -48,6 +63,9 @@ class TeamServiceImplTest {
     @Mock
     private TeamMemberMapper teamMemberMapper;
 
+    @Mock
+    private EntitlementService entitlementService;
+
     @InjectMocks
     private TeamServiceImpl teamService;
 
@@ -122,12 +140,11 @@ class TeamServiceImplTest {
     void createTeam_Success() {
         // Arrange
         when(teamRepository.existsByName(anyString())).thenReturn(false);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(userCache.findById(ownerId)).thenReturn(Optional.of(owner));
         when(teamMapper.toEntity(any(TeamRequestDTO.class))).thenReturn(team);
         when(teamRepository.save(any(Team.class))).thenReturn(team);
         when(teamMemberRepository.save(any(TeamMember.class))).thenReturn(teamMember);
         when(teamMapper.toResponse(any(Team.class))).thenReturn(teamResponse);
-        when(teamMemberRepository.countByTeamId(any(UUID.class))).thenReturn(1L);
 
         // Act
         TeamResponseDTO response = teamService.createTeam(teamRequest, ownerId);
@@ -136,9 +153,11 @@ class TeamServiceImplTest {
         assertNotNull(response);
         assertEquals("Test Team", response.getName());
         verify(teamRepository).existsByName("Test Team");
-        verify(userRepository, times(2)).findById(ownerId);
+        verify(userCache).findById(ownerId);
+        assertEquals(1, team.getMemberCount());
         verify(teamRepository).save(any(Team.class));
         verify(teamMemberRepository).save(any(TeamMember.class));
+        verify(membershipIndex).invalidateMembership(team.getId(), ownerId);
     }
 
     @Test
@@ -157,7 +176,7 @@ class TeamServiceImplTest {
     void createTeam_OwnerNotFound_ThrowsException() {
         // Arrange
         when(teamRepository.existsByName(anyString())).thenReturn(false);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.empty());
+        when(userCache.findById(ownerId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () ->
@@ -169,7 +188,6 @@ class TeamServiceImplTest {
         // Arrange
         when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
         when(teamMapper.toResponse(any(Team.class))).thenReturn(teamResponse);
-        when(teamMemberRepository.countByTeamId(teamId)).thenReturn(1L);
 
         // Act
         TeamResponseDTO response = teamService.getTeamById(teamId);
@@ -194,10 +212,10 @@ class TeamServiceImplTest {
     void updateTeam_Success() {
         // Arrange
         when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
         when(teamRepository.save(any(Team.class))).thenReturn(team);
         when(teamMapper.toResponse(any(Team.class))).thenReturn(teamResponse);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(teamMemberRepository.countByTeamId(any(UUID.class))).thenReturn(1L);
+        when(userCache.findById(ownerId)).thenReturn(Optional.of(owner));
 
         // Act
         TeamResponseDTO response = teamService.updateTeam(teamId, teamRequest, ownerId);
@@ -218,8 +236,7 @@ class TeamServiceImplTest {
                 .build();
         
         when(teamRepository.findById(teamId)).thenReturn(Optional.of(teamWithDifferentOwner));
-        when(teamMemberRepository.findByTeamIdAndUserId(teamId, unauthorizedUserId))
-                .thenReturn(Optional.empty());
+        when(membershipIndex.roleOf(teamId, unauthorizedUserId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(UnauthorizedException.class, () ->
@@ -230,12 +247,14 @@ class TeamServiceImplTest {
     void deleteTeam_Success() {
         // Arrange
         when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
 
         // Act
         teamService.deleteTeam(teamId, ownerId);
 
         // Assert
         verify(teamRepository).delete(team);
+        verify(membershipIndex).invalidateTeam(teamId);
     }
 
     @Test
@@ -249,6 +268,7 @@ class TeamServiceImplTest {
                 teamService.deleteTeam(teamId, notOwnerId));
 
         verify(teamRepository, never()).delete(any());
+        verify(membershipIndex, never()).invalidateTeam(any());
     }
 
     @Test
@@ -257,7 +277,6 @@ class TeamServiceImplTest {
         when(teamRepository.findByOwnerId(ownerId))
                 .thenReturn(Collections.singletonList(team));
         when(teamMapper.toResponse(any(Team.class))).thenReturn(teamResponse);
-        when(teamMemberRepository.countByTeamId(teamId)).thenReturn(1L);
 
         // Act
         List<TeamResponseDTO> teams = teamService.getTeamsOwnedByUser(ownerId);
@@ -265,6 +284,7 @@ class TeamServiceImplTest {
         // Assert
         assertNotNull(teams);
         assertEquals(1, teams.size());
+        verifyNoInteractions(teamMemberRepository);
         verify(teamRepository).findByOwnerId(ownerId);
     }
 
@@ -274,7 +294,6 @@ class TeamServiceImplTest {
         when(teamRepository.findTeamsByUserId(memberId))
                 .thenReturn(Collections.singletonList(team));
         when(teamMapper.toResponse(any(Team.class))).thenReturn(teamResponse);
-        when(teamMemberRepository.countByTeamId(teamId)).thenReturn(1L);
 
         // Act
         List<TeamResponseDTO> teams = teamService.getTeamsForUser(memberId);
@@ -282,6 +301,7 @@ class TeamServiceImplTest {
         // Assert
         assertNotNull(teams);
         assertEquals(1, teams.size());
+        verifyNoInteractions(teamMemberRepository);
         verify(teamRepository).findTeamsByUserId(memberId);
     }
 
@@ -289,8 +309,11 @@ class TeamServiceImplTest {
     void addTeamMember_Success() {
         // Arrange
         when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
         when(teamMemberRepository.existsByTeamIdAndUserId(teamId, memberId)).thenReturn(false);
-        when(userRepository.findById(memberId)).thenReturn(Optional.of(member));
+        when(userCache.findById(memberId)).thenReturn(Optional.of(member));
+        stubMemberLimit(5);
+        when(teamRepository.incrementMemberCount(teamId, 5)).thenReturn(Optional.of(2));
         when(teamMemberRepository.save(any(TeamMember.class))).thenReturn(teamMember);
         when(teamMemberMapper.toResponse(any(TeamMember.class))).thenReturn(memberResponse);
 
@@ -300,12 +323,63 @@ class TeamServiceImplTest {
         // Assert
         assertNotNull(response);
         verify(teamMemberRepository).save(any(TeamMember.class));
+        verify(membershipIndex).invalidateMembership(teamId, memberId);
+    }
+
+    @Test
+    void addTeamMember_TeamFull_ThrowsException() {
+        // Arrange
+        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
+        when(teamMemberRepository.existsByTeamIdAndUserId(teamId, memberId)).thenReturn(false);
+        when(userCache.findById(memberId)).thenReturn(Optional.of(member));
+        stubMemberLimit(5);
+        when(teamRepository.incrementMemberCount(teamId, 5)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(QuotaExceededException.class, () ->
+                teamService.addTeamMember(teamId, memberRequest, ownerId));
+        verify(teamMemberRepository, never()).save(any());
+    }
+
+    @Test
+    void addTeamMember_StoredCountAtLimit_RejectsBeforeQueries() {
+        // Arrange
+        team.setMemberCount(5);
+        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
+        stubMemberLimit(5);
+
+        // Act & Assert
+        assertThrows(QuotaExceededException.class, () ->
+                teamService.addTeamMember(teamId, memberRequest, ownerId));
+        verify(teamMemberRepository, never()).existsByTeamIdAndUserId(any(), any());
+        verify(teamRepository, never()).incrementMemberCount(any(), anyInt());
+    }
+
+    @Test
+    void addTeamMember_UnlimitedDefault_PassesMaxLimit() {
+        // Arrange
+        stubMemberLimit(-1);
+        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
+        when(teamMemberRepository.existsByTeamIdAndUserId(teamId, memberId)).thenReturn(false);
+        when(userCache.findById(memberId)).thenReturn(Optional.of(member));
+        when(teamRepository.incrementMemberCount(teamId, Integer.MAX_VALUE))
+                .thenReturn(Optional.of(2));
+        when(teamMemberRepository.save(any(TeamMember.class))).thenReturn(teamMember);
+        when(teamMemberMapper.toResponse(any(TeamMember.class))).thenReturn(memberResponse);
+
+        // Act & Assert
+        assertNotNull(teamService.addTeamMember(teamId, memberRequest, ownerId));
     }
 
     @Test
     void addTeamMember_AlreadyExists_ThrowsException() {
         // Arrange
         when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
+        stubMemberLimit(5);
         when(teamMemberRepository.existsByTeamIdAndUserId(teamId, memberId)).thenReturn(true);
 
         // Act & Assert
@@ -313,10 +387,69 @@ class TeamServiceImplTest {
                 teamService.addTeamMember(teamId, memberRequest, ownerId));
     }
 
+    @Test
+    void addTeamMembers_SkipsUnknownUsersAndExistingMembers() {
+        // Arrange
+        UUID newMemberId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        TeamMemberBulkRequestDTO request = new TeamMemberBulkRequestDTO(
+                List.of(newMemberId, memberId, unknownId, newMemberId), TeamRole.MEMBER);
+        Set<UUID> requested = new LinkedHashSet<>(List.of(newMemberId, memberId, unknownId));
+        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
+        stubMemberLimit(5);
+        when(userCache.getUsersByIds(requested)).thenReturn(Map.of(newMemberId, owner, memberId, member));
+        when(teamMemberRepository.findMemberUserIds(teamId, requested)).thenReturn(List.of(memberId));
+        when(teamMemberRepository.insertAllIgnoringExisting(anyList())).thenReturn(1);
+        when(teamRepository.addToMemberCount(teamId, 1, 5)).thenReturn(Optional.of(3));
+
+        // Act
+        TeamMemberBulkResultDTO result = teamService.addTeamMembers(teamId, request, ownerId);
+
+        // Assert
+        assertEquals(3, result.getRequested());
+        assertEquals(1, result.getAdded());
+        assertEquals(List.of(memberId), result.getAlreadyMembers());
+        assertEquals(List.of(unknownId), result.getNotFound());
+        verify(teamMemberRepository).insertAllIgnoringExisting(argThat(members ->
+                members.size() == 1 && members.get(0).getUserId().equals(newMemberId)));
+        verify(membershipIndex).invalidateMembers(teamId, List.of(newMemberId));
+    }
+
+    @Test
+    void addTeamMembers_OverPlanLimit_ThrowsException() {
+        // Arrange
+        UUID newMemberId = UUID.randomUUID();
+        TeamMemberBulkRequestDTO request = new TeamMemberBulkRequestDTO(List.of(newMemberId), TeamRole.MEMBER);
+        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
+        stubMemberLimit(5);
+        when(userCache.getUsersByIds(any())).thenReturn(Map.of(newMemberId, member));
+        when(teamMemberRepository.findMemberUserIds(eq(teamId), any())).thenReturn(List.of());
+        when(teamMemberRepository.insertAllIgnoringExisting(anyList())).thenReturn(1);
+        when(teamRepository.addToMemberCount(teamId, 1, 5)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(QuotaExceededException.class, () -> teamService.addTeamMembers(teamId, request, ownerId));
+        verify(membershipIndex, never()).invalidateMembers(any(), any());
+    }
+
+    @Test
+    void addTeamMembers_NotAuthorized_ThrowsException() {
+        // Arrange
+        TeamMemberBulkRequestDTO request = new TeamMemberBulkRequestDTO(List.of(memberId), TeamRole.MEMBER);
+        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class, () -> teamService.addTeamMembers(teamId, request, memberId));
+        verify(teamMemberRepository, never()).insertAllIgnoringExisting(any());
+    }
+
     @Test
     void removeTeamMember_Success() {
         // Arrange
         when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
         when(teamMemberRepository.findByTeamIdAndUserId(teamId, memberId))
                 .thenReturn(Optional.of(teamMember));
 
@@ -325,12 +458,15 @@ class TeamServiceImplTest {
 
         // Assert
         verify(teamMemberRepository).delete(teamMember);
+        verify(teamRepository).decrementMemberCount(teamId);
+        verify(membershipIndex).invalidateMembership(teamId, memberId);
     }
 
     @Test
     void removeTeamMember_CannotRemoveOwner_ThrowsException() {
         // Arrange
         when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () ->
@@ -343,6 +479,7 @@ class TeamServiceImplTest {
     void updateTeamMemberRole_Success() {
         // Arrange
         when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
         when(teamMemberRepository.findByTeamIdAndUserId(teamId, memberId))
                 .thenReturn(Optional.of(teamMember));
         when(teamMemberRepository.save(any(TeamMember.class))).thenReturn(teamMember);
@@ -355,12 +492,14 @@ class TeamServiceImplTest {
         // Assert
         assertNotNull(response);
         verify(teamMemberRepository).save(any(TeamMember.class));
+        verify(membershipIndex).invalidateMembership(teamId, memberId);
     }
 
     @Test
     void updateTeamMemberRole_CannotChangeOwnerRole_ThrowsException() {
         // Arrange
         when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () ->
@@ -370,10 +509,10 @@ class TeamServiceImplTest {
     @Test
     void getTeamMembers_Success() {
         // Arrange
-        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
-        when(teamMemberRepository.findByTeamId(teamId))
-                .thenReturn(Collections.singletonList(teamMember));
-        when(teamMemberMapper.toResponse(any(TeamMember.class))).thenReturn(memberResponse);
+        TeamMemberDetailsView details = mock(TeamMemberDetailsView.class);
+        when(teamRepository.existsById(teamId)).thenReturn(true);
+        when(teamMemberRepository.findDetailsByTeamId(teamId)).thenReturn(List.of(details));
+        when(teamMemberMapper.toResponse(details)).thenReturn(memberResponse);
 
         // Act
         List<TeamMemberResponseDTO> members = teamService.getTeamMembers(teamId);
@@ -381,13 +520,25 @@ class TeamServiceImplTest {
         // Assert
         assertNotNull(members);
         assertEquals(1, members.size());
-        verify(teamMemberRepository).findByTeamId(teamId);
+        verify(teamMemberRepository).findDetailsByTeamId(teamId);
+        verify(teamRepository, never()).findById(any());
+        verifyNoInteractions(userCache);
+    }
+
+    @Test
+    void getTeamMembers_TeamNotFound_ThrowsException() {
+        // Arrange
+        when(teamRepository.existsById(teamId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> teamService.getTeamMembers(teamId));
+        verify(teamMemberRepository, never()).findDetailsByTeamId(any());
     }
 
     @Test
     void isTeamOwner_ReturnsTrue() {
         // Arrange
-        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
 
         // Act
         boolean isOwner = teamService.isTeamOwner(teamId, ownerId);
@@ -399,7 +550,7 @@ class TeamServiceImplTest {
     @Test
     void isTeamOwner_ReturnsFalse() {
         // Arrange
-        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, memberId)).thenReturn(false);
 
         // Act
         boolean isOwner = teamService.isTeamOwner(teamId, memberId);
@@ -411,7 +562,7 @@ class TeamServiceImplTest {
     @Test
     void isTeamAdminOrOwner_OwnerReturnsTrue() {
         // Arrange
-        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(membershipIndex.isOwner(teamId, ownerId)).thenReturn(true);
 
         // Act
         boolean isAdminOrOwner = teamService.isTeamAdminOrOwner(teamId, ownerId);
@@ -423,12 +574,7 @@ class TeamServiceImplTest {
     @Test
     void isTeamAdminOrOwner_AdminReturnsTrue() {
         // Arrange
-        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
-        TeamMember adminMember = TeamMember.builder()
-                .role(TeamRole.ADMIN)
-                .build();
-        when(teamMemberRepository.findByTeamIdAndUserId(teamId, memberId))
-                .thenReturn(Optional.of(adminMember));
+        when(membershipIndex.roleOf(teamId, memberId)).thenReturn(Optional.of(TeamRole.ADMIN));
 
         // Act
         boolean isAdminOrOwner = teamService.isTeamAdminOrOwner(teamId, memberId);
@@ -436,4 +582,38 @@ class TeamServiceImplTest {
         // Assert
         assertTrue(isAdminOrOwner);
     }
+
+    @Test
+    void isTeamAdminOrOwner_MemberReturnsFalse() {
+        // Arrange
+        when(membershipIndex.roleOf(teamId, memberId)).thenReturn(Optional.of(TeamRole.MEMBER));
+
+        // Act
+        boolean isAdminOrOwner = teamService.isTeamAdminOrOwner(teamId, memberId);
+
+        // Assert
+        assertFalse(isAdminOrOwner);
+        verifyNoInteractions(teamMemberRepository);
+    }
+
+    @Test
+    void reconcileMemberCounts_RecountsDriftedTeamsUnderLock() {
+        // Arrange
+        UUID driftedId = UUID.randomUUID();
+        when(teamRepository.findIdsWithMemberCountDrift()).thenReturn(List.of(driftedId));
+
+        // Act
+        int repaired = teamService.reconcileMemberCounts();
+
+        // Assert
+        assertEquals(1, repaired);
+        InOrder inOrder = inOrder(teamRepository);
+        inOrder.verify(teamRepository).lockById(driftedId);
+        inOrder.verify(teamRepository).recountMembers(driftedId);
+    }
+
+    private void stubMemberLimit(int maxTeamMembers) {
+        when(entitlementService.getEntitlements(ownerId))
+                .thenReturn(new Entitlements(-1, -1, maxTeamMembers, false, false, false, false));
+    }
 }
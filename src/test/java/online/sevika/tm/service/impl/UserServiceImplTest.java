@@ -1,12 +1,20 @@
 package online.sevika.tm.service.impl;
 
+import online.sevika.tm.cache.TeamMembershipIndex;
+import online.sevika.tm.cache.UserCache;
+import online.sevika.tm.dto.UserDirectoryDTO;
 import online.sevika.tm.dto.UserRequestDTO;
 import online.sevika.tm.dto.UserResponseDTO;
+import online.sevika.tm.dto.UserSummaryDTO;
+import online.sevika.tm.dto.UserUpdateRequestDTO;
 import online.sevika.tm.entity.User;
 import online.sevika.tm.exception.DuplicateResourceException;
 import online.sevika.tm.exception.ResourceNotFoundException;
 import online.sevika.tm.mapper.UserMapper;
 import online.sevika.tm.repository.UserRepository;
+import online.sevika.tm.repository.projection.UserSummaryView;
+import online.sevika.tm.security.TokenVersionRegistry;
+import online.sevika.tm.service.RefreshTokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,11 +23,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -38,12 +48,24 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private TeamMembershipIndex membershipIndex;
+
     @Mock
     private UserMapper userMapper;
 
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -119,7 +141,7 @@ class UserServiceImplTest {
     void getUserById_Success() {
         // Arrange
         UUID userId = UUID.randomUUID();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCache.findById(userId)).thenReturn(Optional.of(user));
         when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
 
         // Act
@@ -134,7 +156,7 @@ class UserServiceImplTest {
     void getUserById_NotFound_ThrowsException() {
         // Arrange
         UUID userId = UUID.randomUUID();
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userCache.findById(userId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
@@ -154,5 +176,103 @@ class UserServiceImplTest {
 
         // Assert
         verify(userRepository, times(1)).deleteById(userId);
+        verify(tokenVersionRegistry).evict(userId);
+        verify(userCache).evict(userId);
+        verify(membershipIndex).invalidateUser(userId);
+    }
+
+    @Test
+    void updateUser_PasswordChange_RevokesTokens() {
+        // Arrange
+        UserUpdateRequestDTO updateRequest = UserUpdateRequestDTO.builder()
+                .password("New@1234")
+                .build();
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(passwordEncoder.encode("New@1234")).thenReturn("newEncodedPassword");
+        when(userRepository.save(user)).thenReturn(user);
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        // Act
+        userService.updateUser(user.getId(), updateRequest);
+
+        // Assert
+        assertEquals("newEncodedPassword", user.getPassword());
+        assertEquals(1, user.getTokenVersion());
+        verify(tokenVersionRegistry).evict(user.getId());
+        verify(refreshTokenService).revokeAllForUser(user.getId());
+        verify(userCache).evict(user.getId());
+    }
+
+    @Test
+    void updateUser_NoPasswordChange_KeepsTokens() {
+        // Arrange
+        UserUpdateRequestDTO updateRequest = UserUpdateRequestDTO.builder()
+                .firstName("Renamed")
+                .build();
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        // Act
+        userService.updateUser(user.getId(), updateRequest);
+
+        // Assert
+        assertEquals(0, user.getTokenVersion());
+        verify(tokenVersionRegistry, never()).evict(any());
+        verify(refreshTokenService, never()).revokeAllForUser(any());
+        verify(userCache).evict(user.getId());
+    }
+
+    @Test
+    void getUserDirectory_NoQuery_PagesByUsername() {
+        // Arrange
+        UserSummaryView first = directoryEntry("alice");
+        UserSummaryView second = directoryEntry("bob");
+        when(userRepository.findDirectoryPage("", 2)).thenReturn(List.of(first, second));
+        when(userMapper.toSummary(any(UserSummaryView.class))).thenReturn(new UserSummaryDTO());
+
+        // Act
+        UserDirectoryDTO directory = userService.getUserDirectory(null, null, 1);
+
+        // Assert
+        assertEquals(1, directory.getUsers().size());
+        assertEquals("alice", UserServiceImpl.decodeDirectoryCursor(directory.getNextCursor()));
+        verify(userRepository, never()).searchDirectoryPage(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void getUserDirectory_WithQueryAndCursor_SearchesAfterCursor() {
+        // Arrange
+        String cursor = UserServiceImpl.encodeDirectoryCursor("alice");
+        UserSummaryView john = directoryEntry("john");
+        when(userRepository.searchDirectoryPage("jo%", "alice", 21)).thenReturn(List.of(john));
+        when(userMapper.toSummary(any(UserSummaryView.class))).thenReturn(new UserSummaryDTO());
+
+        // Act
+        UserDirectoryDTO directory = userService.getUserDirectory(" Jo ", cursor, 20);
+
+        // Assert
+        assertEquals(1, directory.getUsers().size());
+        assertNull(directory.getNextCursor());
+    }
+
+    @Test
+    void getUserDirectory_InvalidCursor_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> userService.getUserDirectory(null, "not base64!", 20));
+    }
+
+    @Test
+    void toLikePrefix_EscapesWildcardsAndCollapsesWhitespace() {
+        // Act & Assert
+        assertEquals("", UserServiceImpl.toLikePrefix("  "));
+        assertEquals("john smith%", UserServiceImpl.toLikePrefix("John   Smith"));
+        assertEquals("100\\%\\_a\\\\%", UserServiceImpl.toLikePrefix("100%_a\\"));
+    }
+
+    private static UserSummaryView directoryEntry(String username) {
+        UserSummaryView view = mock(UserSummaryView.class);
+        lenient().when(view.getUsername()).thenReturn(username);
+        return view;
     }
 }
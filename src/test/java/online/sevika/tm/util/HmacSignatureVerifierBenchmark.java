@@ -0,0 +1,105 @@
+package online.sevika.tm.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Formatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of payment and webhook signature verification from concurrent threads, against
+ * the previous approach (new Mac per call, Formatter hex encoding, String comparison).
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=online.sevika.tm.util.HmacSignatureVerifierBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class HmacSignatureVerifierBenchmark {
+
+    private static final String SECRET = "rzp_benchmark_key_secret";
+
+    private HmacSignatureVerifier verifier;
+    private String paymentData;
+    private String paymentSignature;
+    private String tamperedSignature;
+    private String webhookPayload;
+    private String webhookSignature;
+
+    @Setup
+    public void setUp() {
+        verifier = new HmacSignatureVerifier(SECRET);
+        paymentData = "order_NvYlqXwzB8d1Ke|pay_NvYm2kR3mZpQfA";
+        paymentSignature = verifier.sign(paymentData);
+        char last = paymentSignature.charAt(paymentSignature.length() - 1);
+        tamperedSignature = paymentSignature.substring(0, paymentSignature.length() - 1) + (last == 'a' ? 'b' : 'a');
+
+        // Typical payment.captured webhook body, about 1.5 KB
+        StringBuilder payload = new StringBuilder("{\"entity\":\"event\",\"event\":\"payment.captured\",\"payload\":"
+                + "{\"payment\":{\"entity\":{\"id\":\"pay_NvYm2kR3mZpQfA\",\"order_id\":\"order_NvYlqXwzB8d1Ke\","
+                + "\"amount\":99900,\"currency\":\"INR\",\"method\":\"upi\",\"notes\":[");
+        while (payload.length() < 1500) {
+            payload.append("\"note\",");
+        }
+        webhookPayload = payload.append("\"end\"]}}}}").toString();
+        webhookSignature = verifier.sign(webhookPayload);
+    }
+
+    @Benchmark
+    public boolean verifyPayment() {
+        return verifier.verify(paymentData, paymentSignature);
+    }
+
+    @Benchmark
+    public boolean verifyPaymentTampered() {
+        return verifier.verify(paymentData, tamperedSignature);
+    }
+
+    @Benchmark
+    public boolean verifyWebhook() {
+        return verifier.verify(webhookPayload, webhookSignature);
+    }
+
+    /**
+     * Verification as it was done before the verifier, for comparison
+     */
+    @Benchmark
+    public boolean verifyPaymentPerCallMac() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] hash = mac.doFinal(paymentData.getBytes(StandardCharsets.UTF_8));
+        try (Formatter formatter = new Formatter()) {
+            for (byte b : hash) {
+                formatter.format("%02x", b);
+            }
+            return formatter.toString().equals(paymentSignature);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HmacSignatureVerifierBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,80 @@
+package online.sevika.tm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HmacSignatureVerifier.
+ */
+class HmacSignatureVerifierTest {
+
+    // RFC 4231, test case 2
+    private static final String KEY = "Jefe";
+    private static final String DATA = "what do ya want for nothing?";
+    private static final String SIGNATURE = "5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843";
+
+    private final HmacSignatureVerifier verifier = new HmacSignatureVerifier(KEY);
+
+    @Test
+    void sign_MatchesReferenceVector() {
+        assertEquals(SIGNATURE, verifier.sign(DATA));
+    }
+
+    @Test
+    void verify_AcceptsValidSignatureInEitherCase() {
+        assertTrue(verifier.verify(DATA, SIGNATURE));
+        assertTrue(verifier.verify(DATA, SIGNATURE.toUpperCase()));
+    }
+
+    @Test
+    void verify_RejectsTamperedOrMalformedSignatures() {
+        String flipped = SIGNATURE.substring(0, 63) + (SIGNATURE.endsWith("3") ? "4" : "3");
+
+        assertFalse(verifier.verify(DATA, flipped));
+        assertFalse(verifier.verify(DATA + " ", SIGNATURE));
+        assertFalse(verifier.verify(DATA, SIGNATURE.substring(2)));
+        assertFalse(verifier.verify(DATA, SIGNATURE.substring(0, 62) + "zz"));
+        assertFalse(verifier.verify(DATA, null));
+        assertFalse(verifier.verify(null, SIGNATURE));
+    }
+
+    @Test
+    void verify_WithoutSecret_RejectsEverything() {
+        HmacSignatureVerifier unconfigured = new HmacSignatureVerifier("");
+
+        assertFalse(unconfigured.verify(DATA, SIGNATURE));
+        assertThrows(IllegalStateException.class, () -> unconfigured.sign(DATA));
+    }
+
+    @Test
+    void verify_ConcurrentCallers_DoNotInterfere() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String data = "order_" + i + "|pay_" + i;
+                String signature = verifier.sign(data);
+                results.add(executor.submit(() -> {
+                    for (int n = 0; n < 200; n++) {
+                        if (!verifier.verify(data, signature) || verifier.verify(data + n, signature)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package online.sevika.tm.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SlidingWindowCounter.
+ */
+class SlidingWindowCounterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(10);
+
+    private MutableClock clock;
+    private SlidingWindowCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        // Start exactly at a window boundary
+        clock = new MutableClock(Instant.ofEpochMilli(WINDOW.toMillis() * 1000));
+        counter = new SlidingWindowCounter(WINDOW, 1024, clock);
+    }
+
+    @Test
+    void increment_CountsPerKey() {
+        // Act
+        counter.increment("alice");
+        counter.increment("alice");
+        int count = counter.increment("alice");
+
+        // Assert
+        assertEquals(3, count);
+        assertEquals(3, counter.estimate("alice"));
+        assertEquals(0, counter.estimate("bob"));
+    }
+
+    @Test
+    void estimate_PreviousWindowDecaysLinearly() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            counter.increment("alice");
+        }
+
+        // Act & Assert: a quarter into the next window, three quarters of the old count remain
+        clock.advance(WINDOW.plus(WINDOW.dividedBy(4)));
+        assertEquals(8, counter.estimate("alice"));
+
+        // After two full windows everything has decayed
+        clock.advance(WINDOW);
+        assertEquals(0, counter.estimate("alice"));
+    }
+
+    @Test
+    void estimate_IdleGapClearsCounts() {
+        // Arrange
+        counter.increment("alice");
+
+        // Act
+        clock.advance(WINDOW.multipliedBy(5));
+
+        // Assert
+        assertEquals(0, counter.estimate("alice"));
+    }
+
+    @Test
+    void estimate_ManyDistinctKeys_NeverUnderestimates() {
+        // Arrange: far more keys than the counter keeps
+        for (int i = 0; i < 20_000; i++) {
+            counter.increment("user-" + i);
+        }
+        for (int i = 0; i < 5; i++) {
+            counter.increment("alice");
+        }
+
+        // Act & Assert
+        assertEquals(5, counter.estimate("alice"));
+    }
+
+    @Test
+    void estimate_MillionDistinctKeys_LeavesUnrelatedKeyUnlimited() {
+        // Arrange: a credential-stuffing run across a million usernames within one window
+        SlidingWindowCounter bounded = new SlidingWindowCounter(WINDOW, 100_000, clock);
+        for (int i = 0; i < 1_000_000; i++) {
+            bounded.increment("user-" + i);
+        }
+
+        // Act & Assert: counts are per key, so an untouched key has none and a new one counts exactly
+        assertEquals(0, bounded.estimate("alice"));
+        assertEquals(1, bounded.increment("alice"));
+        assertTrue(bounded.estimate("user-999999") <= 1);
+    }
+
+    @Test
+    void estimate_IdleKeyExpiresAfterTwoWindows() {
+        // Arrange
+        counter.increment("alice");
+
+        // Act
+        clock.advance(WINDOW.multipliedBy(2).plusMillis(1));
+
+        // Assert
+        assertEquals(0, counter.estimate("alice"));
+    }
+
+    @Test
+    void untilNextWindow_ReturnsRemainingTime() {
+        // Act
+        clock.advance(Duration.ofMinutes(4));
+
+        // Assert
+        assertEquals(Duration.ofMinutes(6), counter.untilNextWindow());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}